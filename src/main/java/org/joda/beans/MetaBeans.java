@@ -36,6 +36,25 @@ final class MetaBeans {
      */
     private static final ConcurrentHashMap<Class<?>, MetaBeanProvider> META_BEAN_PROVIDERS = new ConcurrentHashMap<>();
 
+    /**
+     * The meta-beans found by lookup, null if the meta-bean is dynamic and not registered.
+     * Once found, the meta-bean of a class is obtained without a map lookup.
+     */
+    private static final ClassValue<MetaBean> LOOKUP_CACHE = new ClassValue<MetaBean>() {
+        @Override
+        protected MetaBean computeValue(Class<?> cls) {
+            MetaBean meta = META_BEANS.get(cls);
+            if (meta != null) {
+                return meta;
+            }
+            // dynamic beans have a meta-bean per instance, thus are not cached
+            if (DynamicBean.class.isAssignableFrom(cls)) {
+                return null;
+            }
+            return metaBeanLookup(cls);
+        }
+    };
+
     /**
      * Restricted constructor.
      */
@@ -57,7 +76,7 @@ final class MetaBeans {
      * @throws IllegalArgumentException if unable to obtain the meta-bean
      */
     static MetaBean lookup(Class<?> cls) {
-        MetaBean meta = META_BEANS.get(cls);
+        MetaBean meta = LOOKUP_CACHE.get(cls);
         if (meta == null) {
             return metaBeanLookup(cls);
         }
@@ -149,6 +168,8 @@ final class MetaBeans {
         if (META_BEANS.putIfAbsent(type, metaBean) != null) {
             throw new IllegalArgumentException("Cannot register class twice: " + type.getName());
         }
+        // a dynamic bean may have been looked up before being registered
+        LOOKUP_CACHE.remove(type);
     }
 
 }
@@ -15,8 +15,11 @@
  */
 package org.joda.beans.ser;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaProperty;
+import org.joda.beans.ser.bin.JodaBeanBinFormat;
 import org.joda.beans.ser.bin.JodaBeanBinReader;
 import org.joda.beans.ser.bin.JodaBeanBinWriter;
 import org.joda.beans.ser.json.JodaBeanJsonReader;
@@ -41,12 +44,12 @@ public final class JodaBeanSer {
      * Obtains the singleton compact instance.
      */
     public static final JodaBeanSer COMPACT = new JodaBeanSer("", "", StringConvert.create(),
-            SerIteratorFactory.INSTANCE, true, SerDeserializers.INSTANCE, false);
+            SerIteratorFactory.INSTANCE, true, SerDeserializers.INSTANCE, false, false, SerCompression.NONE, 0, ForkJoinPool.commonPool(), false, false);
     /**
      * Obtains the singleton pretty-printing instance.
      */
     public static final JodaBeanSer PRETTY = new JodaBeanSer(" ", "\n", StringConvert.create(),
-            SerIteratorFactory.INSTANCE, true, SerDeserializers.INSTANCE, false);
+            SerIteratorFactory.INSTANCE, true, SerDeserializers.INSTANCE, false, false, SerCompression.NONE, 0, ForkJoinPool.commonPool(), false, false);
 
     /**
      * The indent to use.
@@ -76,6 +79,30 @@ public final class JodaBeanSer {
      * Whether to include derived properties.
      */
     private final boolean includeDerived;
+    /**
+     * Whether to use pooled output buffers.
+     */
+    private final boolean pooledBuffers;
+    /**
+     * The compression to use.
+     */
+    private final SerCompression compression;
+    /**
+     * The minimum collection size analyzed in parallel, zero if disabled.
+     */
+    private final int parallelThreshold;
+    /**
+     * The pool used for parallel analysis.
+     */
+    private final ForkJoinPool parallelPool;
+    /**
+     * Whether to use native binary encodings of common value types.
+     */
+    private final boolean nativeValueTypes;
+    /**
+     * Whether to use native binary encodings of numeric primitive arrays.
+     */
+    private final boolean nativePrimitiveArrays;
 
     /**
      * Creates an instance.
@@ -86,9 +113,18 @@ public final class JodaBeanSer {
      * @param iteratorFactory  the iterator factory, not null
      * @param shortTypes  whether to use short types
      * @param deserializers  the deserializers to use, not null
+     * @param includeDerived  whether to include derived properties
+     * @param pooledBuffers  whether to use pooled output buffers
+     * @param compression  the compression, not null
+     * @param parallelThreshold  the minimum collection size analyzed in parallel, zero if disabled
+     * @param parallelPool  the pool used for parallel analysis, not null
+     * @param nativeValueTypes  whether to use native binary encodings of common value types
+     * @param nativePrimitiveArrays  whether to use native binary encodings of numeric primitive arrays
      */
     private JodaBeanSer(String indent, String newLine, StringConvert converter,
-                SerIteratorFactory iteratorFactory, boolean shortTypes, SerDeserializers deserializers, boolean includeDerived) {
+                SerIteratorFactory iteratorFactory, boolean shortTypes, SerDeserializers deserializers,
+                boolean includeDerived, boolean pooledBuffers, SerCompression compression,
+                int parallelThreshold, ForkJoinPool parallelPool, boolean nativeValueTypes, boolean nativePrimitiveArrays) {
         this.indent = indent;
         this.newLine = newLine;
         this.converter = converter;
@@ -96,6 +132,12 @@ public final class JodaBeanSer {
         this.shortTypes = shortTypes;
         this.deserializers = deserializers;
         this.includeDerived = includeDerived;
+        this.pooledBuffers = pooledBuffers;
+        this.compression = compression;
+        this.parallelThreshold = parallelThreshold;
+        this.parallelPool = parallelPool;
+        this.nativeValueTypes = nativeValueTypes;
+        this.nativePrimitiveArrays = nativePrimitiveArrays;
     }
 
     //-----------------------------------------------------------------------
@@ -116,7 +158,8 @@ public final class JodaBeanSer {
      */
     public JodaBeanSer withIndent(String indent) {
         JodaBeanUtils.notNull(indent, "indent");
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, includeDerived);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
     }
 
     /**
@@ -136,7 +179,8 @@ public final class JodaBeanSer {
      */
     public JodaBeanSer withNewLine(String newLine) {
         JodaBeanUtils.notNull(newLine, "newLine");
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, includeDerived);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
     }
 
     /**
@@ -160,7 +204,8 @@ public final class JodaBeanSer {
      */
     public JodaBeanSer withConverter(StringConvert converter) {
         JodaBeanUtils.notNull(converter, "converter");
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, includeDerived);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
     }
 
     /**
@@ -180,7 +225,8 @@ public final class JodaBeanSer {
      */
     public JodaBeanSer withIteratorFactory(SerIteratorFactory iteratorFactory) {
         JodaBeanUtils.notNull(iteratorFactory, "iteratorFactory");
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, includeDerived);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
     }
 
     /**
@@ -199,7 +245,8 @@ public final class JodaBeanSer {
      * @return a copy of this object with the short types flag changed, not null
      */
     public JodaBeanSer withShortTypes(boolean shortTypes) {
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, includeDerived);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
     }
 
     /**
@@ -225,7 +272,8 @@ public final class JodaBeanSer {
      */
     public JodaBeanSer withDeserializers(SerDeserializers deserializers) {
         JodaBeanUtils.notNull(deserializers, "deserializers");
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, includeDerived);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
     }
 
     //-----------------------------------------------------------------------
@@ -251,7 +299,8 @@ public final class JodaBeanSer {
      * @return a copy of this object with the converter changed, not null
      */
     public JodaBeanSer withIncludeDerived(boolean includeDerived) {
-        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers, includeDerived);
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
     }
 
     /**
@@ -264,6 +313,164 @@ public final class JodaBeanSer {
         return prop.style().isSerializable() || (prop.style().isDerived() && includeDerived);
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Gets whether to use pooled output buffers.
+     * 
+     * @return true if pooled output buffers are used
+     */
+    public boolean isPooledBuffers() {
+        return pooledBuffers;
+    }
+
+    /**
+     * Returns a copy of this serializer with the specified pooled buffers flag.
+     * <p>
+     * When enabled, the binary and JSON writers reuse a per-thread buffer when writing
+     * to a {@code byte[]} or {@code String}, sized using the last message written for
+     * the same root bean type in the same format. As such, only the final result is allocated.
+     * 
+     * @param pooledBuffers  whether to use pooled output buffers
+     * @return a copy of this object with the pooled buffers flag changed, not null
+     */
+    public JodaBeanSer withPooledBuffers(boolean pooledBuffers) {
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the compression.
+     * 
+     * @return the compression, not null
+     */
+    public SerCompression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Returns a copy of this serializer with the specified compression.
+     * <p>
+     * When enabled, the binary writer compresses the output when writing to a {@code byte[]}
+     * or {@code OutputStream}, and the JSON and XML writers compress the output when writing to an
+     * {@code OutputStream}. The smart reader decompresses the data automatically, using the
+     * dictionary of this compression if necessary.
+     * 
+     * @param compression  the compression, not null
+     * @return a copy of this object with the compression changed, not null
+     */
+    public JodaBeanSer withCompression(SerCompression compression) {
+        JodaBeanUtils.notNull(compression, "compression");
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the minimum collection size that is analyzed in parallel by the referencing binary writer.
+     * 
+     * @return the minimum collection size, zero if parallel analysis is disabled
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Gets the pool used for parallel analysis by the referencing binary writer.
+     * 
+     * @return the pool, the common pool by default, not null
+     */
+    public ForkJoinPool getParallelPool() {
+        return parallelPool;
+    }
+
+    /**
+     * Returns a copy of this serializer with the specified parallel analysis threshold.
+     * <p>
+     * Before writing, the referencing binary writer analyzes the whole bean to find repeated objects.
+     * When enabled, the elements of any collection, map or array with at least this many elements
+     * are analyzed in parallel using the common {@code ForkJoinPool}, which suits very large beans.
+     * The output is identical to that of the sequential analysis.
+     * 
+     * @param parallelThreshold  the minimum collection size analyzed in parallel, zero to disable
+     * @return a copy of this object with the parallel threshold changed, not null
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public JodaBeanSer withParallelThreshold(int parallelThreshold) {
+        return withParallelThreshold(parallelThreshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a copy of this serializer with the specified parallel analysis threshold and pool.
+     * <p>
+     * This is the same as {@link #withParallelThreshold(int)}, but analyzes in the specified pool.
+     * 
+     * @param parallelThreshold  the minimum collection size analyzed in parallel, zero to disable
+     * @param parallelPool  the pool used for parallel analysis, not null
+     * @return a copy of this object with the parallel threshold changed, not null
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public JodaBeanSer withParallelThreshold(int parallelThreshold, ForkJoinPool parallelPool) {
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("Parallel threshold must not be negative");
+        }
+        JodaBeanUtils.notNull(parallelPool, "parallelPool");
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets whether to use native binary encodings of common value types.
+     * 
+     * @return true if native binary encodings are used
+     */
+    public boolean isNativeValueTypes() {
+        return nativeValueTypes;
+    }
+
+    /**
+     * Returns a copy of this serializer with the specified native value types flag.
+     * <p>
+     * When enabled, the binary writers output {@code LocalDate}, {@code Instant}, {@code BigDecimal}
+     * and {@code UUID} using compact numeric 'ext' entities rather than Joda-Convert strings.
+     * The binary reader accepts both forms, but older versions of the reader cannot parse the
+     * native form, thus it is disabled by default.
+     * 
+     * @param nativeValueTypes  whether to use native binary encodings of common value types
+     * @return a copy of this object with the native value types flag changed, not null
+     */
+    public JodaBeanSer withNativeValueTypes(boolean nativeValueTypes) {
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets whether to use native binary encodings of numeric primitive arrays.
+     * 
+     * @return true if native binary encodings are used
+     */
+    public boolean isNativePrimitiveArrays() {
+        return nativePrimitiveArrays;
+    }
+
+    /**
+     * Returns a copy of this serializer with the specified native primitive arrays flag.
+     * <p>
+     * When enabled, the binary writers output arrays of {@code double}, {@code float}, {@code long},
+     * {@code int} and {@code short} as a single 'ext' entity of big-endian values rather than
+     * Joda-Convert strings. The binary reader accepts both forms, but older versions of the reader
+     * cannot parse the native form, thus it is disabled by default.
+     * 
+     * @param nativePrimitiveArrays  whether to use native binary encodings of numeric primitive arrays
+     * @return a copy of this object with the native primitive arrays flag changed, not null
+     */
+    public JodaBeanSer withNativePrimitiveArrays(boolean nativePrimitiveArrays) {
+        return new JodaBeanSer(indent, newLine, converter, iteratorFactory, shortTypes, deserializers,
+                includeDerived, pooledBuffers, compression, parallelThreshold, parallelPool, nativeValueTypes, nativePrimitiveArrays);
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Creates a reader that determines the file format and parses it.
@@ -311,7 +518,42 @@ public final class JodaBeanSer {
     }
 
     /**
-     * Creates a binary reader that handles both the standard and referencing binary formats.
+     * Creates a binary writer using the positional format that avoids repeating property names.
+     * <p>
+     * It is recommended, though not necessary, to create a new instance of the writer for each message.
+     * <p>
+     * The property names of each bean type are written once per message, with each bean
+     * then written as an array of property values. This is smaller and faster to parse than
+     * the standard format where many beans of the same type are written.
+     * <p>
+     * The reader {@link #binReader()} handles the standard, referencing and positional formats.
+     * 
+     * @return the positional binary writer, not null
+     */
+    public JodaBeanBinWriter binWriterPositional() {
+        return new JodaBeanBinWriter(this, JodaBeanBinFormat.POSITIONAL);
+    }
+
+    /**
+     * Creates a binary writer using the positional format, writing repeated immutable beans once.
+     * <p>
+     * It is recommended, though not necessary, to create a new instance of the writer for each message.
+     * <p>
+     * As with the referencing format, an immutable bean that is equal to one already written
+     * is output as a reference. Unlike the referencing format, the object graph is not scanned
+     * before writing, thus writing is faster at the cost of slightly larger output.
+     * Mutable beans are supported but are never referenced.
+     * <p>
+     * The reader {@link #binReader()} handles the standard, referencing and positional formats.
+     * 
+     * @return the positional referencing binary writer, not null
+     */
+    public JodaBeanBinWriter binWriterPositionalReferencing() {
+        return new JodaBeanBinWriter(this, JodaBeanBinFormat.POSITIONAL_REFERENCING);
+    }
+
+    /**
+     * Creates a binary reader that handles the standard, referencing and positional binary formats.
      * <p>
      * It is recommended, though not necessary, to create a new instance of the reader for each message.
      * 
@@ -46,6 +46,10 @@ enum JodaBeanSerFormat {
      * The XML format.
      */
     XML_UTF8,
+    /**
+     * A compressed frame containing one of the other formats.
+     */
+    COMPRESSED,
     /**
      * The format is unknown.
      */
@@ -59,13 +63,11 @@ enum JodaBeanSerFormat {
                 return settings.binReader().read(stream, rootType);
             }
             case JSON: {
-                InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8);
-                return rootType.cast(settings.simpleJsonReader().read(reader, rootType));
+                return rootType.cast(settings.simpleJsonReader().read(stream, rootType));
             }
             case JSON_UTF8: {
                 read(stream, 3);
-                InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8);
-                return rootType.cast(settings.simpleJsonReader().read(reader, rootType));
+                return rootType.cast(settings.simpleJsonReader().read(stream, rootType));
             }
             case XML: {
                 InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8);
@@ -76,6 +78,13 @@ enum JodaBeanSerFormat {
                 InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8);
                 return rootType.cast(settings.xmlReader().read(reader, rootType));
             }
+            case COMPRESSED: {
+                try (InputStream decompressed = settings.getCompression().decompress(stream)) {
+                    return settings.smartReader().read(decompressed, rootType);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
             case UNKNOWN:
             default:
                 throw new IllegalArgumentException("File is not a recognised Joda-Beans format");
@@ -28,6 +28,9 @@ import org.joda.beans.JodaBeanUtils;
 
 /**
  * Determines the correct file format and parses it appropriately.
+ * <p>
+ * Data compressed using {@link SerCompression} is decompressed automatically,
+ * using the compression dictionary of the settings if necessary.
  */
 public class JodaBeanSmartReader {
 
@@ -101,6 +104,10 @@ public class JodaBeanSmartReader {
             return JodaBeanSerFormat.BIN;
         } else if (input[0] == (byte) 0x92 && input[1] == (byte) 0x01) {
             return JodaBeanSerFormat.BIN;
+        } else if (input[0] == (byte) 0x92 && (input[1] == (byte) 0x04 || input[1] == (byte) 0x05)) {
+            return JodaBeanSerFormat.BIN;
+        } else if (SerCompression.isCompressed(input)) {
+            return JodaBeanSerFormat.COMPRESSED;
         } else {
             return JodaBeanSerFormat.UNKNOWN;
         }
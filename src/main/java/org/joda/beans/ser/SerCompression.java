@@ -0,0 +1,364 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+
+/**
+ * Compression of serialized Joda-Beans, used by serialization implementations.
+ * <p>
+ * Compressed data is written as a frame, consisting of the four bytes 0xC1 'J' 'B' 'Z',
+ * the four byte identifier of the preset dictionary, zero if none, and then the
+ * serialized data compressed using raw deflate. The smart reader detects and
+ * decompresses such frames automatically.
+ * <p>
+ * A preset dictionary improves the compression of small messages. The dictionary is
+ * built from the type names and property names of a list of meta-beans, which must
+ * be the same in the same order when reading and writing.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class SerCompression {
+
+    /**
+     * No compression.
+     */
+    public static final SerCompression NONE = new SerCompression(false, new byte[0]);
+    /**
+     * Compression using deflate, without a preset dictionary.
+     */
+    public static final SerCompression DEFLATE = new SerCompression(true, new byte[0]);
+
+    /**
+     * The header that starts a compressed frame.
+     */
+    private static final byte[] HEADER = {(byte) 0xC1, 'J', 'B', 'Z'};
+    /**
+     * The maximum size of a preset dictionary, which is the size of the deflate window.
+     */
+    private static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * Whether compression is enabled.
+     */
+    private final boolean enabled;
+    /**
+     * The preset dictionary, empty if none.
+     */
+    private final byte[] dictionary;
+    /**
+     * The identifier of the preset dictionary, zero if none.
+     */
+    private final int dictionaryId;
+
+    /**
+     * Creates an instance.
+     *
+     * @param enabled  whether compression is enabled
+     * @param dictionary  the preset dictionary, not null
+     */
+    private SerCompression(boolean enabled, byte[] dictionary) {
+        this.enabled = enabled;
+        this.dictionary = dictionary;
+        if (dictionary.length > 0) {
+            Adler32 adler = new Adler32();
+            adler.update(dictionary);
+            this.dictionaryId = (int) adler.getValue();
+        } else {
+            this.dictionaryId = 0;
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns a copy of this compression using a preset dictionary built from the meta-beans.
+     * <p>
+     * The dictionary contains the type name and property names of each meta-bean.
+     * Deflate favours the end of the dictionary, so the most common beans should be last.
+     * If the names exceed 32kb, the start of the dictionary is discarded.
+     * <p>
+     * The same meta-beans must be specified in the same order when reading.
+     *
+     * @param metaBeans  the meta-beans to build the dictionary from, not null
+     * @return a copy of this compression using the dictionary, not null
+     */
+    public SerCompression withDictionary(MetaBean... metaBeans) {
+        JodaBeanUtils.notNull(metaBeans, "metaBeans");
+        return withDictionary(Arrays.asList(metaBeans));
+    }
+
+    /**
+     * Returns a copy of this compression using a preset dictionary built from the meta-beans.
+     * <p>
+     * The dictionary contains the type name and property names of each meta-bean.
+     * Deflate favours the end of the dictionary, so the most common beans should be last.
+     * If the names exceed 32kb, the start of the dictionary is discarded.
+     * <p>
+     * The same meta-beans must be specified in the same order when reading.
+     *
+     * @param metaBeans  the meta-beans to build the dictionary from, not null
+     * @return a copy of this compression using the dictionary, not null
+     */
+    public SerCompression withDictionary(Iterable<MetaBean> metaBeans) {
+        JodaBeanUtils.notNull(metaBeans, "metaBeans");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
+        for (MetaBean metaBean : metaBeans) {
+            byte[] typeName = metaBean.beanType().getName().getBytes(UTF_8);
+            baos.write(typeName, 0, typeName.length);
+            for (MetaProperty<?> metaProperty : metaBean.metaPropertyIterable()) {
+                byte[] name = metaProperty.name().getBytes(UTF_8);
+                baos.write(name, 0, name.length);
+            }
+        }
+        byte[] bytes = baos.toByteArray();
+        if (bytes.length > MAX_DICTIONARY_SIZE) {
+            bytes = Arrays.copyOfRange(bytes, bytes.length - MAX_DICTIONARY_SIZE, bytes.length);
+        }
+        return new SerCompression(enabled, bytes);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if compression is enabled.
+     *
+     * @return true if data is compressed when written
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Checks if the input starts with a compressed frame.
+     *
+     * @param input  the input bytes to check, which need only consist of the first few bytes, not null
+     * @return true if the input is compressed
+     */
+    public static boolean isCompressed(byte[] input) {
+        if (input.length < HEADER.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER.length; i++) {
+            if (input[i] != HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Starts compression of data written to the output stream.
+     * <p>
+     * If compression is enabled, the frame header is written and a compressing stream returned.
+     * Otherwise, the output stream is returned unaltered.
+     * The result must be passed to {@link #finish(OutputStream)} once all the data is written,
+     * or to {@link #end(OutputStream)} if writing fails.
+     *
+     * @param output  the output stream to write to, not null
+     * @return the output stream to write the data to, not null
+     * @throws IOException if an error occurs
+     */
+    public OutputStream compress(OutputStream output) throws IOException {
+        if (!enabled) {
+            return output;
+        }
+        output.write(HEADER);
+        output.write(dictionaryId >>> 24);
+        output.write(dictionaryId >>> 16);
+        output.write(dictionaryId >>> 8);
+        output.write(dictionaryId);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        if (dictionary.length > 0) {
+            deflater.setDictionary(dictionary);
+        }
+        return new FrameOutputStream(output, deflater);
+    }
+
+    /**
+     * Finishes compression of data, without closing the underlying output stream.
+     *
+     * @param compressed  the stream returned from {@link #compress(OutputStream)}, not null
+     * @throws IOException if an error occurs
+     */
+    public static void finish(OutputStream compressed) throws IOException {
+        if (compressed instanceof FrameOutputStream) {
+            ((FrameOutputStream) compressed).finish();
+        }
+    }
+
+    /**
+     * Ends compression of data, releasing the resources without finishing the frame.
+     * <p>
+     * This must be called if writing fails, typically in a {@code finally} block.
+     * It has no effect if the stream has already been finished.
+     *
+     * @param compressed  the stream returned from {@link #compress(OutputStream)}, not null
+     */
+    public static void end(OutputStream compressed) {
+        if (compressed instanceof FrameOutputStream) {
+            ((FrameOutputStream) compressed).end();
+        }
+    }
+
+    /**
+     * Decompresses a compressed frame.
+     * <p>
+     * The dictionary of this instance is used if the frame was compressed with a dictionary,
+     * whether or not compression is enabled.
+     * <p>
+     * The result must be closed once the data is read, which releases the inflater.
+     * Closing the result does not close the input stream.
+     *
+     * @param input  the input stream positioned at the start of the frame, not null
+     * @return the decompressed input stream, which supports mark and reset, not null
+     * @throws IOException if an error occurs
+     * @throws IllegalArgumentException if the input is not a compressed frame or the dictionary differs
+     */
+    public InputStream decompress(InputStream input) throws IOException {
+        DataInputStream data = new DataInputStream(input);
+        byte[] header = new byte[HEADER.length];
+        data.readFully(header);
+        if (!isCompressed(header)) {
+            throw new IllegalArgumentException("Invalid compressed data: Expected compressed frame header");
+        }
+        int frameDictionaryId = data.readInt();
+        Inflater inflater = new Inflater(true);
+        if (frameDictionaryId != 0) {
+            if (frameDictionaryId != dictionaryId) {
+                throw new IllegalArgumentException(
+                        "Invalid compressed data: Data was compressed with a different dictionary");
+            }
+            inflater.setDictionary(dictionary);
+        }
+        return new BufferedInputStream(new FrameInputStream(input, inflater));
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return enabled ? (dictionary.length > 0 ? "Deflate[dictionary]" : "Deflate") : "None";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Compressing stream that releases the deflater when finished.
+     */
+    private static final class FrameOutputStream extends DeflaterOutputStream {
+        // buffers small writes, as each write to the deflater is relatively expensive
+        private final byte[] buffer = new byte[8192];
+        private int count;
+        private boolean finished;
+
+        private FrameOutputStream(OutputStream output, Deflater deflater) {
+            super(output, deflater, 8192);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length >= buffer.length) {
+                flushBuffer();
+                super.write(bytes, offset, length);
+            } else {
+                if (length > buffer.length - count) {
+                    flushBuffer();
+                }
+                System.arraycopy(bytes, offset, buffer, count, length);
+                count += length;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+            super.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            try {
+                flushBuffer();
+                super.finish();
+                out.flush();
+            } finally {
+                def.end();
+            }
+        }
+
+        private void end() {
+            if (finished == false) {
+                finished = true;
+                def.end();
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            if (count > 0) {
+                super.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+    }
+
+    /**
+     * Decompressing stream that releases the inflater when closed.
+     * The underlying stream is not closed, as the frame may be followed by other data.
+     */
+    private static final class FrameInputStream extends InflaterInputStream {
+        private boolean closed;
+
+        private FrameInputStream(InputStream input, Inflater inflater) {
+            super(input, inflater, 8192);
+        }
+
+        @Override
+        public void close() {
+            if (closed == false) {
+                closed = true;
+                inf.end();
+            }
+        }
+    }
+
+}
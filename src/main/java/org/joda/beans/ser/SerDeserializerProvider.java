@@ -32,6 +32,9 @@ public interface SerDeserializerProvider {
      * Finds the deserializer for the specified type.
      * <p>
      * If the type is not known, the implementation must return null.
+     * <p>
+     * The result is cached by {@link SerDeserializers} until its deserializers or providers change.
+     * As such, the same result must be returned each time this is called for a type.
      * 
      * 
      * @param beanType  the type being processed, not null
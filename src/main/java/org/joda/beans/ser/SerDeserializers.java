@@ -26,13 +26,17 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.URL;
+import java.util.AbstractMap;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.AbstractSet;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -87,10 +91,18 @@ public final class SerDeserializers {
      * The deserializers.
      */
     private final ConcurrentMap<Class<?>, SerDeserializer> deserializers = new ConcurrentHashMap<>();
+    /**
+     * The view of the deserializers that can be modified, replacing the cache on each change.
+     */
+    private final ConcurrentMap<Class<?>, SerDeserializer> deserializersView = new DeserializersView();
     /**
      * The deserializer providers.
      */
     private final CopyOnWriteArrayList<SerDeserializerProvider> providers = new CopyOnWriteArrayList<>();
+    /**
+     * The cache of deserializers found for each type, replaced whenever the deserializers or providers change.
+     */
+    private volatile ClassValue<SerDeserializer> cache = createCache();
 
     /**
      * Creates an instance.
@@ -133,27 +145,34 @@ public final class SerDeserializers {
      */
     public SerDeserializers register(Class<?> type, SerDeserializer deserializer) {
         deserializers.put(type, deserializer);
+        cache = createCache();
         return this;
     }
 
     /**
      * Gets the map of deserializers which can be modified.
+     * <p>
+     * Changes made to the map are seen by the next call to {@link #findDeserializer(Class)}.
      * 
      * @return the map of deserializers, not null
      */
     public ConcurrentMap<Class<?>, SerDeserializer> getDeserializers() {
-        return deserializers;
+        return deserializersView;
     }
 
     //-----------------------------------------------------------------------
     /**
      * Adds the deserializer provider to be used.
+     * <p>
+     * The deserializer found for each type is cached until the deserializers or providers change.
+     * As such, the provider must return the same result each time it is queried for a type.
      * 
      * @param provider  the deserializer provider, not null
      * @return this, for chaining, not null
      */
     public SerDeserializers registerProvider(SerDeserializerProvider provider) {
         providers.add(provider);
+        cache = createCache();
         return this;
     }
 
@@ -167,6 +186,21 @@ public final class SerDeserializers {
      * @return the deserializer, not null
      */
     public SerDeserializer findDeserializer(Class<?> type) {
+        return cache.get(type);
+    }
+
+    // creates the cache, which must be replaced when the deserializers or providers change
+    private ClassValue<SerDeserializer> createCache() {
+        return new ClassValue<SerDeserializer>() {
+            @Override
+            protected SerDeserializer computeValue(Class<?> type) {
+                return lookupDeserializer(type);
+            }
+        };
+    }
+
+    // looks up the deserializer without the cache
+    private SerDeserializer lookupDeserializer(Class<?> type) {
         SerDeserializer deser = deserializers.get(type);
         if (deser != null) {
             return deser;
@@ -338,4 +372,120 @@ public final class SerDeserializers {
         return getClass().getSimpleName();
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * The modifiable view of the deserializers.
+     * <p>
+     * Every change is made to the underlying map, then the cache is replaced.
+     * The remaining map operations are implemented in terms of these methods.
+     */
+    private final class DeserializersView
+            extends AbstractMap<Class<?>, SerDeserializer>
+            implements ConcurrentMap<Class<?>, SerDeserializer> {
+
+        @Override
+        public int size() {
+            return deserializers.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return deserializers.containsKey(key);
+        }
+
+        @Override
+        public SerDeserializer get(Object key) {
+            return deserializers.get(key);
+        }
+
+        @Override
+        public SerDeserializer put(Class<?> key, SerDeserializer value) {
+            SerDeserializer previous = deserializers.put(key, value);
+            cache = createCache();
+            return previous;
+        }
+
+        @Override
+        public SerDeserializer putIfAbsent(Class<?> key, SerDeserializer value) {
+            SerDeserializer previous = deserializers.putIfAbsent(key, value);
+            cache = createCache();
+            return previous;
+        }
+
+        @Override
+        public SerDeserializer remove(Object key) {
+            SerDeserializer previous = deserializers.remove(key);
+            cache = createCache();
+            return previous;
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            boolean removed = deserializers.remove(key, value);
+            cache = createCache();
+            return removed;
+        }
+
+        @Override
+        public SerDeserializer replace(Class<?> key, SerDeserializer value) {
+            SerDeserializer previous = deserializers.replace(key, value);
+            cache = createCache();
+            return previous;
+        }
+
+        @Override
+        public boolean replace(Class<?> key, SerDeserializer oldValue, SerDeserializer newValue) {
+            boolean replaced = deserializers.replace(key, oldValue, newValue);
+            cache = createCache();
+            return replaced;
+        }
+
+        @Override
+        public void clear() {
+            deserializers.clear();
+            cache = createCache();
+        }
+
+        @Override
+        public Set<Entry<Class<?>, SerDeserializer>> entrySet() {
+            return new AbstractSet<Entry<Class<?>, SerDeserializer>>() {
+                @Override
+                public int size() {
+                    return deserializers.size();
+                }
+
+                @Override
+                public Iterator<Entry<Class<?>, SerDeserializer>> iterator() {
+                    Iterator<Entry<Class<?>, SerDeserializer>> it = deserializers.entrySet().iterator();
+                    return new Iterator<Entry<Class<?>, SerDeserializer>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Class<?>, SerDeserializer> next() {
+                            Entry<Class<?>, SerDeserializer> entry = it.next();
+                            return new SimpleEntry<Class<?>, SerDeserializer>(entry) {
+                                private static final long serialVersionUID = 1L;
+
+                                @Override
+                                public SerDeserializer setValue(SerDeserializer value) {
+                                    put(getKey(), value);
+                                    return super.setValue(value);
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            it.remove();
+                            cache = createCache();
+                        }
+                    };
+                }
+            };
+        }
+    }
+
 }
@@ -0,0 +1,325 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.joda.beans.DynamicMetaBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+
+/**
+ * Cache of the meta-properties of a single bean type keyed by property name,
+ * used by serialization implementations.
+ * <p>
+ * The names are looked up directly from the input, either as UTF-8 bytes or characters,
+ * avoiding the need to create a {@code String} for each property that is read.
+ * A name that is not found is added using {@link SerDeserializer#findMetaProperty},
+ * thus renamed and unknown properties are handled exactly as by the deserializer.
+ * A lookup by bytes only succeeds for ASCII names, other names must be added
+ * and looked up as a {@code String}.
+ * <p>
+ * A cache is obtained using {@link #of(SerDeserializer, Class, MetaBean)}, which shares
+ * the cache of each bean type between readers and messages. The names of the properties
+ * of the meta-bean are added when the cache is created. Only a limited number of other
+ * names are added, thus unknown names in the input cannot fill the memory.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class SerPropertyCache {
+
+    /**
+     * The maximum number of names that are added beyond the number of properties.
+     */
+    private static final int MAX_EXTRA_NAMES = 64;
+    /**
+     * The maximum number of deserializers that caches are held for each bean type.
+     */
+    private static final int MAX_DESERIALIZERS = 8;
+    /**
+     * The shared caches, keyed by bean type, then by deserializer.
+     * The map of deserializers is replaced when a cache is added.
+     */
+    private static final ClassValue<AtomicReference<Map<SerDeserializer, SerPropertyCache>>> CACHES =
+            new ClassValue<AtomicReference<Map<SerDeserializer, SerPropertyCache>>>() {
+                @Override
+                protected AtomicReference<Map<SerDeserializer, SerPropertyCache>> computeValue(Class<?> type) {
+                    return new AtomicReference<>(Collections.emptyMap());
+                }
+            };
+
+    /**
+     * The deserializer.
+     */
+    private final SerDeserializer deserializer;
+    /**
+     * The bean type.
+     */
+    private final Class<?> beanType;
+    /**
+     * The meta-bean.
+     */
+    private final MetaBean metaBean;
+    /**
+     * The maximum number of names.
+     */
+    private final int maxSize;
+    /**
+     * The entries, indexed by hash, replaced when a name is added.
+     */
+    private volatile Entry[] entries;
+    /**
+     * The number of names, guarded by this.
+     */
+    private int size;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains the cache for a bean type.
+     * <p>
+     * The cache is shared for each combination of bean type and deserializer,
+     * thus readers using different deserializers, such as the standard and lenient ones,
+     * each keep their own cache. A limited number of deserializers are held for each bean type.
+     * Dynamic beans are not shared, as the meta-bean varies by instance.
+     *
+     * @param deserializer  the deserializer used to find the meta-properties, not null
+     * @param beanType  the bean type, not null
+     * @param metaBean  the meta-bean, not null
+     * @return the cache, not null
+     */
+    public static SerPropertyCache of(SerDeserializer deserializer, Class<?> beanType, MetaBean metaBean) {
+        JodaBeanUtils.notNull(deserializer, "deserializer");
+        JodaBeanUtils.notNull(beanType, "beanType");
+        JodaBeanUtils.notNull(metaBean, "metaBean");
+        if (metaBean instanceof DynamicMetaBean) {
+            return new SerPropertyCache(deserializer, beanType, metaBean, false);
+        }
+        AtomicReference<Map<SerDeserializer, SerPropertyCache>> shared = CACHES.get(beanType);
+        Map<SerDeserializer, SerPropertyCache> caches = shared.get();
+        SerPropertyCache cache = caches.get(deserializer);
+        if (cache != null && cache.metaBean == metaBean) {
+            return cache;
+        }
+        cache = new SerPropertyCache(deserializer, beanType, metaBean, true);
+        while (true) {
+            Map<SerDeserializer, SerPropertyCache> updated =
+                    new IdentityHashMap<>(caches.size() < MAX_DESERIALIZERS ? caches : Collections.emptyMap());
+            updated.put(deserializer, cache);
+            if (shared.compareAndSet(caches, updated)) {
+                return cache;
+            }
+            caches = shared.get();
+            SerPropertyCache other = caches.get(deserializer);
+            if (other != null && other.metaBean == metaBean) {
+                return other;  // added by another thread
+            }
+        }
+    }
+
+    /**
+     * Creates an instance.
+     *
+     * @param deserializer  the deserializer used to find the meta-properties, not null
+     * @param beanType  the bean type, not null
+     * @param metaBean  the meta-bean, not null
+     * @param addProperties  whether to add the names of the properties
+     */
+    private SerPropertyCache(SerDeserializer deserializer, Class<?> beanType, MetaBean metaBean, boolean addProperties) {
+        this.deserializer = deserializer;
+        this.beanType = beanType;
+        this.metaBean = metaBean;
+        this.maxSize = metaBean.metaPropertyCount() + MAX_EXTRA_NAMES;
+        int capacity = 16;
+        while (capacity < metaBean.metaPropertyCount() * 2) {
+            capacity <<= 1;
+        }
+        this.entries = new Entry[capacity];
+        if (addProperties) {
+            for (MetaProperty<?> metaProperty : metaBean.metaPropertyIterable()) {
+                try {
+                    add(metaProperty.name());
+                } catch (RuntimeException ex) {
+                    // the deserializer rejects the name, which is then handled when read
+                }
+            }
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Finds a name encoded in UTF-8.
+     *
+     * @param utf8  the bytes of the name, not null
+     * @param length  the number of bytes in the name
+     * @return the entry, null if not found or not ASCII
+     */
+    public Entry find(byte[] utf8, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = utf8[i];
+            if (b < 0) {
+                return null;
+            }
+            hash = 31 * hash + b;
+        }
+        Entry[] entries = this.entries;
+        int mask = entries.length - 1;
+        for (int slot = hash & mask; entries[slot] != null; slot = (slot + 1) & mask) {
+            Entry entry = entries[slot];
+            if (entry.hash == hash && entry.matches(utf8, length)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds a name.
+     *
+     * @param name  the name, not null
+     * @return the entry, null if not found
+     */
+    public Entry find(CharSequence name) {
+        int length = name.length();
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+        Entry[] entries = this.entries;
+        int mask = entries.length - 1;
+        for (int slot = hash & mask; entries[slot] != null; slot = (slot + 1) & mask) {
+            Entry entry = entries[slot];
+            if (entry.hash == hash && entry.name.contentEquals(name)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a name that was not found, finding the meta-property using the deserializer.
+     * <p>
+     * If the deserializer throws an exception, the name is not added.
+     * If the cache is full, the entry is returned without being added.
+     *
+     * @param name  the name, not null
+     * @return the entry, not null
+     */
+    public Entry add(String name) {
+        Entry added = new Entry(name, deserializer.findMetaProperty(beanType, metaBean, name));
+        synchronized (this) {
+            if (size >= maxSize) {
+                return added;
+            }
+            Entry[] oldEntries = entries;
+            int mask = oldEntries.length - 1;
+            for (int slot = added.hash & mask; oldEntries[slot] != null; slot = (slot + 1) & mask) {
+                if (oldEntries[slot].name.equals(name)) {
+                    return oldEntries[slot];  // added by another thread
+                }
+            }
+            int capacity = (size + 1) * 2 > oldEntries.length ? oldEntries.length * 2 : oldEntries.length;
+            Entry[] newEntries = new Entry[capacity];
+            for (Entry entry : oldEntries) {
+                if (entry != null) {
+                    insert(newEntries, entry);
+                }
+            }
+            insert(newEntries, added);
+            size++;
+            entries = newEntries;
+        }
+        return added;
+    }
+
+    // inserts the entry into the first free slot
+    private static void insert(Entry[] entries, Entry entry) {
+        int mask = entries.length - 1;
+        int slot = entry.hash & mask;
+        while (entries[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        entries[slot] = entry;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "SerPropertyCache[" + beanType.getName() + "]";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * A name in the cache, with the meta-property found by the deserializer.
+     */
+    public static final class Entry {
+
+        /**
+         * The hash of the name.
+         */
+        private final int hash;
+        /**
+         * The name.
+         */
+        private final String name;
+        /**
+         * The meta-property, null if the property is unknown.
+         */
+        private final MetaProperty<?> metaProperty;
+
+        private Entry(String name, MetaProperty<?> metaProperty) {
+            this.hash = name.hashCode();
+            this.name = name;
+            this.metaProperty = metaProperty;
+        }
+
+        /**
+         * Gets the name.
+         *
+         * @return the name, not null
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Gets the meta-property.
+         *
+         * @return the meta-property, null if the deserializer does not recognise the property
+         */
+        public MetaProperty<?> metaProperty() {
+            return metaProperty;
+        }
+
+        // checks if the ASCII bytes match the name
+        private boolean matches(byte[] utf8, int length) {
+            if (name.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (name.charAt(i) != utf8[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
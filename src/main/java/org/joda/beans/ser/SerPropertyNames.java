@@ -0,0 +1,134 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import org.joda.beans.DynamicMetaBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+
+/**
+ * Cache of property names pre-encoded for output, used by serialization implementations.
+ * <p>
+ * The property names of a bean type are constant, thus each format can encode each name
+ * once and copy the encoded form to the output whenever a bean is written.
+ * Each format holds a single instance in a static constant.
+ * <p>
+ * The names are cached per bean type in an array, in the order of the meta-properties,
+ * so that writers can obtain the name of each property by index without a lookup.
+ * The names of dynamic beans are not cached, as they are not fixed by the type.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <T>  the type of the encoded name
+ */
+public final class SerPropertyNames<T> {
+
+    /**
+     * The encoder.
+     */
+    private final Function<String, T> encoder;
+    /**
+     * The creator of arrays of encoded names.
+     */
+    private final IntFunction<T[]> arrayCreator;
+    /**
+     * The encoded names, keyed by bean type, null until first used.
+     */
+    private final ClassValue<AtomicReference<T[]>> cache = new ClassValue<AtomicReference<T[]>>() {
+        @Override
+        protected AtomicReference<T[]> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
+    /**
+     * Creates an instance.
+     *
+     * @param encoder  the function to encode a property name, not null
+     * @param arrayCreator  the function to create an array of encoded names, not null
+     */
+    public SerPropertyNames(Function<String, T> encoder, IntFunction<T[]> arrayCreator) {
+        JodaBeanUtils.notNull(encoder, "encoder");
+        JodaBeanUtils.notNull(arrayCreator, "arrayCreator");
+        this.encoder = encoder;
+        this.arrayCreator = arrayCreator;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the encoded names of the meta-properties of the meta-bean.
+     * <p>
+     * The names are in the order of {@link MetaBean#metaPropertyIterable()}.
+     * The array is shared and must not be modified.
+     *
+     * @param metaBean  the meta-bean, not null
+     * @return the encoded names, not null
+     */
+    public T[] encoded(MetaBean metaBean) {
+        if (metaBean instanceof DynamicMetaBean) {
+            return encode(metaBean);
+        }
+        AtomicReference<T[]> ref = cache.get(metaBean.beanType());
+        T[] encoded = ref.get();
+        if (encoded == null) {
+            encoded = encode(metaBean);
+            if (ref.compareAndSet(null, encoded) == false) {
+                encoded = ref.get();
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Gets the encoded name of the meta-property.
+     * <p>
+     * This finds the meta-property by name, thus {@link #encoded(MetaBean)} is preferred
+     * when writing every property of a bean.
+     *
+     * @param metaProperty  the meta-property, not null
+     * @return the encoded name, not null
+     */
+    public T encoded(MetaProperty<?> metaProperty) {
+        MetaBean metaBean = metaProperty.metaBean();
+        if (metaBean instanceof DynamicMetaBean == false) {
+            T[] encoded = encoded(metaBean);
+            int index = 0;
+            for (MetaProperty<?> mp : metaBean.metaPropertyIterable()) {
+                if (mp.name().equals(metaProperty.name())) {
+                    return encoded[index];
+                }
+                index++;
+            }
+        }
+        return encoder.apply(metaProperty.name());
+    }
+
+    // encodes the names of the meta-properties
+    private T[] encode(MetaBean metaBean) {
+        T[] encoded = arrayCreator.apply(metaBean.metaPropertyCount());
+        int index = 0;
+        for (MetaProperty<?> mp : metaBean.metaPropertyIterable()) {
+            encoded[index++] = encoder.apply(mp.name());
+        }
+        return encoded;
+    }
+
+}
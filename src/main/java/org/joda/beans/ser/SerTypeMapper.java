@@ -16,6 +16,7 @@
 package org.joda.beans.ser;
 
 import java.io.File;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
@@ -25,11 +26,19 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.joda.convert.RenameHandler;
 
 /**
  * Type mapper for Joda-Bean serialization, used by serialization implementations.
+ * <p>
+ * Work that does not depend on the message is cached across messages.
+ * When encoding, the names of each class are cached with the class.
+ * When decoding, type lookups are cached by context class loader and type name, up to a maximum size.
+ * Renames registered with {@code RenameHandler} are seen by the next lookup, as the number of
+ * type renames is checked on every lookup and the cache is discarded whenever it has changed.
  */
 public final class SerTypeMapper {
 
@@ -70,6 +79,23 @@ public final class SerTypeMapper {
         BASIC_TYPES = Collections.unmodifiableMap(map);
         BASIC_TYPES_REVERSED = Collections.unmodifiableMap(reversed);
     }
+    /**
+     * The names of each class used when encoding.
+     */
+    private static final ClassValue<TypeNames> TYPE_NAMES = new ClassValue<TypeNames>() {
+        @Override
+        protected TypeNames computeValue(Class<?> type) {
+            return new TypeNames(type);
+        }
+    };
+    /**
+     * The maximum number of type lookups to cache for each class loader.
+     */
+    private static final int MAX_DECODED_TYPES = 10_000;
+    /**
+     * The cached type lookups, replaced when the type renames change.
+     */
+    private static volatile DecodedTypes decodedTypes = new DecodedTypes(-1);
 
     /**
      * Creates an instance.
@@ -96,14 +122,9 @@ public final class SerTypeMapper {
         if (result != null) {
             return result;
         }
-        // handle enum subclasses
-        Class<?> supr1 = cls.getSuperclass();
-        if (supr1 != null) {
-            Class<?> supr2 = supr1.getSuperclass();
-            if (supr2 == Enum.class) {
-                cls = supr1;
-            }
-        }
+        // handles enum subclasses
+        TypeNames names = TYPE_NAMES.get(cls);
+        cls = names.type;
         // calculate
         if (settings.isShortTypes()) {
             if (knownTypes != null) {
@@ -112,31 +133,26 @@ public final class SerTypeMapper {
                     return result;
                 }
             }
-            result = cls.getName();
-            if (basePackage != null &&
-                    result.startsWith(basePackage) &&
-                    Character.isUpperCase(result.charAt(basePackage.length())) &&
-                    BASIC_TYPES_REVERSED.containsKey(result.substring(basePackage.length())) == false) {
+            String shortName = names.shortName(basePackage);
+            if (shortName != null) {
                 // use short format
-                result = result.substring(basePackage.length());
+                result = shortName;
                 if (knownTypes != null) {
                     knownTypes.put(cls, result);
                 }
             } else {
                 // use long format, short next time if possible
+                result = names.name;
                 if (knownTypes != null) {
-                    String simpleName = cls.getSimpleName();
-                    if (Character.isUpperCase(simpleName.charAt(0)) &&
-                            BASIC_TYPES_REVERSED.containsKey(simpleName) == false &&
-                            knownTypes.containsValue(simpleName) == false) {
-                        knownTypes.put(cls, simpleName);
+                    if (names.simpleNameUsable && knownTypes.containsValue(names.simpleName) == false) {
+                        knownTypes.put(cls, names.simpleName);
                     } else {
                         knownTypes.put(cls, result);
                     }
                 }
             }
         } else {
-            result = cls.getName();
+            result = names.name;
         }
         return result;
     }
@@ -217,7 +233,7 @@ public final class SerTypeMapper {
             expanded = true;
         }
         try {
-            result = RenameHandler.INSTANCE.lookupType(fullName);
+            result = lookupType(fullName);
             if (knownTypes != null) {
                 // cache full name
                 knownTypes.put(fullName, result);
@@ -245,7 +261,7 @@ public final class SerTypeMapper {
             // handle pathological case of package name starting with upper case
             if (fullName.equals(className) == false) {
                 try {
-                    result = RenameHandler.INSTANCE.lookupType(className);
+                    result = lookupType(className);
                     if (knownTypes != null) {
                         knownTypes.put(className, result);
                     }
@@ -260,10 +276,178 @@ public final class SerTypeMapper {
         }
     }
 
+    // looks up the type, caching across messages
+    // renames can only be added, thus a change in the number of renames means the cache may be invalid
+    // obtaining the renames copies them, which is cheap relative to loading a class
+    private static Class<?> lookupType(String name) throws ClassNotFoundException {
+        int renameCount = RenameHandler.INSTANCE.getTypeRenames().size();
+        DecodedTypes decoded = decodedTypes;
+        if (decoded.renameCount != renameCount) {
+            decoded = new DecodedTypes(renameCount);
+            decodedTypes = decoded;
+        }
+        Map<String, WeakReference<Class<?>>> types = decoded.types(Thread.currentThread().getContextClassLoader());
+        WeakReference<Class<?>> cached = types.get(name);
+        Class<?> type = (cached != null ? cached.get() : null);
+        if (type == null) {
+            type = RenameHandler.INSTANCE.lookupType(name);
+            if (types.size() >= MAX_DECODED_TYPES) {
+                types.clear();
+            }
+            types.put(name, new WeakReference<Class<?>>(type));
+        }
+        return type;
+    }
+
     //-----------------------------------------------------------------------
     @Override
     public String toString() {
         return getClass().getSimpleName();
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * The names of a class used when encoding.
+     */
+    private static final class TypeNames {
+        /**
+         * The type to encode, which is the enum class for enum constants with a body.
+         */
+        private final Class<?> type;
+        /**
+         * The full name.
+         */
+        private final String name;
+        /**
+         * The simple name.
+         */
+        private final String simpleName;
+        /**
+         * Whether the simple name can be used as a short name.
+         */
+        private final boolean simpleNameUsable;
+        /**
+         * The short name for the last base package used, as the base package rarely changes.
+         */
+        private volatile ShortName lastShortName;
+
+        private TypeNames(Class<?> cls) {
+            Class<?> supr1 = cls.getSuperclass();
+            if (supr1 != null && supr1.getSuperclass() == Enum.class) {
+                cls = supr1;
+            }
+            this.type = cls;
+            this.name = cls.getName();
+            this.simpleName = cls.getSimpleName();
+            this.simpleNameUsable = !simpleName.isEmpty() &&
+                    Character.isUpperCase(simpleName.charAt(0)) &&
+                    BASIC_TYPES_REVERSED.containsKey(simpleName) == false;
+        }
+
+        // gets the name relative to the base package, null if not in the base package
+        private String shortName(String basePackage) {
+            if (basePackage == null) {
+                return null;
+            }
+            ShortName last = lastShortName;
+            if (last != null && last.basePackage.equals(basePackage)) {
+                return last.shortName;
+            }
+            String shortName = null;
+            if (name.startsWith(basePackage) &&
+                    Character.isUpperCase(name.charAt(basePackage.length())) &&
+                    BASIC_TYPES_REVERSED.containsKey(name.substring(basePackage.length())) == false) {
+                shortName = name.substring(basePackage.length());
+            }
+            lastShortName = new ShortName(basePackage, shortName);
+            return shortName;
+        }
+    }
+
+    /**
+     * The short name of a class relative to a base package.
+     */
+    private static final class ShortName {
+        /**
+         * The base package.
+         */
+        private final String basePackage;
+        /**
+         * The short name, null if not in the base package.
+         */
+        private final String shortName;
+
+        private ShortName(String basePackage, String shortName) {
+            this.basePackage = basePackage;
+            this.shortName = shortName;
+        }
+    }
+
+    /**
+     * The cached type lookups for a fixed set of type renames.
+     * <p>
+     * The lookups are held by context class loader and type name.
+     * Neither classes nor class loaders are prevented from being unloaded.
+     */
+    private static final class DecodedTypes {
+        /**
+         * The number of type renames when the lookups were cached.
+         */
+        private final int renameCount;
+        /**
+         * The lookups for each context class loader, the null key used when there was none.
+         */
+        private final Map<ClassLoader, Map<String, WeakReference<Class<?>>>> byLoader = new WeakHashMap<>();
+        /**
+         * The lookups for the last class loader used, as the context class loader rarely changes.
+         */
+        private volatile LoaderTypes last;
+
+        private DecodedTypes(int renameCount) {
+            this.renameCount = renameCount;
+        }
+
+        // gets the lookups for the class loader
+        private Map<String, WeakReference<Class<?>>> types(ClassLoader loader) {
+            LoaderTypes last = this.last;
+            if (last != null && last.matches(loader)) {
+                return last.types;
+            }
+            Map<String, WeakReference<Class<?>>> types;
+            synchronized (byLoader) {
+                types = byLoader.get(loader);
+                if (types == null) {
+                    types = new ConcurrentHashMap<>();
+                    byLoader.put(loader, types);
+                }
+            }
+            this.last = new LoaderTypes(loader, types);
+            return types;
+        }
+    }
+
+    /**
+     * The cached type lookups of a single class loader.
+     */
+    private static final class LoaderTypes {
+        /**
+         * The context class loader used for the lookups, null if there was none.
+         */
+        private final WeakReference<ClassLoader> loader;
+        /**
+         * The lookups, keyed by the name looked up.
+         */
+        private final Map<String, WeakReference<Class<?>>> types;
+
+        private LoaderTypes(ClassLoader loader, Map<String, WeakReference<Class<?>>> types) {
+            this.loader = (loader != null ? new WeakReference<>(loader) : null);
+            this.types = types;
+        }
+
+        // checks if the lookups were made using the specified context class loader
+        private boolean matches(ClassLoader loader) {
+            return this.loader == null ? loader == null : loader != null && this.loader.get() == loader;
+        }
+    }
+
 }
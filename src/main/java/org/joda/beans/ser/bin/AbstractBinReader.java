@@ -15,10 +15,12 @@
  */
 package org.joda.beans.ser.bin;
 
-import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.joda.beans.Bean;
 import org.joda.beans.BeanBuilder;
@@ -29,6 +31,7 @@ import org.joda.beans.ser.SerCategory;
 import org.joda.beans.ser.SerDeserializer;
 import org.joda.beans.ser.SerIterable;
 import org.joda.beans.ser.SerOptional;
+import org.joda.beans.ser.SerPropertyCache;
 import org.joda.beans.ser.SerTypeMapper;
 
 /**
@@ -46,7 +49,7 @@ abstract class AbstractBinReader extends MsgPack {
     /**
      * The reader.
      */
-    final DataInputStream input;  // CSIGNORE
+    final MsgPackSource input;  // CSIGNORE
     /**
      * The base package including the trailing dot.
      */
@@ -55,10 +58,14 @@ abstract class AbstractBinReader extends MsgPack {
      * The known types.
      */
     private Map<String, Class<?>> knownTypes = new HashMap<>();
+    /**
+     * The reused buffer for property names.
+     */
+    private byte[] nameBytes = new byte[64];
 
     //-----------------------------------------------------------------------
     // creates an instance
-    AbstractBinReader(JodaBeanSer settings, DataInputStream input) {
+    AbstractBinReader(JodaBeanSer settings, MsgPackSource input) {
         this.settings = settings;
         this.input = input;
     }
@@ -91,10 +98,17 @@ abstract class AbstractBinReader extends MsgPack {
             SerDeserializer deser = settings.getDeserializers().findDeserializer(beanType);
             MetaBean metaBean = deser.findMetaBean(beanType);
             BeanBuilder<?> builder = deser.createBuilder(beanType, metaBean);
+            SerPropertyCache cache = SerPropertyCache.of(deser, beanType, metaBean);
             for (int i = 0; i < propertyCount; i++) {
-                // property name
-                propName = acceptPropertyName();
-                MetaProperty<?> metaProp = deser.findMetaProperty(beanType, metaBean, propName);
+                // property name, looked up from the raw bytes to avoid creating a string
+                int size = acceptStringSize(input.readByte());
+                SerPropertyCache.Entry entry = cache.find(acceptNameBytes(size), size);
+                if (entry == null) {
+                    propName = new String(nameBytes, 0, size, UTF_8);
+                    entry = cache.add(propName);
+                }
+                propName = entry.name();
+                MetaProperty<?> metaProp = entry.metaProperty();
                 if (metaProp == null || metaProp.style().isDerived()) {
                     MsgPackInput.skipObject(input);
                 } else {
@@ -109,6 +123,150 @@ abstract class AbstractBinReader extends MsgPack {
         }
     }
 
+    // reads the bytes of a property name into the reused buffer
+    private byte[] acceptNameBytes(int size) throws IOException {
+        if (size > nameBytes.length) {
+            nameBytes = new byte[Math.max(size, nameBytes.length * 2)];
+        }
+        input.readFully(nameBytes, 0, size);
+        return nameBytes;
+    }
+
+    //-----------------------------------------------------------------------
+    // extracts a single property value where the array and version bytes have been read already
+    Object extract(String[] propertyPath) {
+        try {
+            try {
+                return parseExtract(Bean.class, propertyPath, 0);
+            } finally {
+                input.close();
+            }
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    // walks the bean, skipping all properties other than the one on the path
+    private Object parseExtract(Class<?> declaredType, String[] propertyPath, int pathIndex) throws Exception {
+        int typeByte = input.readByte();
+        if (typeByte == NIL) {
+            return null;
+        }
+        if (!isMap(typeByte)) {
+            throw new IllegalArgumentException("Invalid binary data: Expected bean at property path: " + pathToString(propertyPath, pathIndex));
+        }
+        Class<?> beanType = declaredType;
+        int propertyCount = acceptMap(typeByte);
+        if (propertyCount > 0) {
+            input.mark(8);
+            int size = input.readByte() == EXT_8 ? input.readUnsignedByte() : -1;
+            if (size >= 0 && input.readByte() == JODA_TYPE_BEAN) {
+                String typeStr = acceptStringBytes(size);
+                beanType = SerTypeMapper.decodeType(typeStr, settings, basePackage, knownTypes);
+                if (basePackage == null) {
+                    basePackage = beanType.getPackage().getName() + ".";
+                }
+                if (input.readByte() != NIL) {
+                    throw new IllegalArgumentException("Invalid binary data: Expected null after bean type");
+                }
+                propertyCount--;
+            } else {
+                input.reset();
+            }
+        }
+        if (!Bean.class.isAssignableFrom(beanType) || beanType == Bean.class) {
+            throw new IllegalArgumentException("Unable to determine bean type at property path: " + pathToString(propertyPath, pathIndex));
+        }
+        SerDeserializer deser = settings.getDeserializers().findDeserializer(beanType);
+        MetaBean metaBean = deser.findMetaBean(beanType);
+        MetaProperty<?> target = findPathProperty(deser, beanType, metaBean, propertyPath, pathIndex);
+        SerPropertyCache cache = SerPropertyCache.of(deser, beanType, metaBean);
+        for (int i = 0; i < propertyCount; i++) {
+            // renamed properties are matched via the deserializer, unknown properties cannot match
+            int size = acceptStringSize(input.readByte());
+            SerPropertyCache.Entry entry = cache.find(acceptNameBytes(size), size);
+            if (entry == null) {
+                try {
+                    entry = cache.add(new String(nameBytes, 0, size, UTF_8));
+                } catch (NoSuchElementException ex) {
+                    skipObjectRecordingTypes();
+                    continue;
+                }
+            }
+            if (target.equals(entry.metaProperty())) {
+                Class<?> propType = SerOptional.extractType(target, beanType);
+                if (pathIndex == propertyPath.length - 1) {
+                    return parseObject(propType, target, beanType, null, false);
+                }
+                return parseExtract(propType, propertyPath, pathIndex + 1);
+            }
+            skipObjectRecordingTypes();
+        }
+        // null values are not written
+        return null;
+    }
+
+    // finds the meta-property named by the path at the index
+    static MetaProperty<?> findPathProperty(
+            SerDeserializer deser, Class<?> beanType, MetaBean metaBean, String[] propertyPath, int pathIndex) {
+
+        MetaProperty<?> metaProp;
+        try {
+            metaProp = deser.findMetaProperty(beanType, metaBean, propertyPath[pathIndex]);
+        } catch (NoSuchElementException ex) {
+            metaProp = null;
+        }
+        if (metaProp == null) {
+            throw new IllegalArgumentException("Unknown property at property path: " + pathToString(propertyPath, pathIndex + 1));
+        }
+        return metaProp;
+    }
+
+    // skips the next object, recording any type names so that later short names can be decoded
+    private void skipObjectRecordingTypes() throws IOException {
+        new TypeRecordingSkipper().skip(input.readByte());
+    }
+
+    // the path up to and including the index
+    private static String pathToString(String[] propertyPath, int pathIndex) {
+        return pathIndex == 0 ? "<root>" : String.join(".", Arrays.copyOf(propertyPath, pathIndex));
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Skips an object, recording the types it contains.
+     * <p>
+     * Type names are only written in full on first use in a message, thus they must be
+     * recorded even when the object they are in is skipped.
+     * Types that cannot be decoded are ignored, as the object is not needed.
+     */
+    private final class TypeRecordingSkipper extends MsgPackInput {
+        TypeRecordingSkipper() {
+            super(input);
+        }
+
+        void skip(int typeByte) throws IOException {
+            readObject(typeByte);
+        }
+
+        @Override
+        void handleExtension(int type, boolean numeric, byte[] bytes) {
+            if (numeric == false) {
+                try {
+                    if (type == JODA_TYPE_BEAN || type == JODA_TYPE_DATA) {
+                        SerTypeMapper.decodeType(new String(bytes, UTF_8), settings, basePackage, knownTypes);
+                    } else if (type == JODA_TYPE_META) {
+                        settings.getIteratorFactory().createIterable(new String(bytes, UTF_8), settings, knownTypes);
+                    }
+                } catch (ClassNotFoundException | RuntimeException ex) {
+                    // ignore, as the object is being skipped
+                }
+            }
+        }
+    }
+
     String acceptPropertyName() throws IOException {
         byte typeByte = input.readByte();
         return acceptString(typeByte);
@@ -194,7 +352,10 @@ abstract class AbstractBinReader extends MsgPack {
             if (Bean.class.isAssignableFrom(effectiveType) == false) {
                 throw new IllegalArgumentException("Root type is not a Joda-Bean: " + effectiveType.getName());
             }
-            basePackage = effectiveType.getPackage().getName() + ".";
+            if (basePackage == null) {
+                // the base package is fixed by the first root, allowing type shortening across a stream
+                basePackage = effectiveType.getPackage().getName() + ".";
+            }
         }
         if (declaredType.isAssignableFrom(effectiveType) == false) {
             throw new IllegalArgumentException("Specified type is incompatible with declared type: " + declaredType.getName() + " and " + effectiveType.getName());
@@ -342,6 +503,12 @@ abstract class AbstractBinReader extends MsgPack {
             case BIN_16:
             case BIN_32:
                 return acceptBinary(typeByte);
+            case FIX_EXT_8:
+            case FIX_EXT_16:
+            case EXT_8:
+            case EXT_16:
+            case EXT_32:
+                return acceptExtension(typeByte);
         }
         throw new IllegalArgumentException("Invalid binary data: Expected " + type.getName() + ", but was: 0x" + toHex(typeByte));
     }
@@ -382,6 +549,10 @@ abstract class AbstractBinReader extends MsgPack {
     }
 
     String acceptString(int typeByte) throws IOException {
+        return acceptStringBytes(acceptStringSize(typeByte));
+    }
+
+    int acceptStringSize(int typeByte) throws IOException {
         int size;
         if (typeByte >= MIN_FIX_STR && typeByte <= MAX_FIX_STR) {
             size = (typeByte - MIN_FIX_STR);
@@ -397,23 +568,11 @@ abstract class AbstractBinReader extends MsgPack {
         } else {
             throw new IllegalArgumentException("Invalid binary data: Expected string, but was: 0x" + toHex(typeByte));
         }
-        return acceptStringBytes(size);
+        return size;
     }
 
     String acceptStringBytes(int size) throws IOException {
-        byte[] bytes = new byte[size];
-        input.readFully(bytes);
-        // inline common ASCII case for much better performance
-        char[] chars = new char[size];
-        for (int i = 0; i < size; i++) {
-            byte b = bytes[i];
-            if (b >= 0) {
-                chars[i] = (char) b;
-            } else {
-                return new String(bytes, UTF_8);
-            }
-        }
-        return new String(chars);
+        return input.readUtf8(size);
     }
 
     byte[] acceptBinary(int typeByte) throws IOException {
@@ -435,6 +594,93 @@ abstract class AbstractBinReader extends MsgPack {
         return bytes;
     }
 
+    Object acceptExtension(int typeByte) throws IOException {
+        int size;
+        if (typeByte == FIX_EXT_8) {
+            size = 8;
+        } else if (typeByte == FIX_EXT_16) {
+            size = 16;
+        } else if (typeByte == EXT_8) {
+            size = input.readUnsignedByte();
+        } else if (typeByte == EXT_16) {
+            size = input.readUnsignedShort();
+        } else {
+            size = input.readInt();
+            if (size < 0) {
+                throw new IllegalArgumentException("Invalid binary data: Extension too large");
+            }
+        }
+        int extensionType = input.readByte();
+        byte[] bytes = new byte[size];
+        input.readFully(bytes);
+        if (extensionType == JODA_TYPE_ARRAY) {
+            return acceptPrimitiveArray(bytes);
+        }
+        Object value = decodeNativeValue(extensionType, bytes);
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid binary data: Unexpected extension type: " + extensionType);
+        }
+        return value;
+    }
+
+    private Object acceptPrimitiveArray(byte[] bytes) {
+        int size = bytes.length;
+        if (size == 0) {
+            throw new IllegalArgumentException("Invalid binary data: Expected primitive array, but was empty");
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes, 1, size - 1).slice();
+        int width = primitiveArrayWidth(bytes[0]);
+        if (buf.remaining() % width != 0) {
+            throw new IllegalArgumentException("Invalid binary data: Primitive array of type '" + (char) bytes[0] +
+                    "' has " + buf.remaining() + " bytes, which is not a multiple of " + width);
+        }
+        switch (bytes[0]) {
+            case 'D': {
+                double[] array = new double[buf.remaining() / width];
+                buf.asDoubleBuffer().get(array);
+                return array;
+            }
+            case 'F': {
+                float[] array = new float[buf.remaining() / width];
+                buf.asFloatBuffer().get(array);
+                return array;
+            }
+            case 'J': {
+                long[] array = new long[buf.remaining() / width];
+                buf.asLongBuffer().get(array);
+                return array;
+            }
+            case 'I': {
+                int[] array = new int[buf.remaining() / width];
+                buf.asIntBuffer().get(array);
+                return array;
+            }
+            case 'S': {
+                short[] array = new short[buf.remaining() / width];
+                buf.asShortBuffer().get(array);
+                return array;
+            }
+            default:
+                throw new IllegalArgumentException("Invalid binary data: Unknown primitive array type: 0x" + toHex(bytes[0]));
+        }
+    }
+
+    // the number of bytes of each element of a primitive array
+    private static int primitiveArrayWidth(byte type) {
+        switch (type) {
+            case 'D':
+            case 'J':
+                return 8;
+            case 'F':
+            case 'I':
+                return 4;
+            case 'S':
+                return 2;
+            default:
+                throw new IllegalArgumentException("Invalid binary data: Unknown primitive array type: 0x" + toHex(type));
+        }
+    }
+
     int acceptInteger(int typeByte) throws IOException {
         if (typeByte >= MIN_FIX_INT && typeByte <= MAX_FIX_INT) {
             return typeByte;
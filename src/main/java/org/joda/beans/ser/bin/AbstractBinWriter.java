@@ -16,16 +16,17 @@
 package org.joda.beans.ser.bin;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.joda.beans.Bean;
+import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.ser.JodaBeanSer;
 import org.joda.beans.ser.SerCategory;
 import org.joda.beans.ser.SerIterator;
 import org.joda.beans.ser.SerOptional;
+import org.joda.beans.ser.SerPropertyNames;
 import org.joda.beans.ser.SerTypeMapper;
 
 /**
@@ -36,6 +37,11 @@ import org.joda.beans.ser.SerTypeMapper;
  */
 abstract class AbstractBinWriter {
 
+    /**
+     * The property names encoded as MessagePack strings.
+     */
+    static final SerPropertyNames<byte[]> PROPERTY_NAMES = new SerPropertyNames<>(MsgPackOutput::encodeString, byte[][]::new);
+
     /**
      * The settings to use.
      */
@@ -54,9 +60,9 @@ abstract class AbstractBinWriter {
     private Map<Class<?>, String> knownTypes = new HashMap<>();
 
     // creates an instance
-    AbstractBinWriter(JodaBeanSer settings, OutputStream output) {
+    AbstractBinWriter(JodaBeanSer settings, MsgPackOutput output) {
         this.settings = settings;
-        this.output = new MsgPackOutput(output);
+        this.output = output;
     }
 
     //-----------------------------------------------------------------------
@@ -65,22 +71,29 @@ abstract class AbstractBinWriter {
     }
 
     void writeBean(Bean bean, Class<?> declaredType, RootType rootTypeFlag) throws IOException {
-        int count = bean.metaBean().metaPropertyCount();
+        MetaBean metaBean = bean.metaBean();
+        byte[][] encodedNames = PROPERTY_NAMES.encoded(metaBean);
+        int count = encodedNames.length;
         MetaProperty<?>[] props = new MetaProperty<?>[count];
+        byte[][] names = new byte[count][];
         Object[] values = new Object[count];
         int size = 0;
-        for (MetaProperty<?> prop : bean.metaBean().metaPropertyIterable()) {
+        int index = 0;
+        for (MetaProperty<?> prop : metaBean.metaPropertyIterable()) {
             if (settings.isSerialized(prop)) {
                 Object value = SerOptional.extractValue(prop, bean);
                 if (value != null) {
                     props[size] = prop;
+                    names[size] = encodedNames[index];
                     values[size++] = value;
                 }
             }
+            index++;
         }
         if (rootTypeFlag == RootType.ROOT_WITH_TYPE || (rootTypeFlag == RootType.NOT_ROOT && bean.getClass() != declaredType)) {
             String type = SerTypeMapper.encodeType(bean.getClass(), settings, basePackage, knownTypes);
-            if (rootTypeFlag == RootType.ROOT_WITH_TYPE) {
+            if (rootTypeFlag == RootType.ROOT_WITH_TYPE && basePackage == null) {
+                // the base package is fixed by the first root, allowing type shortening across a stream
                 basePackage = bean.getClass().getPackage().getName() + ".";
             }
             output.writeMapHeader(size + 1);
@@ -92,7 +105,7 @@ abstract class AbstractBinWriter {
         for (int i = 0; i < size; i++) {
             MetaProperty<?> prop = props[i];
             Object value = values[i];
-            output.writeString(prop.name());
+            output.writeEncodedString(names[i]);
             Class<?> propType = SerOptional.extractType(prop, bean.getClass());
             if (value instanceof Bean) {
                 if (settings.getConverter().isConvertible(value.getClass())) {
@@ -239,6 +252,12 @@ abstract class AbstractBinWriter {
         } else if (realType == Boolean.class) {
             output.writeBoolean(((Boolean) value).booleanValue());
             return;
+        } else if (settings.isNativeValueTypes() && MsgPack.isNativeValueType(realType)) {
+            output.writeNativeValue(value);
+            return;
+        } else if (settings.isNativePrimitiveArrays() && MsgPack.isNativePrimitiveArray(realType)) {
+            output.writePrimitiveArray(value);
+            return;
         }
 
         // handle no declared type and subclasses
@@ -25,6 +25,13 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 import java.util.stream.StreamSupport;
 
 import org.joda.beans.Bean;
@@ -38,6 +45,10 @@ import org.joda.beans.ser.SerOptional;
 
 /**
  * Stores information on the references in a bean.
+ * <p>
+ * If a parallel threshold is set, the elements of large collections are analyzed
+ * in parallel. Each task counts the objects it visits in the order first visited,
+ * and the counts are then merged in parallel, so the result is identical to the sequential analysis.
  */
 final class BeanReferences {
 
@@ -53,6 +64,14 @@ final class BeanReferences {
      * The amount of time each class needs to have its type serialized, linked for stability.
      */
     private final Map<Class<?>, Integer> classSerializationCount = new LinkedHashMap<>();
+    /**
+     * The number of times each object is visited, with the order of the first visit for stability.
+     */
+    private final ConcurrentMap<Object, Count> objects = new ConcurrentHashMap<>();
+    /**
+     * The order of the next object visited for the first time.
+     */
+    private long nextOrder;
     /**
      * The sorted class infos.
      */
@@ -82,15 +101,14 @@ final class BeanReferences {
         classSerializationCount.put(root.getClass(), 1);
 
         // recursively check object graph
-        Map<Object, Integer> objects = new LinkedHashMap<>();
-        findReferencesBean(root, root.getClass(), objects, null);
+        findReferencesBean(root, root.getClass(), new SequentialVisitor(), null);
 
         // build up the list of references, but only for those instances that are repeated
-        List<Map.Entry<Object, Integer>> refEntries = objects.entrySet().stream()
-                .sorted(reverseOrder(comparingInt(Map.Entry::getValue)))
-                .filter(entry -> entry.getValue() > 1)
+        List<Map.Entry<Object, Count>> refEntries = objects.entrySet().stream()
+                .filter(entry -> entry.getValue().count > 1)
+                .sorted(Map.Entry.comparingByValue())
                 .collect(toList());
-        for (Map.Entry<Object, Integer> entry : refEntries) {
+        for (Map.Entry<Object, Count> entry : refEntries) {
             Object value = entry.getKey();
             Class<?> realType = value.getClass();
 
@@ -102,7 +120,9 @@ final class BeanReferences {
                     realType != Long.class &&
                     realType != Short.class &&
                     realType != Byte.class &&
-                    realType != byte[].class) {
+                    realType != byte[].class &&
+                    !(settings.isNativeValueTypes() && MsgPack.isNativeValueType(realType)) &&
+                    !(settings.isNativePrimitiveArrays() && MsgPack.isNativePrimitiveArray(realType))) {
 
                 refs.put(value, new Ref(false, refs.size()));
             }
@@ -125,7 +145,7 @@ final class BeanReferences {
     private void findReferencesBean(
             Object base,
             Class<?> declaredClass,
-            Map<Object, Integer> objects,
+            Visitor visitor,
             SerIterator parentIterator) {
 
         if (base == null) {
@@ -133,13 +153,12 @@ final class BeanReferences {
         }
 
         // has this object been seen before, if so no need to check it again
-        int result = objects.compute(base, BeanReferences::incrementOrOne);
-        if (result > 1) {
+        if (visitor.visit(base, parentIterator) == false) {
             return;
         }
 
         if (base instanceof Bean) {
-            addClassInfo(base, declaredClass);
+            visitor.addClassInfo(base, declaredClass);
             Bean bean = (Bean) base;
             if (settings.getConverter().isConvertible(bean.getClass())) {
                 return;
@@ -154,11 +173,11 @@ final class BeanReferences {
                         SerIterator itemIterator = settings.getIteratorFactory().create(value, prop, bean.getClass());
                         if (itemIterator != null) {
                             if (itemIterator.metaTypeRequired()) {
-                                objects.compute(itemIterator.metaTypeName(), BeanReferences::incrementOrOne);
+                                visitor.count(itemIterator.metaTypeName());
                             }
-                            findReferencesIterable(itemIterator, objects);
+                            findReferencesIterable(itemIterator, visitor);
                         } else {
-                            findReferencesBean(value, type, objects, null);
+                            findReferencesBean(value, type, visitor, null);
                         }
                     }
                 }
@@ -166,44 +185,123 @@ final class BeanReferences {
         } else if (parentIterator != null) {
             SerIterator childIterator = settings.getIteratorFactory().createChild(base, parentIterator);
             if (childIterator != null) {
-                findReferencesIterable(childIterator, objects);
+                findReferencesIterable(childIterator, visitor);
             } else {
-                addClassInfo(base, declaredClass);
+                visitor.addClassInfo(base, declaredClass);
             }
         } else {
-            addClassInfo(base, declaredClass);
+            visitor.addClassInfo(base, declaredClass);
         }
     }
 
     // recursively find the references in an iterable
-    private void findReferencesIterable(SerIterator itemIterator, Map<Object, Integer> objects) {
-        if (itemIterator.category() == SerCategory.MAP) {
+    private void findReferencesIterable(SerIterator itemIterator, Visitor visitor) {
+        if (visitor.isParallel() && itemIterator.size() >= settings.getParallelThreshold()) {
+            findReferencesParallel(itemIterator);
+        } else if (itemIterator.category() == SerCategory.MAP) {
             while (itemIterator.hasNext()) {
                 itemIterator.next();
-                findReferencesBean(itemIterator.key(), itemIterator.keyType(), objects, null);
-                findReferencesBean(itemIterator.value(), itemIterator.valueType(), objects, itemIterator);
+                findReferencesBean(itemIterator.key(), itemIterator.keyType(), visitor, null);
+                findReferencesBean(itemIterator.value(), itemIterator.valueType(), visitor, itemIterator);
             }
         } else if (itemIterator.category() == SerCategory.COUNTED) {
             while (itemIterator.hasNext()) {
                 itemIterator.next();
-                findReferencesBean(itemIterator.value(), itemIterator.valueType(), objects, itemIterator);
+                findReferencesBean(itemIterator.value(), itemIterator.valueType(), visitor, itemIterator);
             }
         } else if (itemIterator.category() == SerCategory.TABLE) {
             while (itemIterator.hasNext()) {
                 itemIterator.next();
-                findReferencesBean(itemIterator.key(), itemIterator.keyType(), objects, null);
-                findReferencesBean(itemIterator.column(), itemIterator.columnType(), objects, null);
-                findReferencesBean(itemIterator.value(), itemIterator.valueType(), objects, itemIterator);
+                findReferencesBean(itemIterator.key(), itemIterator.keyType(), visitor, null);
+                findReferencesBean(itemIterator.column(), itemIterator.columnType(), visitor, null);
+                findReferencesBean(itemIterator.value(), itemIterator.valueType(), visitor, itemIterator);
             }
         } else if (itemIterator.category() == SerCategory.GRID) {
             while (itemIterator.hasNext()) {
                 itemIterator.next();
-                findReferencesBean(itemIterator.value(), itemIterator.valueType(), objects, itemIterator);
+                findReferencesBean(itemIterator.value(), itemIterator.valueType(), visitor, itemIterator);
             }
         } else {
             while (itemIterator.hasNext()) {
                 itemIterator.next();
-                findReferencesBean(itemIterator.value(), itemIterator.valueType(), objects, itemIterator);
+                findReferencesBean(itemIterator.value(), itemIterator.valueType(), visitor, itemIterator);
+            }
+        }
+    }
+
+    // find the references in the elements of an iterable in parallel
+    private void findReferencesParallel(SerIterator itemIterator) {
+        // the iterator is not thread-safe, so the elements are extracted first
+        List<Element> elements = new ArrayList<>();
+        while (itemIterator.hasNext()) {
+            itemIterator.next();
+            SerCategory category = itemIterator.category();
+            if (category == SerCategory.MAP || category == SerCategory.TABLE) {
+                elements.add(new Element(itemIterator.key(), itemIterator.keyType(), null));
+            }
+            if (category == SerCategory.TABLE) {
+                elements.add(new Element(itemIterator.column(), itemIterator.columnType(), null));
+            }
+            Object value = itemIterator.value();
+            SerIterator childIterator = null;
+            if (value != null && !(value instanceof Bean)) {
+                childIterator = settings.getIteratorFactory().createChild(value, itemIterator);
+            }
+            elements.add(new Element(value, itemIterator.valueType(), childIterator));
+        }
+        // each task counts its visits, indexed by the start of its range
+        TaskVisitor[] results = new TaskVisitor[elements.size()];
+        ForkJoinPool pool = settings.getParallelPool();
+        pool.invoke(new ElementsTask(itemIterator, elements, 0, elements.size(), results));
+        TaskVisitor[] visitors = Arrays.stream(results).filter(Objects::nonNull).toArray(TaskVisitor[]::new);
+        // the first visits of each task follow those of the previous tasks in the combined order
+        for (TaskVisitor visitor : visitors) {
+            visitor.firstOrder = nextOrder;
+            nextOrder += visitor.visits.size();
+        }
+        pool.invoke(new VisitorsTask(visitors, 0, visitors.length, this::merge));
+        pool.invoke(new VisitorsTask(visitors, 0, visitors.length, this::settle));
+        // whether the type name is needed depends on the classes seen before, thus class info is added in order
+        for (TaskVisitor visitor : visitors) {
+            for (Map.Entry<Object, Visit> entry : visitor.visits.entrySet()) {
+                Visit visit = entry.getValue();
+                if (visit.first && visit.declaredClass != null) {
+                    addClassInfo(entry.getKey(), visit.declaredClass);
+                }
+            }
+        }
+    }
+
+    // find the references in a single element of an iterable
+    private void findReferencesElement(Element element, SerIterator parentIterator, Visitor visitor) {
+        if (element.childIterator != null) {
+            if (visitor.visit(element.value, parentIterator)) {
+                findReferencesIterable(element.childIterator, visitor);
+            }
+        } else {
+            findReferencesBean(element.value, element.declaredClass, visitor, null);
+        }
+    }
+
+    // merges the counts of a task, keeping the order of the earliest first visit
+    private void merge(TaskVisitor visitor) {
+        long order = visitor.firstOrder;
+        for (Map.Entry<Object, Visit> entry : visitor.visits.entrySet()) {
+            Visit visit = entry.getValue();
+            visit.order = order++;
+            visit.total = objects.merge(entry.getKey(), new Count(visit.count, visit.order), Count::merge);
+        }
+    }
+
+    // marks the visits of a task that are first in the combined order once all counts are merged
+    // the sequential analysis only analyzes an object on its first visit, thus the counts
+    // from analyzing an object that was first visited by an earlier task are removed
+    private void settle(TaskVisitor visitor) {
+        for (Map.Entry<Object, Visit> entry : visitor.visits.entrySet()) {
+            Visit visit = entry.getValue();
+            visit.first = visit.total.order == visit.order;
+            if (visit.analyzed && visit.first == false) {
+                findReferencesBean(entry.getKey(), Object.class, new UncountingVisitor(), visit.parentIterator);
             }
         }
     }
@@ -287,6 +385,245 @@ final class BeanReferences {
         return classInfo;
     }
 
+    //-----------------------------------------------------------------------
+    // receives the objects visited while finding references
+    private interface Visitor {
+
+        // visits an object, returning true if not seen before and thus to be analyzed
+        boolean visit(Object value, SerIterator parentIterator);
+
+        // counts an object that is never analyzed, such as a meta type name
+        void count(Object value);
+
+        // adds the class info of an object being analyzed
+        void addClassInfo(Object value, Class<?> declaredClass);
+
+        // checks if large iterables are to be analyzed in parallel
+        boolean isParallel();
+    }
+
+    // updates the references directly
+    private final class SequentialVisitor implements Visitor {
+
+        @Override
+        public boolean visit(Object value, SerIterator parentIterator) {
+            Count count = objects.putIfAbsent(value, new Count(1, nextOrder));
+            if (count == null) {
+                nextOrder++;
+                return true;
+            }
+            count.count = Math.addExact(count.count, 1);
+            return false;
+        }
+
+        @Override
+        public void count(Object value) {
+            visit(value, null);
+        }
+
+        @Override
+        public void addClassInfo(Object value, Class<?> declaredClass) {
+            BeanReferences.this.addClassInfo(value, declaredClass);
+        }
+
+        @Override
+        public boolean isParallel() {
+            return settings.getParallelThreshold() > 0;
+        }
+    }
+
+    // counts the visits of a parallel task in its own map, in the order first visited
+    // an object seen before by the same task is not analyzed again, but an object seen
+    // only by other tasks is, with the counts from that analysis removed when merging
+    private static final class TaskVisitor implements Visitor {
+        private final Map<Object, Visit> visits = new LinkedHashMap<>();
+        // the order in the combined order of the first visit of this task
+        private long firstOrder;
+
+        @Override
+        public boolean visit(Object value, SerIterator parentIterator) {
+            Visit visit = visits.putIfAbsent(value, new Visit(true, parentIterator));
+            if (visit == null) {
+                return true;
+            }
+            visit.count = Math.addExact(visit.count, 1);
+            return false;
+        }
+
+        @Override
+        public void count(Object value) {
+            Visit visit = visits.putIfAbsent(value, new Visit(false, null));
+            if (visit != null) {
+                visit.count = Math.addExact(visit.count, 1);
+            }
+        }
+
+        @Override
+        public void addClassInfo(Object value, Class<?> declaredClass) {
+            visits.get(value).declaredClass = declaredClass;
+        }
+
+        @Override
+        public boolean isParallel() {
+            return false;
+        }
+    }
+
+    // removes the counts of the objects visited while analyzing an object, without analyzing them
+    private final class UncountingVisitor implements Visitor {
+        private boolean started;
+
+        @Override
+        public boolean visit(Object value, SerIterator parentIterator) {
+            if (started == false) {
+                // the object whose analysis is being undone
+                started = true;
+                return true;
+            }
+            count(value);
+            return false;
+        }
+
+        @Override
+        public void count(Object value) {
+            objects.computeIfPresent(value, (key, count) -> {
+                count.count--;
+                return count;
+            });
+        }
+
+        @Override
+        public void addClassInfo(Object value, Class<?> declaredClass) {
+        }
+
+        @Override
+        public boolean isParallel() {
+            return false;
+        }
+    }
+
+    // the visits of an object by a parallel task
+    private static final class Visit {
+        // whether the object was analyzed, rather than only counted
+        private final boolean analyzed;
+        // the iterator of the iterable containing the object when analyzed, null if none
+        private final SerIterator parentIterator;
+        private int count = 1;
+        // the declared class when analyzed, null if no class info was added
+        private Class<?> declaredClass;
+        // the order of the first visit in the combined order
+        private long order;
+        // the merged count of the object
+        private Count total;
+        // whether this is the first visit of the object in the combined order
+        private boolean first;
+
+        private Visit(boolean analyzed, SerIterator parentIterator) {
+            this.analyzed = analyzed;
+            this.parentIterator = parentIterator;
+        }
+    }
+
+    // the number of visits of an object, sorted by most visited, then by first visited
+    private static final class Count implements Comparable<Count> {
+        private int count;
+        private long order;
+
+        private Count(int count, long order) {
+            this.count = count;
+            this.order = order;
+        }
+
+        // merges the visits of a parallel task into this count
+        private Count merge(Count other) {
+            count = Math.addExact(count, other.count);
+            order = Math.min(order, other.order);
+            return this;
+        }
+
+        @Override
+        public int compareTo(Count other) {
+            int cmp = Integer.compare(other.count, count);
+            return cmp != 0 ? cmp : Long.compare(order, other.order);
+        }
+    }
+
+    // analyzes a range of elements, splitting the range while it is large
+    private final class ElementsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final SerIterator parentIterator;
+        private final List<Element> elements;
+        private final int start;
+        private final int end;
+        private final TaskVisitor[] results;
+
+        private ElementsTask(SerIterator parentIterator, List<Element> elements, int start, int end, TaskVisitor[] results) {
+            this.parentIterator = parentIterator;
+            this.elements = elements;
+            this.start = start;
+            this.end = end;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            int size = end - start;
+            if (size < 2 || size < settings.getParallelThreshold()) {
+                TaskVisitor visitor = new TaskVisitor();
+                for (int i = start; i < end; i++) {
+                    findReferencesElement(elements.get(i), parentIterator, visitor);
+                }
+                results[start] = visitor;
+            } else {
+                int mid = (start + end) >>> 1;
+                ForkJoinTask.invokeAll(
+                        new ElementsTask(parentIterator, elements, start, mid, results),
+                        new ElementsTask(parentIterator, elements, mid, end, results));
+            }
+        }
+    }
+
+    // applies an action to each of a range of task visitors in parallel
+    private static final class VisitorsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final TaskVisitor[] visitors;
+        private final int start;
+        private final int end;
+        private final Consumer<TaskVisitor> action;
+
+        private VisitorsTask(TaskVisitor[] visitors, int start, int end, Consumer<TaskVisitor> action) {
+            this.visitors = visitors;
+            this.start = start;
+            this.end = end;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start == 1) {
+                action.accept(visitors[start]);
+            } else if (end > start) {
+                int mid = (start + end) >>> 1;
+                ForkJoinTask.invokeAll(
+                        new VisitorsTask(visitors, start, mid, action),
+                        new VisitorsTask(visitors, mid, end, action));
+            }
+        }
+    }
+
+    // an element of an iterable, with the child iterator if the element is itself iterable
+    private static final class Element {
+        private final Object value;
+        private final Class<?> declaredClass;
+        private final SerIterator childIterator;
+
+        private Element(Object value, Class<?> declaredClass, SerIterator childIterator) {
+            this.value = value;
+            this.declaredClass = declaredClass;
+            this.childIterator = childIterator;
+        }
+    }
+
     // CSOFF
     //-----------------------------------------------------------------------
     // The info needed serialize instances of a class with a reference to the initially serialized class definition
@@ -0,0 +1,339 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.joda.beans.ser.JodaBeanSer;
+
+/**
+ * Provides the ability to decode Joda-Beans in a binary format from chunks of bytes as they arrive.
+ * <p>
+ * This is intended for non-blocking network servers, where the bytes of a message arrive
+ * in several chunks. Each chunk is passed to {@link #feed(ByteBuffer)}, which returns the
+ * bean once the last byte of the message has been fed. There is no need to frame messages,
+ * as the end of each message is determined from the binary data.
+ * <p>
+ * The structure of the data is checked as each chunk arrives, using an explicit stack rather
+ * than recursion, thus deeply nested data cannot overflow the stack. The bean itself is built
+ * once the message is complete, using {@link JodaBeanBinReader}. The standard, referencing and
+ * positional formats are supported. Compressed data is not supported.
+ * <p>
+ * This class contains mutable state and cannot be used from multiple threads.
+ *
+ * @param <T>  the type of the beans
+ */
+public final class BinBeanDecoder<T> extends MsgPack {
+
+    /**
+     * The initial size of the buffer.
+     */
+    private static final int INITIAL_SIZE = 1024;
+    /**
+     * The maximum size of the buffer that is retained between messages.
+     */
+    private static final int MAX_RETAINED_SIZE = 1024 * 1024;
+
+    /**
+     * The reader.
+     */
+    private final JodaBeanBinReader reader;
+    /**
+     * The type of each bean.
+     */
+    private final Class<T> rootType;
+    /**
+     * The bytes of the current message.
+     */
+    private byte[] buffer = new byte[INITIAL_SIZE];
+    /**
+     * The number of bytes in the buffer.
+     */
+    private int length;
+    /**
+     * The position of the next item to be checked in the buffer.
+     */
+    private int position;
+    /**
+     * The number of items remaining at each level of nesting.
+     */
+    private long[] remaining = new long[16];
+    /**
+     * The current depth of nesting, zero before the start of a message.
+     */
+    private int depth;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Creates an instance.
+     *
+     * @param settings  the settings, not null
+     * @param rootType  the type of each bean, not null
+     */
+    public BinBeanDecoder(JodaBeanSer settings, Class<T> rootType) {
+        if (settings == null) {
+            throw new NullPointerException("settings");
+        }
+        if (rootType == null) {
+            throw new NullPointerException("rootType");
+        }
+        this.reader = new JodaBeanBinReader(settings);
+        this.rootType = rootType;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Feeds a chunk of bytes to the decoder.
+     * <p>
+     * The bytes are consumed from the current position of the buffer.
+     * If the message is completed by the chunk, the bean is returned and the position of
+     * the buffer is left at the end of the message, so that any following message can be
+     * decoded by feeding the same buffer again. Otherwise, all the bytes are consumed and null is returned.
+     * <p>
+     * If the data is invalid, or the bean cannot be read, the decoder discards all the bytes of
+     * the message and is ready for the next message. Since the invalid data cannot be used to find
+     * the end of the message, the caller must find the start of the next message by other means,
+     * such as a new connection.
+     *
+     * @param input  the input buffer, heap or direct, not null
+     * @return the bean, null if the message is not yet complete
+     * @throws IllegalArgumentException if the data is invalid
+     * @throws RuntimeException if unable to parse
+     */
+    public T feed(ByteBuffer input) {
+        if (input == null) {
+            throw new NullPointerException("input");
+        }
+        try {
+            int count = input.remaining();
+            ensureCapacity(length + count);
+            input.get(buffer, length, count);
+            length += count;
+            if (!scan()) {
+                return null;
+            }
+        } catch (RuntimeException ex) {
+            reset();
+            throw ex;
+        }
+        // return any bytes after the end of the message to the input
+        input.position(input.position() - (length - position));
+        try {
+            return reader.read(ByteBuffer.wrap(buffer, 0, position), rootType);
+        } finally {
+            reset();
+        }
+    }
+
+    /**
+     * Checks if part of a message has been fed to the decoder.
+     * <p>
+     * This can be used to detect a message that was truncated when the input ends.
+     *
+     * @return true if a message has been started but not completed
+     */
+    public boolean isPartial() {
+        return length > 0;
+    }
+
+    //-----------------------------------------------------------------------
+    // discards the current message
+    private void reset() {
+        length = 0;
+        position = 0;
+        depth = 0;
+        if (buffer.length > MAX_RETAINED_SIZE) {
+            buffer = new byte[INITIAL_SIZE];
+        }
+    }
+
+    // checks the items in the buffer, returning true if the message is complete
+    private boolean scan() {
+        while (position < length) {
+            int typeByte = buffer[position];
+            long headerSize;
+            long dataSize = 0;
+            long itemCount = 0;
+            if (typeByte >= MIN_FIX_INT) {
+                headerSize = 1;
+            } else if (typeByte >= MIN_FIX_STR && typeByte <= MAX_FIX_STR) {
+                headerSize = 1;
+                dataSize = typeByte - MIN_FIX_STR;
+            } else if (typeByte >= MIN_FIX_ARRAY && typeByte <= MAX_FIX_ARRAY) {
+                headerSize = 1;
+                itemCount = typeByte - MIN_FIX_ARRAY;
+            } else if (typeByte >= MIN_FIX_MAP && typeByte <= MAX_FIX_MAP) {
+                headerSize = 1;
+                itemCount = (typeByte - MIN_FIX_MAP) * 2L;
+            } else {
+                switch (typeByte) {
+                    case NIL:
+                    case FALSE:
+                    case TRUE:
+                        headerSize = 1;
+                        break;
+                    case UINT_8:
+                    case SINT_8:
+                        headerSize = 2;
+                        break;
+                    case UINT_16:
+                    case SINT_16:
+                        headerSize = 3;
+                        break;
+                    case UINT_32:
+                    case SINT_32:
+                    case FLOAT_32:
+                        headerSize = 5;
+                        break;
+                    case UINT_64:
+                    case SINT_64:
+                    case FLOAT_64:
+                        headerSize = 9;
+                        break;
+                    case FIX_EXT_1:
+                        headerSize = 3;
+                        break;
+                    case FIX_EXT_2:
+                        headerSize = 4;
+                        break;
+                    case FIX_EXT_4:
+                        headerSize = 6;
+                        break;
+                    case FIX_EXT_8:
+                        headerSize = 10;
+                        break;
+                    case FIX_EXT_16:
+                        headerSize = 18;
+                        break;
+                    case STR_8:
+                    case BIN_8:
+                        headerSize = 2;
+                        break;
+                    case STR_16:
+                    case BIN_16:
+                    case ARRAY_16:
+                    case MAP_16:
+                        headerSize = 3;
+                        break;
+                    case STR_32:
+                    case BIN_32:
+                    case ARRAY_32:
+                    case MAP_32:
+                        headerSize = 5;
+                        break;
+                    case EXT_8:
+                        headerSize = 3;
+                        break;
+                    case EXT_16:
+                        headerSize = 4;
+                        break;
+                    case EXT_32:
+                        headerSize = 6;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Invalid binary data: Unexpected byte: 0x" + toHex(typeByte));
+                }
+                if (position + headerSize > length) {
+                    return false;
+                }
+                switch (typeByte) {
+                    case STR_8:
+                    case BIN_8:
+                    case EXT_8:
+                        dataSize = readUnsigned(1);
+                        break;
+                    case STR_16:
+                    case BIN_16:
+                    case EXT_16:
+                        dataSize = readUnsigned(2);
+                        break;
+                    case STR_32:
+                    case BIN_32:
+                    case EXT_32:
+                        dataSize = readUnsigned(4);
+                        break;
+                    case ARRAY_16:
+                        itemCount = readUnsigned(2);
+                        break;
+                    case MAP_16:
+                        itemCount = readUnsigned(2) * 2;
+                        break;
+                    case ARRAY_32:
+                        itemCount = readUnsigned(4);
+                        break;
+                    case MAP_32:
+                        itemCount = readUnsigned(4) * 2;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (position + headerSize + dataSize > length) {
+                return false;
+            }
+            if (position == 0 && itemCount == 0) {
+                throw new IllegalArgumentException("Invalid binary data: Expected array, but was: 0x" + toHex(typeByte));
+            }
+            position += (int) (headerSize + dataSize);
+            if (itemCount > 0) {
+                push(itemCount);
+            } else if (completeItem()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // reads an unsigned big-endian number following the type byte
+    private long readUnsigned(int size) {
+        long value = 0;
+        for (int i = 1; i <= size; i++) {
+            value = (value << 8) | (buffer[position + i] & 0xFF);
+        }
+        return value;
+    }
+
+    // starts a new level of nesting
+    private void push(long itemCount) {
+        if (depth == remaining.length) {
+            remaining = Arrays.copyOf(remaining, depth * 2);
+        }
+        remaining[depth++] = itemCount;
+    }
+
+    // marks an item as complete, returning true if the message is complete
+    private boolean completeItem() {
+        while (depth > 0) {
+            if (--remaining[depth - 1] > 0) {
+                return false;
+            }
+            depth--;
+        }
+        return true;
+    }
+
+    // grows the buffer
+    private void ensureCapacity(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Invalid binary data: Message too large");
+        }
+        if (size > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(size, buffer.length * 2));
+        }
+    }
+
+}
@@ -0,0 +1,217 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.joda.beans.ser.JodaBeanSer;
+
+/**
+ * Provides the ability to read a stream of Joda-Beans from a binary format.
+ * <p>
+ * This class contains mutable state and cannot be used from multiple threads.
+ * <p>
+ * The stream format is defined by {@link BinBeanStreamWriter}.
+ * Beans are parsed one at a time as the iterator is advanced, thus memory usage
+ * does not depend on the number of beans in the stream.
+ *
+ * @param <T>  the type of the beans in the stream
+ */
+public final class BinBeanStreamReader<T> implements Iterator<T>, Closeable {
+
+    /**
+     * The byte that starts the stream header, an array of size one.
+     */
+    private static final byte HEADER = (byte) (MsgPack.MIN_FIX_ARRAY + 1);
+
+    /**
+     * The settings.
+     */
+    private final JodaBeanSer settings;
+    /**
+     * The source to read from.
+     */
+    private final MsgPackSource input;
+    /**
+     * The type of each bean.
+     */
+    private final Class<T> rootType;
+    /**
+     * The reader, which retains the type shortening state, null until the header is read.
+     */
+    private AbstractBinReader reader;
+    /**
+     * The next bean, null if not yet read.
+     */
+    private T next;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Creates an instance reading from a stream.
+     * <p>
+     * The stream is buffered if it does not support mark and reset.
+     *
+     * @param settings  the settings, not null
+     * @param input  the input stream, not null
+     * @param rootType  the type of each bean, not null
+     */
+    public BinBeanStreamReader(JodaBeanSer settings, InputStream input, Class<T> rootType) {
+        this(settings, MsgPackSource.of(buffer(input)), rootType);
+    }
+
+    /**
+     * Creates an instance reading from a buffer.
+     * <p>
+     * The data is read directly from the buffer, starting at the current position.
+     * The position of the buffer is not altered.
+     *
+     * @param settings  the settings, not null
+     * @param input  the input buffer, heap or direct, not null
+     * @param rootType  the type of each bean, not null
+     */
+    public BinBeanStreamReader(JodaBeanSer settings, ByteBuffer input, Class<T> rootType) {
+        this(settings, MsgPackSource.of(input.duplicate().order(ByteOrder.BIG_ENDIAN)), rootType);
+    }
+
+    // creates an instance
+    private BinBeanStreamReader(JodaBeanSer settings, MsgPackSource input, Class<T> rootType) {
+        if (settings == null) {
+            throw new NullPointerException("settings");
+        }
+        if (rootType == null) {
+            throw new NullPointerException("rootType");
+        }
+        this.settings = settings;
+        this.input = input;
+        this.rootType = rootType;
+    }
+
+    // buffer the input stream if necessary
+    private static InputStream buffer(InputStream input) {
+        if (input == null) {
+            throw new NullPointerException("input");
+        }
+        return input.markSupported() ? input : new BufferedInputStream(input);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if there is another bean in the stream.
+     *
+     * @return true if there is another bean
+     * @throws UncheckedIOException if unable to read the stream
+     * @throws RuntimeException if unable to parse
+     */
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        try {
+            while (true) {
+                input.mark(2);
+                int b = input.read();
+                if (b < 0) {
+                    if (reader == null) {
+                        throw new IllegalArgumentException("Invalid binary data: Expected stream header, but was empty");
+                    }
+                    return false;
+                }
+                if ((byte) b == HEADER) {
+                    int versionByte = input.readByte();
+                    if (versionByte != 3) {
+                        throw new IllegalArgumentException(
+                                "Invalid binary data: Expected stream version 3, but was: 0x" + MsgPack.toHex(versionByte));
+                    }
+                    // a new header resets the type shortening
+                    reader = new JodaBeanStandardBinReader(settings, input);
+                } else if (reader == null) {
+                    throw new IllegalArgumentException(
+                            "Invalid binary data: Expected stream header, but was: 0x" + MsgPack.toHex(b));
+                } else {
+                    input.reset();
+                    next = reader.parseRemaining(rootType);
+                    return true;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Reads the next bean from the stream.
+     *
+     * @return the bean, not null
+     * @throws NoSuchElementException if there are no more beans
+     * @throws UncheckedIOException if unable to read the stream
+     * @throws RuntimeException if unable to parse
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Returns a sequential stream of the remaining beans.
+     * <p>
+     * Closing the returned stream closes this reader.
+     *
+     * @return the stream of beans, not null
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+    }
+
+    /**
+     * Closes the underlying input.
+     *
+     * @throws IOException if an error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.joda.beans.Bean;
+import org.joda.beans.ser.JodaBeanSer;
+
+/**
+ * Provides the ability to write a stream of Joda-Beans to a binary format.
+ * <p>
+ * This class contains mutable state and cannot be used from multiple threads.
+ * <p>
+ * The stream format is intended for append-only logs of many small beans,
+ * where the overhead of a standalone message per bean would dominate.
+ * A single header is written, followed by each bean in the standard binary format
+ * described in {@link JodaBeanBinWriter}. Type names are shortened across the whole
+ * stream, so the full name of each type is only written the first time it occurs.
+ * <p>
+ * The stream is a sequence of MsgPack objects.
+ * The header is an array of size one containing the version, 3.
+ * Each subsequent object is a bean, always written with its type.
+ * A header may occur again later in the stream, which resets the type shortening.
+ * This allows a new writer to append to an existing stream.
+ * <p>
+ * The stream is read using {@link BinBeanStreamReader}.
+ */
+public final class BinBeanStreamWriter implements Closeable, Flushable {
+
+    /**
+     * The output stream.
+     */
+    private final OutputStream output;
+    /**
+     * The writer, which retains the type shortening state.
+     */
+    private final JodaBeanStandardBinWriter writer;
+    /**
+     * Whether the header has been written.
+     */
+    private boolean headerWritten;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Creates an instance.
+     * <p>
+     * The header is written when the first bean is written, or on close.
+     * For best performance, the output stream should be buffered.
+     *
+     * @param settings  the settings to use, not null
+     * @param output  the output stream, not null
+     */
+    public BinBeanStreamWriter(JodaBeanSer settings, OutputStream output) {
+        if (settings == null) {
+            throw new NullPointerException("settings");
+        }
+        if (output == null) {
+            throw new NullPointerException("output");
+        }
+        this.output = output;
+        this.writer = new JodaBeanStandardBinWriter(settings, new MsgPackOutput(output));
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Writes a bean to the stream.
+     * <p>
+     * The type of the bean is always set in the stream.
+     *
+     * @param bean  the bean to output, not null
+     * @throws IOException if an error occurs
+     */
+    public void write(Bean bean) throws IOException {
+        if (bean == null) {
+            throw new NullPointerException("bean");
+        }
+        writeHeader();
+        writer.writeStreamBean(bean);
+    }
+
+    /**
+     * Flushes the underlying output stream.
+     *
+     * @throws IOException if an error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    /**
+     * Closes the underlying output stream, writing the header if no beans were written.
+     *
+     * @throws IOException if an error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            writeHeader();
+        } finally {
+            output.close();
+        }
+    }
+
+    // writes the header if necessary
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            writer.writeStreamHeader();
+            headerWritten = true;
+        }
+    }
+
+}
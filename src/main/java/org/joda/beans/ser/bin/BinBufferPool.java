@@ -0,0 +1,150 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Pool of output byte buffers for the binary writers.
+ * <p>
+ * Each thread has one buffer which is reused between messages.
+ * A buffer that is already in use, such as when a message is written while writing another,
+ * is replaced by a new unpooled buffer. Buffers that grow beyond 1Mb are not retained.
+ * <p>
+ * The size of the last binary message written for each root bean type is recorded and used
+ * to size the buffer before writing, thus a steady state of messages can be written
+ * without growing the buffer.
+ * <p>
+ * Pooling is enabled using {@link org.joda.beans.ser.JodaBeanSer#withPooledBuffers(boolean)}.
+ */
+final class BinBufferPool {
+
+    /**
+     * The default initial size of a buffer.
+     */
+    private static final int DEFAULT_SIZE = 1024;
+    /**
+     * The maximum size of a buffer that is retained.
+     */
+    private static final int MAX_RETAINED_SIZE = 1024 * 1024;
+    /**
+     * The size hints, keyed by root bean type.
+     */
+    private static final ClassValue<int[]> SIZE_HINTS = new ClassValue<int[]>() {
+        @Override
+        protected int[] computeValue(Class<?> type) {
+            return new int[] {DEFAULT_SIZE};
+        }
+    };
+    /**
+     * The pooled buffer.
+     */
+    private static final ThreadLocal<PooledBytes> BYTES = new ThreadLocal<>();
+
+    /**
+     * Restricted constructor.
+     */
+    private BinBufferPool() {
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains an empty buffer for the specified root type.
+     * <p>
+     * The buffer must be passed to {@link #release(ByteArrayOutputStream)} once finished with.
+     *
+     * @param rootType  the type of the root bean, not null
+     * @return the empty buffer, not null
+     */
+    static ByteArrayOutputStream acquire(Class<?> rootType) {
+        int hint = sizeHint(rootType);
+        PooledBytes pooled = BYTES.get();
+        if (pooled == null || pooled.inUse) {
+            if (pooled != null) {
+                return new ByteArrayOutputStream(hint);
+            }
+            pooled = new PooledBytes(hint);
+            BYTES.set(pooled);
+        }
+        pooled.inUse = true;
+        pooled.reset();
+        pooled.ensureCapacity(hint);
+        return pooled;
+    }
+
+    /**
+     * Returns the bytes written to the buffer, recording the size against the root type.
+     * <p>
+     * This returns a copy of the bytes sized exactly to the data.
+     *
+     * @param rootType  the type of the root bean, not null
+     * @param buffer  the buffer obtained from {@link #acquire(Class)}, not null
+     * @return the bytes, not null
+     */
+    static byte[] toByteArray(Class<?> rootType, ByteArrayOutputStream buffer) {
+        int size = buffer.size();
+        SIZE_HINTS.get(rootType)[0] = Math.min(size + (size >> 3) + 16, MAX_RETAINED_SIZE);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Releases a buffer back to the pool.
+     *
+     * @param buffer  the buffer obtained from {@link #acquire(Class)}, not null
+     */
+    static void release(ByteArrayOutputStream buffer) {
+        if (buffer instanceof PooledBytes) {
+            PooledBytes pooled = (PooledBytes) buffer;
+            pooled.inUse = false;
+            if (pooled.capacity() > MAX_RETAINED_SIZE) {
+                BYTES.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the size hint for the root type.
+     *
+     * @param rootType  the type of the root bean, not null
+     * @return the size hint
+     */
+    static int sizeHint(Class<?> rootType) {
+        return SIZE_HINTS.get(rootType)[0];
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Pooled byte buffer, exposing the ability to pre-size.
+     */
+    private static final class PooledBytes extends ByteArrayOutputStream {
+        private boolean inUse;
+
+        private PooledBytes(int size) {
+            super(size);
+        }
+
+        private int capacity() {
+            return buf.length;
+        }
+
+        private void ensureCapacity(int size) {
+            if (size > buf.length) {
+                buf = new byte[size];
+            }
+        }
+    }
+
+}
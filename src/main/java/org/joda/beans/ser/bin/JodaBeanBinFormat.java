@@ -0,0 +1,44 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+/**
+ * The variants of the Joda-Beans binary format.
+ * <p>
+ * All variants are read by {@link JodaBeanBinReader}.
+ */
+public enum JodaBeanBinFormat {
+
+    /**
+     * The standard format, where each bean is a map keyed by property name.
+     */
+    STANDARD,
+    /**
+     * The referencing format, where repeated immutable beans are only written once.
+     */
+    REFERENCING,
+    /**
+     * The positional format, where each bean is an array of property values.
+     * The property names of each bean type are written once per message.
+     */
+    POSITIONAL,
+    /**
+     * The positional format, where repeated immutable beans are only written once.
+     * Unlike the referencing format, the beans are written in a single pass.
+     */
+    POSITIONAL_REFERENCING;
+
+}
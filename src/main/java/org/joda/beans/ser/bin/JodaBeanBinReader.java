@@ -15,12 +15,20 @@
  */
 package org.joda.beans.ser.bin;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 import org.joda.beans.Bean;
+import org.joda.beans.MetaProperty;
 import org.joda.beans.ser.JodaBeanSer;
+import org.joda.beans.ser.SerDeserializer;
+import org.joda.beans.ser.SerOptional;
 
 /**
  * Provides the ability for a Joda-Bean to read from binary formats.
@@ -31,6 +39,11 @@ import org.joda.beans.ser.JodaBeanSer;
  */
 public class JodaBeanBinReader extends MsgPack {
 
+    /**
+     * The size of each chunk when memory-mapping a file, 1GB.
+     */
+    private static final int MAPPED_CHUNK_SIZE = 1 << 30;
+
     /**
      * Settings.
      */
@@ -83,7 +96,42 @@ public class JodaBeanBinReader extends MsgPack {
         if (input == null) {
             throw new NullPointerException("input");
         }
-        return read(new ByteArrayInputStream(input), rootType);
+        return read(ByteBuffer.wrap(input), rootType);
+    }
+
+    /**
+     * Reads and parses to a bean.
+     * 
+     * @param input  the input buffer, heap or direct, not null
+     * @return the bean, not null
+     */
+    public Bean read(ByteBuffer input) {
+        return read(input, Bean.class);
+    }
+
+    /**
+     * Reads and parses to a bean.
+     * <p>
+     * The data is read directly from the buffer, starting at the current position.
+     * The byte order of the buffer is ignored, as the binary format is always big-endian.
+     * On success, the position of the buffer is advanced to the end of the bean data.
+     * 
+     * @param <T>  the root type
+     * @param input  the input buffer, heap or direct, not null
+     * @param rootType  the root type, not null
+     * @return the bean, not null
+     */
+    public <T> T read(ByteBuffer input, Class<T> rootType) {
+        if (input == null) {
+            throw new NullPointerException("input");
+        }
+        if (rootType == null) {
+            throw new NullPointerException("rootType");
+        }
+        ByteBuffer buffer = input.duplicate().order(ByteOrder.BIG_ENDIAN);
+        T result = read(MsgPackSource.of(buffer), rootType);
+        input.position(buffer.position());
+        return result;
     }
 
     /**
@@ -111,15 +159,85 @@ public class JodaBeanBinReader extends MsgPack {
         if (rootType == null) {
             throw new NullPointerException("rootType");
         }
-        DataInputStream dataInput;
-        if (input instanceof DataInputStream) {
-            dataInput = (DataInputStream) input;
-        } else {
-            dataInput = new DataInputStream(input);
+        return read(MsgPackSource.of(input), rootType);
+    }
+
+    /**
+     * Reads and parses a file to a bean using memory-mapping.
+     * 
+     * @param file  the file to read, not null
+     * @return the bean, not null
+     * @throws UncheckedIOException if unable to read the file
+     */
+    public Bean read(Path file) {
+        return read(file, Bean.class);
+    }
+
+    /**
+     * Reads and parses a file to a bean using memory-mapping.
+     * <p>
+     * The file is memory-mapped and decoded directly from the mapping, rather than
+     * being buffered on the heap. Files larger than 2GB are mapped in chunks.
+     * 
+     * @param <T>  the root type
+     * @param file  the file to read, not null
+     * @param rootType  the root type, not null
+     * @return the bean, not null
+     * @throws UncheckedIOException if unable to read the file
+     */
+    public <T> T read(Path file, Class<T> rootType) {
+        if (file == null) {
+            throw new NullPointerException("file");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel, rootType);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
         }
+    }
+
+    /**
+     * Reads and parses a file channel to a bean using memory-mapping.
+     * <p>
+     * The file is memory-mapped from the current position of the channel and decoded
+     * directly from the mapping, rather than being buffered on the heap.
+     * Files larger than 2GB are mapped in chunks.
+     * On success, the position of the channel is advanced to the end of the bean data.
+     * The channel is not closed.
+     * 
+     * @param <T>  the root type
+     * @param channel  the file channel to read, not null
+     * @param rootType  the root type, not null
+     * @return the bean, not null
+     * @throws UncheckedIOException if unable to read the file
+     */
+    public <T> T read(FileChannel channel, Class<T> rootType) {
+        if (channel == null) {
+            throw new NullPointerException("channel");
+        }
+        if (rootType == null) {
+            throw new NullPointerException("rootType");
+        }
+        try {
+            return read(channel, rootType, MAPPED_CHUNK_SIZE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // reads from a file channel using the specified chunk size
+    <T> T read(FileChannel channel, Class<T> rootType, int chunkSize) throws IOException {
+        MsgPackSource.MappedSource source = MsgPackSource.of(channel, chunkSize);
+        T result = read(source, rootType);
+        channel.position(source.filePosition());
+        return result;
+    }
+
+    // reads from the source, closing it
+    private <T> T read(MsgPackSource input, Class<T> rootType) {
         try {
             try {
-                return parseVersion(dataInput, rootType);
+                return parseVersion(input, rootType);
             } finally {
                 input.close();
             }
@@ -130,9 +248,61 @@ public class JodaBeanBinReader extends MsgPack {
         }
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Extracts the value of a single property without parsing the whole bean.
+     * <p>
+     * The property path is a list of property names, starting from the root bean.
+     * Each name except the last must refer to a property that holds a bean.
+     * For example, {@code extract(bytes, String.class, "owner", "surname")}.
+     * <p>
+     * With the standard format, only the beans on the path are decoded, with all
+     * other properties skipped without being parsed. As such, the root type must
+     * have been written to the message, which is the default.
+     * The referencing and positional formats cannot be read in this way, so the
+     * whole bean is parsed and the path followed.
+     * <p>
+     * Null is returned if the property, or any bean on the path, is null.
+     * Optional properties are returned as the underlying value, or null if empty.
+     * Each name is matched using the deserializer, thus renamed properties are found.
+     * 
+     * @param <T>  the type of the value
+     * @param input  the input bytes, not null
+     * @param valueType  the type of the value, not null
+     * @param propertyPath  the path of property names, not empty
+     * @return the property value, null if the value is null or not present
+     * @throws IllegalArgumentException if the path is invalid, such as when a property does not exist
+     */
+    public <T> T extract(byte[] input, Class<T> valueType, String... propertyPath) {
+        if (input == null) {
+            throw new NullPointerException("input");
+        }
+        if (valueType == null) {
+            throw new NullPointerException("valueType");
+        }
+        if (propertyPath == null) {
+            throw new NullPointerException("propertyPath");
+        }
+        if (propertyPath.length == 0) {
+            throw new IllegalArgumentException("Property path must not be empty");
+        }
+        MsgPackSource source = MsgPackSource.of(ByteBuffer.wrap(input));
+        try {
+            try {
+                return valueType.cast(parseVersionExtract(source, propertyPath));
+            } finally {
+                source.close();
+            }
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
     //-----------------------------------------------------------------------
     // parses the version
-    private <T> T parseVersion(DataInputStream input, Class<T> declaredType) throws Exception {
+    private <T> T parseVersion(MsgPackSource input, Class<T> declaredType) throws Exception {
         // root array
         int arrayByte = input.readByte();
         int versionByte = input.readByte();
@@ -149,10 +319,47 @@ public class JodaBeanBinReader extends MsgPack {
                             "Invalid binary data: Expected array with 4 elements, but was: 0x" + toHex(arrayByte));
                 }
                 return new JodaBeanReferencingBinReader(settings, input).read(declaredType);
+            case 4:
+                if (arrayByte != MIN_FIX_ARRAY + 2) {
+                    throw new IllegalArgumentException(
+                            "Invalid binary data: Expected array with 2 elements, but was: 0x" + toHex(arrayByte));
+                }
+                return new JodaBeanPositionalBinReader(settings, input).read(declaredType);
+            case 5:
+                if (arrayByte != MIN_FIX_ARRAY + 2) {
+                    throw new IllegalArgumentException(
+                            "Invalid binary data: Expected array with 2 elements, but was: 0x" + toHex(arrayByte));
+                }
+                return new JodaBeanPositionalBinReader(settings, input, true).read(declaredType);
             default:
                 throw new IllegalArgumentException(
-                        "Invalid binary data: Expected version 1 or 2, but was: 0x" + toHex(versionByte));
+                        "Invalid binary data: Expected version 1, 2, 4 or 5, but was: 0x" + toHex(versionByte));
+        }
+    }
+
+    // parses the version, then extracts the property
+    private Object parseVersionExtract(MsgPackSource input, String[] propertyPath) throws Exception {
+        input.mark(2);
+        int arrayByte = input.readByte();
+        int versionByte = input.readByte();
+        if (versionByte == 1 && arrayByte == MIN_FIX_ARRAY + 2) {
+            return new JodaBeanStandardBinReader(settings, input).extract(propertyPath);
+        }
+        input.reset();
+        Object value = parseVersion(input, Bean.class);
+        for (int i = 0; i < propertyPath.length; i++) {
+            if (value == null) {
+                return null;
+            }
+            if (!(value instanceof Bean)) {
+                throw new IllegalArgumentException("Property path does not refer to a bean: " + String.join(".", propertyPath));
+            }
+            Bean bean = (Bean) value;
+            SerDeserializer deser = settings.getDeserializers().findDeserializer(bean.getClass());
+            MetaProperty<?> metaProp = AbstractBinReader.findPathProperty(deser, bean.getClass(), bean.metaBean(), propertyPath, i);
+            value = SerOptional.extractValue(metaProp, bean);
         }
+        return value;
     }
 
 }
@@ -18,10 +18,13 @@ package org.joda.beans.ser.bin;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.joda.beans.Bean;
 import org.joda.beans.ImmutableBean;
 import org.joda.beans.ser.JodaBeanSer;
+import org.joda.beans.ser.SerCompression;
 
 /**
  * Provides the ability for a Joda-Bean to be written to a binary format.
@@ -35,6 +38,12 @@ import org.joda.beans.ser.JodaBeanSer;
  * Most simple types, defined by Joda-Convert, are output as MessagePack strings.
  * However, MessagePack nil, boolean, float, integral and bin types are also used
  * for null, byte[] and the Java numeric primitive types (excluding char).
+ * If enabled using {@link JodaBeanSer#withNativeValueTypes(boolean)}, {@code LocalDate},
+ * {@code Instant}, {@code BigDecimal} and {@code UUID} are output as an 'ext' entity
+ * containing their numeric form, without any additional type information.
+ * If enabled using {@link JodaBeanSer#withNativePrimitiveArrays(boolean)}, arrays of
+ * double, float, long, int and short are output as a single 'ext' entity containing
+ * the element type and the big-endian element values, without any additional type information.
  * <p>
  * Beans are output using MessagePack maps where the key is the property name.
  * Collections are output using MessagePack maps or arrays.
@@ -85,6 +94,23 @@ import org.joda.beans.ser.JodaBeanSer;
  * For references, when an object will be referred back to it is written as a map of size one with 'ext' as the key
  * and the object that should be referred to as the value.
  * When that same object is referred back to it is written as 'ext' with the data from the initial 'ext'.
+ * 
+ * <h3>Positional format</h3>
+ * The positional format is based on the standard format, but avoids writing the
+ * property names of every bean. As with the referencing format, it is intended to be
+ * consumed only by Joda-Beans and may change over time.
+ * <p>
+ * Each bean is output as a MessagePack array of property values in a fixed order, with nil
+ * for null values. The first time a bean type is seen in the message, the array starts with
+ * a bean 'ext' entity containing the class name, followed by an array of the property names.
+ * If a later bean of the same type needs type information, the array starts with a bean 'ext'
+ * containing the integer position of the type in the order the types were first seen.
+ * The root type is always output. Dynamic beans are output as in the standard format.
+ * <p>
+ * The positional referencing variant uses version 5. Each immutable bean is implicitly
+ * numbered in the order its output completes. Where an equal bean is output later in the
+ * message, it is written as a reference 'ext' entity containing that number instead.
+ * Unlike the referencing format, this does not require a pass over the object graph before writing.
  */
 public class JodaBeanBinWriter {
 
@@ -93,9 +119,9 @@ public class JodaBeanBinWriter {
      */
     private final JodaBeanSer settings;
     /**
-     * Whether to use referencing.
+     * The format to write.
      */
-    private final boolean referencing;
+    private final JodaBeanBinFormat format;
 
     //-----------------------------------------------------------------------
     /**
@@ -114,11 +140,24 @@ public class JodaBeanBinWriter {
      * @param referencing  whether to use referencing
      */
     public JodaBeanBinWriter(JodaBeanSer settings, boolean referencing) {
+        this(settings, referencing ? JodaBeanBinFormat.REFERENCING : JodaBeanBinFormat.STANDARD);
+    }
+
+    /**
+     * Creates an instance.
+     * 
+     * @param settings  the settings to use, not null
+     * @param format  the binary format to write, not null
+     */
+    public JodaBeanBinWriter(JodaBeanSer settings, JodaBeanBinFormat format) {
         if (settings == null) {
             throw new NullPointerException("settings");
         }
+        if (format == null) {
+            throw new NullPointerException("format");
+        }
         this.settings = settings;
-        this.referencing = referencing;
+        this.format = format;
     }
 
     //-----------------------------------------------------------------------
@@ -136,12 +175,17 @@ public class JodaBeanBinWriter {
 
     /**
      * Writes the bean to an array of bytes.
+     * <p>
+     * If compression is enabled in the settings, the data is compressed.
      * 
      * @param bean  the bean to output, not null
      * @param rootType  true to output the root type
      * @return the binary data, not null
      */
     public byte[] write(Bean bean, boolean rootType) {
+        if (settings.isPooledBuffers()) {
+            return writePooled(bean, rootType);
+        }
         ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
         try {
             write(bean, rootType, baos);
@@ -151,6 +195,23 @@ public class JodaBeanBinWriter {
         return baos.toByteArray();
     }
 
+    // writes the bean using a pooled buffer
+    private byte[] writePooled(Bean bean, boolean rootType) {
+        if (bean == null) {
+            throw new NullPointerException("bean");
+        }
+        Class<?> type = bean.getClass();
+        ByteArrayOutputStream baos = BinBufferPool.acquire(type);
+        try {
+            write(bean, rootType, baos);
+            return BinBufferPool.toByteArray(type, baos);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            BinBufferPool.release(baos);
+        }
+    }
+
     /**
      * Writes the bean to the {@code OutputStream}.
      * <p>
@@ -166,6 +227,8 @@ public class JodaBeanBinWriter {
 
     /**
      * Writes the bean to the {@code OutputStream}.
+     * <p>
+     * If compression is enabled in the settings, the data is compressed.
      * 
      * @param bean  the bean to output, not null
      * @param rootType  true to output the root type
@@ -179,14 +242,78 @@ public class JodaBeanBinWriter {
         if (output == null) {
             throw new NullPointerException("output");
         }
-        if (referencing) {
-            if (!(bean instanceof ImmutableBean)) {
-                throw new IllegalArgumentException(
-                    "Referencing binary format can only write ImmutableBean instances: " + bean.getClass().getName());
-            }
-            new JodaBeanReferencingBinWriter(settings, output).write((ImmutableBean) bean);
-        } else {
-            new JodaBeanStandardBinWriter(settings, output).write(bean, rootType);
+        OutputStream compressed = settings.getCompression().compress(output);
+        try {
+            write(bean, rootType, new MsgPackOutput(compressed));
+            SerCompression.finish(compressed);
+        } finally {
+            SerCompression.end(compressed);
+        }
+    }
+
+    /**
+     * Writes the bean to the {@code ByteBuffer}.
+     * <p>
+     * The type of the bean will be set in the message.
+     * 
+     * @param bean  the bean to output, not null
+     * @param output  the output buffer, heap or direct, not null
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public void write(Bean bean, ByteBuffer output) {
+        write(bean, true, output);
+    }
+
+    /**
+     * Writes the bean to the {@code ByteBuffer}.
+     * <p>
+     * The data is written directly to the buffer, starting at the current position.
+     * The data is not compressed, even if compression is enabled in the settings.
+     * The byte order of the buffer is ignored, as the binary format is always big-endian.
+     * On success, the position of the buffer is advanced to the end of the written data.
+     * If the buffer is too small, an exception is thrown and the position is unaltered.
+     * 
+     * @param bean  the bean to output, not null
+     * @param rootType  true to output the root type
+     * @param output  the output buffer, heap or direct, not null
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public void write(Bean bean, boolean rootType, ByteBuffer output) {
+        if (bean == null) {
+            throw new NullPointerException("bean");
+        }
+        if (output == null) {
+            throw new NullPointerException("output");
+        }
+        ByteBuffer buffer = output.duplicate().order(ByteOrder.BIG_ENDIAN);
+        try {
+            write(bean, rootType, new MsgPackOutput(buffer));
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        output.position(buffer.position());
+    }
+
+    // writes the bean
+    private void write(Bean bean, boolean rootType, MsgPackOutput output) throws IOException {
+        switch (format) {
+            case REFERENCING:
+                if (!(bean instanceof ImmutableBean)) {
+                    throw new IllegalArgumentException(
+                        "Referencing binary format can only write ImmutableBean instances: " + bean.getClass().getName());
+                }
+                new JodaBeanReferencingBinWriter(settings, output).write((ImmutableBean) bean);
+                break;
+            case POSITIONAL:
+                new JodaBeanPositionalBinWriter(settings, output).write(bean);
+                break;
+            case POSITIONAL_REFERENCING:
+                new JodaBeanPositionalBinWriter(settings, output, true).write(bean);
+                break;
+            case STANDARD:
+            default:
+                new JodaBeanStandardBinWriter(settings, output).write(bean, rootType);
+                break;
         }
     }
 
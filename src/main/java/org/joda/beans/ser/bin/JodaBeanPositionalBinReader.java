@@ -0,0 +1,219 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.ser.JodaBeanSer;
+import org.joda.beans.ser.SerDeserializer;
+import org.joda.beans.ser.SerIterable;
+import org.joda.beans.ser.SerOptional;
+import org.joda.beans.ser.SerTypeMapper;
+
+/**
+ * Provides the ability for a Joda-Bean to read from the positional binary format.
+ * <p>
+ * The property names of each bean type are resolved once per message, and
+ * property values are then matched to their meta-property by position.
+ * <p>
+ * If referencing, each immutable bean is retained once built, allowing later
+ * references to be resolved by number.
+ */
+class JodaBeanPositionalBinReader extends AbstractBinReader {
+
+    /**
+     * The layouts, in the order they were defined in the message.
+     */
+    private final List<Layout> layouts = new ArrayList<>();
+    /**
+     * The layouts, keyed by bean type.
+     */
+    private final Map<Class<?>, Layout> layoutMap = new HashMap<>();
+    /**
+     * The immutable beans that have been read, in the order they were built, null if not referencing.
+     */
+    private final List<Object> refs;
+
+    //-----------------------------------------------------------------------
+    // creates an instance
+    JodaBeanPositionalBinReader(JodaBeanSer settings, MsgPackSource input) {
+        this(settings, input, false);
+    }
+
+    // creates an instance
+    JodaBeanPositionalBinReader(JodaBeanSer settings, MsgPackSource input, boolean referencing) {
+        super(settings, input);
+        this.refs = referencing ? new ArrayList<>() : null;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    Object parseObject(
+            Class<?> declaredType,
+            MetaProperty<?> metaProp,
+            Class<?> beanType,
+            SerIterable parentIterable,
+            boolean rootType) throws Exception {
+
+        input.mark(16);
+        int typeByte = input.readByte();
+        if (refs != null && isIntExtension(typeByte)) {
+            int extensionType = input.readByte();
+            int position = acceptIntExtension(typeByte);
+            if (extensionType == JODA_TYPE_REF) {
+                if (position < 0 || position >= refs.size()) {
+                    throw new IllegalArgumentException("Invalid binary data: Expected reference to previous bean, but was: " + position);
+                }
+                Object value = refs.get(position);
+                if (declaredType.isInstance(value) == false) {
+                    throw new IllegalArgumentException("Specified type is incompatible with declared type: " + declaredType.getName() + " and " + value.getClass().getName());
+                }
+                return value;
+            }
+        } else if (isArray(typeByte)) {
+            int arraySize = acceptArray(typeByte);
+            Layout declaredLayout = layoutMap.get(declaredType);
+            if (declaredLayout != null) {
+                // the array must be a bean, so the mark can be moved past the array header
+                input.mark(16);
+            }
+            if (arraySize > 0) {
+                int typeByteTemp = input.readByte();
+                if (typeByteTemp == EXT_8) {
+                    int size = input.readUnsignedByte();
+                    if (input.readByte() == JODA_TYPE_BEAN) {
+                        Layout layout = parseLayout(acceptStringBytes(size));
+                        return parseBean(declaredType, layout, arraySize - 2);
+                    }
+                } else if (isIntExtension(typeByteTemp)) {
+                    int extensionType = input.readByte();
+                    int position = acceptIntExtension(typeByteTemp);
+                    if (extensionType == JODA_TYPE_BEAN) {
+                        if (position >= layouts.size()) {
+                            throw new IllegalArgumentException("Invalid binary data: Expected reference to bean type, but was: " + position);
+                        }
+                        return parseBean(declaredType, layouts.get(position), arraySize - 1);
+                    }
+                }
+            }
+            if (declaredLayout != null) {
+                input.reset();
+                return parseBean(declaredType, declaredLayout, arraySize);
+            }
+        }
+        input.reset();
+        return super.parseObject(declaredType, metaProp, beanType, parentIterable, rootType);
+    }
+
+    // parses the property names of a bean type
+    private Layout parseLayout(String typeStr) throws Exception {
+        Class<?> type = SerTypeMapper.decodeType(typeStr, settings, null, null);
+        if (Bean.class.isAssignableFrom(type) == false) {
+            throw new IllegalArgumentException("Invalid binary data: Expected Joda-Bean, but was: " + type.getName());
+        }
+        int propertyCount = acceptArray(input.readByte());
+        SerDeserializer deser = settings.getDeserializers().findDeserializer(type);
+        MetaBean metaBean = deser.findMetaBean(type);
+        MetaProperty<?>[] metaProperties = new MetaProperty<?>[propertyCount];
+        for (int i = 0; i < propertyCount; i++) {
+            String propertyName = acceptString(input.readByte());
+            MetaProperty<?> metaProp = deser.findMetaProperty(type, metaBean, propertyName);
+            if (metaProp != null && metaProp.style().isDerived() == false) {
+                metaProperties[i] = metaProp;
+            }
+        }
+        Layout layout = new Layout(type, deser, metaBean, metaProperties);
+        layouts.add(layout);
+        layoutMap.put(type, layout);
+        return layout;
+    }
+
+    // parses the bean using the layout
+    private Object parseBean(Class<?> declaredType, Layout layout, int propertyCount) {
+        if (declaredType.isAssignableFrom(layout.type) == false) {
+            throw new IllegalArgumentException("Specified type is incompatible with declared type: " + declaredType.getName() + " and " + layout.type.getName());
+        }
+        if (layout.metaProperties.length != propertyCount) {
+            throw new IllegalArgumentException("Invalid binary data: Expected " + layout.metaProperties.length + " properties but was: " + propertyCount);
+        }
+        String propName = "";
+        try {
+            BeanBuilder<?> builder = layout.deser.createBuilder(layout.type, layout.metaBean);
+            for (MetaProperty<?> metaProp : layout.metaProperties) {
+                if (metaProp == null) {
+                    MsgPackInput.skipObject(input);
+                } else {
+                    propName = metaProp.name();
+                    Object value = parseObject(SerOptional.extractType(metaProp, layout.type), metaProp, layout.type, null, false);
+                    Object wrappedValue = SerOptional.wrapValue(metaProp, layout.type, value);
+                    if (wrappedValue != null) {
+                        // null is the same as a value not being set, allowing defaults to take precedence
+                        layout.deser.setValue(builder, metaProp, wrappedValue);
+                    }
+                }
+                propName = "";
+            }
+            Object bean = layout.deser.build(layout.type, builder);
+            if (refs != null && bean instanceof ImmutableBean) {
+                refs.add(bean);
+            }
+            return bean;
+        } catch (Exception ex) {
+            throw new RuntimeException("Error parsing bean: " + layout.type.getName() + "::" + propName + ", " + ex.getMessage(), ex);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    private boolean isIntExtension(int typeByte) {
+        return typeByte == MsgPack.FIX_EXT_1 || typeByte == MsgPack.FIX_EXT_2 || typeByte == MsgPack.FIX_EXT_4;
+    }
+
+    private int acceptIntExtension(int typeByte) throws IOException {
+        if (typeByte == MsgPack.FIX_EXT_1) {
+            return input.readUnsignedByte();
+        }
+        if (typeByte == MsgPack.FIX_EXT_2) {
+            return input.readUnsignedShort();
+        }
+        return input.readInt();
+    }
+
+    //-----------------------------------------------------------------------
+    // the meta-properties of a bean type, indexed by position, null if the property is skipped
+    private static final class Layout {
+        private final Class<?> type;
+        private final SerDeserializer deser;
+        private final MetaBean metaBean;
+        private final MetaProperty<?>[] metaProperties;
+
+        private Layout(Class<?> type, SerDeserializer deser, MetaBean metaBean, MetaProperty<?>[] metaProperties) {
+            this.type = type;
+            this.deser = deser;
+            this.metaBean = metaBean;
+            this.metaProperties = metaProperties;
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.beans.Bean;
+import org.joda.beans.DynamicBean;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.ser.JodaBeanSer;
+import org.joda.beans.ser.SerIterator;
+import org.joda.beans.ser.SerOptional;
+import org.joda.beans.ser.SerTypeMapper;
+
+/**
+ * Provides the ability for a Joda-Bean to written to the positional binary format.
+ * <p>
+ * The first time a bean type is written, the bean is written as an array containing
+ * the type name, an array of the property names and then the property values.
+ * Subsequent beans of the same type are written as an array of the property values,
+ * preceded by the index of the type if the type differs from the declared type.
+ * Dynamic beans do not have a fixed set of properties, and are written as in the standard format.
+ * <p>
+ * If referencing, each immutable bean is implicitly numbered once fully written, and an equal
+ * bean written later in the message is written as a reference to that number.
+ * This is a single pass over the object graph, with no need to find repeated beans in advance.
+ */
+class JodaBeanPositionalBinWriter extends AbstractBinWriter {
+
+    /**
+     * The property layouts, keyed by bean type.
+     */
+    private final Map<Class<?>, Layout> layouts = new HashMap<>();
+    /**
+     * The immutable beans that have been written, keyed to their number, null if not referencing.
+     */
+    private final Map<Object, Integer> refs;
+
+    // creates an instance
+    JodaBeanPositionalBinWriter(JodaBeanSer settings, MsgPackOutput output) {
+        this(settings, output, false);
+    }
+
+    // creates an instance
+    JodaBeanPositionalBinWriter(JodaBeanSer settings, MsgPackOutput output, boolean referencing) {
+        super(settings, output);
+        this.refs = referencing ? new HashMap<>() : null;
+    }
+
+    //-----------------------------------------------------------------------
+    // writes the bean
+    void write(Bean bean) throws IOException {
+        output.writeArrayHeader(2);
+        output.writeInt(refs != null ? 5 : 4);  // version 4, or 5 if referencing
+        writeRootBean(bean, true);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    void writeBean(Bean bean, Class<?> declaredType, RootType rootTypeFlag) throws IOException {
+        if (bean instanceof DynamicBean) {
+            super.writeBean(bean, declaredType, rootTypeFlag);
+            return;
+        }
+        boolean referenceable = refs != null && bean instanceof ImmutableBean;
+        if (referenceable) {
+            Integer ref = refs.get(bean);
+            if (ref != null) {
+                output.writePositiveExtensionInt(MsgPack.JODA_TYPE_REF, ref);
+                return;
+            }
+        }
+        Class<?> type = bean.getClass();
+        Layout layout = layouts.get(type);
+        if (layout == null) {
+            layout = new Layout(layouts.size(), bean);
+            layouts.put(type, layout);
+            output.writeArrayHeader(layout.metaProperties.length + 2);
+            // known types parameter is null as we never serialize the class names again
+            output.writeExtensionString(MsgPack.JODA_TYPE_BEAN, SerTypeMapper.encodeType(type, settings, null, null));
+            output.writeArrayHeader(layout.metaProperties.length);
+            for (MetaProperty<?> prop : layout.metaProperties) {
+                output.writeEncodedString(PROPERTY_NAMES.encoded(prop));
+            }
+        } else if (rootTypeFlag == RootType.ROOT_WITH_TYPE || type != declaredType) {
+            output.writeArrayHeader(layout.metaProperties.length + 1);
+            output.writePositiveExtensionInt(MsgPack.JODA_TYPE_BEAN, layout.position);
+        } else {
+            output.writeArrayHeader(layout.metaProperties.length);
+        }
+        for (MetaProperty<?> prop : layout.metaProperties) {
+            Object value = SerOptional.extractValue(prop, bean);
+            if (value == null) {
+                output.writeNil();
+                continue;
+            }
+            Class<?> propType = SerOptional.extractType(prop, type);
+            if (value instanceof Bean) {
+                if (settings.getConverter().isConvertible(value.getClass())) {
+                    writeSimple(propType, value);
+                } else {
+                    writeBean((Bean) value, propType, RootType.NOT_ROOT);
+                }
+            } else {
+                SerIterator itemIterator = settings.getIteratorFactory().create(value, prop, type);
+                if (itemIterator != null) {
+                    writeElements(itemIterator);
+                } else {
+                    writeSimple(propType, value);
+                }
+            }
+        }
+        if (referenceable) {
+            // numbered once complete, matching the order in which the reader builds beans
+            refs.put(bean, refs.size());
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    // the serialized properties of a bean type in the order they are written
+    private final class Layout {
+        // the position of the type in the message
+        private final int position;
+        // the properties
+        private final MetaProperty<?>[] metaProperties;
+
+        private Layout(int position, Bean bean) {
+            this.position = position;
+            List<MetaProperty<?>> props = new ArrayList<>();
+            for (MetaProperty<?> prop : bean.metaBean().metaPropertyIterable()) {
+                if (settings.isSerialized(prop)) {
+                    props.add(prop);
+                }
+            }
+            this.metaProperties = props.toArray(new MetaProperty<?>[props.size()]);
+        }
+    }
+
+}
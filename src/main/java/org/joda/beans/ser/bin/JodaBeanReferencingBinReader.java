@@ -15,7 +15,6 @@
  */
 package org.joda.beans.ser.bin;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -56,7 +55,7 @@ class JodaBeanReferencingBinReader extends AbstractBinReader {
 
     //-----------------------------------------------------------------------
     // creates an instance
-    JodaBeanReferencingBinReader(JodaBeanSer settings, DataInputStream input) {
+    JodaBeanReferencingBinReader(JodaBeanSer settings, MsgPackSource input) {
         super(settings, input);
     }
 
@@ -233,7 +232,9 @@ class JodaBeanReferencingBinReader extends AbstractBinReader {
                     int size = input.readUnsignedByte();
                     typeByteTemp = input.readByte();
                     if (typeByteTemp != JODA_TYPE_META) {
-                        throw new IllegalArgumentException("Invalid binary data: Expected meta information, but was: 0x" + toHex(typeByteTemp));
+                        // a map keyed by a value written as an extension
+                        input.reset();
+                        break;
                     }
                     if (mapSize != 1) {
                         throw new IllegalArgumentException("Invalid binary data: Expected map size 1, but was: " + mapSize);
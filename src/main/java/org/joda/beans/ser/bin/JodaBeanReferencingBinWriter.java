@@ -16,7 +16,6 @@
 package org.joda.beans.ser.bin;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.List;
 
 import org.joda.beans.Bean;
@@ -37,7 +36,7 @@ class JodaBeanReferencingBinWriter extends AbstractBinWriter {
     private BeanReferences references;
 
     // creates an instance
-    JodaBeanReferencingBinWriter(JodaBeanSer settings, OutputStream output) {
+    JodaBeanReferencingBinWriter(JodaBeanSer settings, MsgPackOutput output) {
         super(settings, output);
     }
 
@@ -69,7 +68,7 @@ class JodaBeanReferencingBinWriter extends AbstractBinWriter {
 
             output.writeArrayHeader(classInfo.metaProperties.length);
             for (MetaProperty<?> property : classInfo.metaProperties) {
-                output.writeString(property.name());
+                output.writeEncodedString(PROPERTY_NAMES.encoded(property));
             }
         }
     }
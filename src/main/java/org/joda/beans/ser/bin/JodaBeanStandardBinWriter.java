@@ -16,7 +16,6 @@
 package org.joda.beans.ser.bin;
 
 import java.io.IOException;
-import java.io.OutputStream;
 
 import org.joda.beans.Bean;
 import org.joda.beans.ser.JodaBeanSer;
@@ -31,7 +30,7 @@ class JodaBeanStandardBinWriter extends AbstractBinWriter {
     // a standalone MessagePack parser
 
     // creates an instance
-    JodaBeanStandardBinWriter(JodaBeanSer settings, OutputStream output) {
+    JodaBeanStandardBinWriter(JodaBeanSer settings, MsgPackOutput output) {
         super(settings, output);
     }
 
@@ -43,4 +42,16 @@ class JodaBeanStandardBinWriter extends AbstractBinWriter {
         writeRootBean(bean, rootType);
     }
 
+    //-----------------------------------------------------------------------
+    // writes the header of a stream of beans
+    void writeStreamHeader() throws IOException {
+        output.writeArrayHeader(1);
+        output.writeInt(3);  // version 3
+    }
+
+    // writes a bean within a stream of beans
+    void writeStreamBean(Bean bean) throws IOException {
+        writeRootBean(bean, true);
+    }
+
 }
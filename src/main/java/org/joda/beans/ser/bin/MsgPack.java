@@ -16,7 +16,14 @@
 package org.joda.beans.ser.bin;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
 
 /**
  * Constants used in MsgPack binary serialization.
@@ -207,6 +214,26 @@ abstract class MsgPack {
      * Extension type code for a reference to a previously serialized Joda-Bean.
      */
     static final int JODA_TYPE_REF = 36;
+    /**
+     * Extension type code for an array of a numeric primitive type.
+     */
+    static final int JODA_TYPE_ARRAY = 37;
+    /**
+     * Extension type code for a {@code LocalDate}, as the epoch-day.
+     */
+    static final int JODA_TYPE_LOCAL_DATE = 38;
+    /**
+     * Extension type code for an {@code Instant}, as the epoch-seconds and nano-of-second.
+     */
+    static final int JODA_TYPE_INSTANT = 39;
+    /**
+     * Extension type code for a {@code BigDecimal}, as the scale and the unscaled value.
+     */
+    static final int JODA_TYPE_DECIMAL = 40;
+    /**
+     * Extension type code for a {@code UUID}, as the most and least significant bits.
+     */
+    static final int JODA_TYPE_UUID = 41;
 
     //-----------------------------------------------------------------------
     /**
@@ -237,4 +264,64 @@ abstract class MsgPack {
                 typeByte == SINT_8 || typeByte == SINT_16 || typeByte == SINT_32 || typeByte == SINT_64;
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if the type has a native encoding as an extension.
+     * 
+     * @param type  the type to check
+     * @return true if the type is LocalDate, Instant, BigDecimal or UUID
+     */
+    static boolean isNativeValueType(Class<?> type) {
+        return type == LocalDate.class || type == Instant.class || type == BigDecimal.class || type == UUID.class;
+    }
+
+    /**
+     * Checks if the type is a numeric primitive array with a native encoding as an extension.
+     * 
+     * @param type  the type to check
+     * @return true if the type is an array of double, float, long, int or short
+     */
+    static boolean isNativePrimitiveArray(Class<?> type) {
+        return type == double[].class || type == float[].class ||
+                type == long[].class || type == int[].class || type == short[].class;
+    }
+
+    /**
+     * Decodes the data of a native value extension.
+     * 
+     * @param extensionType  the extension type
+     * @param data  the extension data, not null
+     * @return the value, null if the extension type is not a native value
+     * @throws IllegalArgumentException if the data is invalid
+     */
+    static Object decodeNativeValue(int extensionType, byte[] data) {
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        Object value;
+        try {
+            switch (extensionType) {
+                case JODA_TYPE_LOCAL_DATE:
+                    value = LocalDate.ofEpochDay(buf.getLong());
+                    break;
+                case JODA_TYPE_INSTANT:
+                    value = Instant.ofEpochSecond(buf.getLong(), buf.getInt());
+                    break;
+                case JODA_TYPE_DECIMAL:
+                    int scale = buf.getInt();
+                    return new BigDecimal(new BigInteger(Arrays.copyOfRange(data, 4, data.length)), scale);
+                case JODA_TYPE_UUID:
+                    value = new UUID(buf.getLong(), buf.getLong());
+                    break;
+                default:
+                    return null;
+            }
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid binary data: Invalid value for extension type " + extensionType, ex);
+        }
+        if (buf.hasRemaining()) {
+            throw new IllegalArgumentException(
+                    "Invalid binary data: Unexpected trailing bytes for extension type " + extensionType);
+        }
+        return value;
+    }
+
 }
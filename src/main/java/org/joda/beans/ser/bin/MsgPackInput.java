@@ -15,10 +15,9 @@
  */
 package org.joda.beans.ser.bin;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Receives and processes MsgPack data.
@@ -26,9 +25,9 @@ import java.io.InputStream;
 abstract class MsgPackInput extends MsgPack {
 
     /**
-     * The stream to read.
+     * The source to read.
      */
-    private final DataInputStream input;
+    private final MsgPackSource input;
 
     /**
      * Creates an instance.
@@ -36,7 +35,7 @@ abstract class MsgPackInput extends MsgPack {
      * @param bytes  the bytes to read, not null
      */
     MsgPackInput(byte[] bytes) {
-        this(new ByteArrayInputStream(bytes));
+        this(MsgPackSource.of(ByteBuffer.wrap(bytes)));
     }
 
     /**
@@ -45,16 +44,16 @@ abstract class MsgPackInput extends MsgPack {
      * @param stream  the stream to read from, not null
      */
     MsgPackInput(InputStream stream) {
-        this(new DataInputStream(stream));
+        this(MsgPackSource.of(stream));
     }
 
     /**
      * Creates an instance.
      * 
-     * @param stream  the stream to read from, not null
+     * @param source  the source to read from, not null
      */
-    MsgPackInput(DataInputStream stream) {
-        this.input = stream;
+    MsgPackInput(MsgPackSource source) {
+        this.input = source;
     }
 
     //-----------------------------------------------------------------------
@@ -340,17 +339,17 @@ abstract class MsgPackInput extends MsgPack {
 
     //-----------------------------------------------------------------------
     /**
-     * Skips over the next object in an input stream.
+     * Skips over the next object in an input source.
      * 
-     * @param input  the input stream, not null
+     * @param input  the input source, not null
      * @throws IOException if an error occurs
      */
-    public static void skipObject(DataInputStream input) throws IOException {
+    static void skipObject(MsgPackSource input) throws IOException {
         new Skipper(input).skip(input.readByte());
     }
 
     private static class Skipper extends MsgPackInput {
-        Skipper(DataInputStream input) {
+        Skipper(MsgPackSource input) {
             super(input);
         }
         void skip(int typeByte) throws IOException {
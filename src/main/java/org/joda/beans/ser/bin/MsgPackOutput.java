@@ -15,9 +15,14 @@
  */
 package org.joda.beans.ser.bin;
 
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
 
 /**
  * Outputter for MsgPack data.
@@ -25,9 +30,9 @@ import java.io.OutputStream;
 final class MsgPackOutput extends MsgPack {
 
     /**
-     * The stream to write to.
+     * The sink to write to.
      */
-    private final DataOutputStream output;
+    private final MsgPackSink output;
 
     /**
      * Creates an instance.
@@ -35,16 +40,25 @@ final class MsgPackOutput extends MsgPack {
      * @param stream  the stream to write to, not null
      */
     MsgPackOutput(OutputStream stream) {
-        this.output = new DataOutputStream(stream);
+        this(MsgPackSink.of(stream));
     }
 
     /**
      * Creates an instance.
      * 
-     * @param stream  the stream to write to, not null
+     * @param buffer  the big-endian buffer to write to, not null
+     */
+    MsgPackOutput(ByteBuffer buffer) {
+        this(MsgPackSink.of(buffer));
+    }
+
+    /**
+     * Creates an instance.
+     * 
+     * @param sink  the sink to write to, not null
      */
-    MsgPackOutput(DataOutputStream stream) {
-        this.output = stream;
+    MsgPackOutput(MsgPackSink sink) {
+        this.output = sink;
     }
 
     //-----------------------------------------------------------------------
@@ -194,6 +208,106 @@ final class MsgPackOutput extends MsgPack {
         output.write(bytes);
     }
 
+    /**
+     * Writes an array of a numeric primitive type as a single extension.
+     * <p>
+     * The extension data is the element type, as a JVM type descriptor character,
+     * followed by the big-endian values of the elements.
+     * 
+     * @param array  the array, one of double[], float[], long[], int[] or short[], not null
+     * @throws IOException if an error occurs
+     */
+    void writePrimitiveArray(Object array) throws IOException {
+        byte[] bytes;
+        if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            ByteBuffer buf = allocateArrayData('D', values.length, 8);
+            buf.asDoubleBuffer().put(values);
+            bytes = buf.array();
+        } else if (array instanceof float[]) {
+            float[] values = (float[]) array;
+            ByteBuffer buf = allocateArrayData('F', values.length, 4);
+            buf.asFloatBuffer().put(values);
+            bytes = buf.array();
+        } else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            ByteBuffer buf = allocateArrayData('J', values.length, 8);
+            buf.asLongBuffer().put(values);
+            bytes = buf.array();
+        } else if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            ByteBuffer buf = allocateArrayData('I', values.length, 4);
+            buf.asIntBuffer().put(values);
+            bytes = buf.array();
+        } else if (array instanceof short[]) {
+            short[] values = (short[]) array;
+            ByteBuffer buf = allocateArrayData('S', values.length, 2);
+            buf.asShortBuffer().put(values);
+            bytes = buf.array();
+        } else {
+            throw new IllegalArgumentException("Unsupported primitive array: " + array.getClass().getName());
+        }
+        writeExtensionHeader(JODA_TYPE_ARRAY, bytes.length);
+        output.write(bytes);
+    }
+
+    // allocates the extension data, positioned after the element type
+    private static ByteBuffer allocateArrayData(char elementType, int length, int elementSize) {
+        ByteBuffer buf = ByteBuffer.allocate(Math.addExact(Math.multiplyExact(length, elementSize), 1));
+        buf.put((byte) elementType);
+        return buf;
+    }
+
+    /**
+     * Writes a value of a type that has a native encoding as an extension.
+     * 
+     * @param value  the value, one of LocalDate, Instant, BigDecimal or UUID, not null
+     * @throws IOException if an error occurs
+     */
+    void writeNativeValue(Object value) throws IOException {
+        if (value instanceof LocalDate) {
+            writeExtensionHeader(JODA_TYPE_LOCAL_DATE, 8);
+            output.writeLong(((LocalDate) value).toEpochDay());
+        } else if (value instanceof Instant) {
+            Instant instant = (Instant) value;
+            writeExtensionHeader(JODA_TYPE_INSTANT, 12);
+            output.writeLong(instant.getEpochSecond());
+            output.writeInt(instant.getNano());
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            byte[] unscaled = decimal.unscaledValue().toByteArray();
+            writeExtensionHeader(JODA_TYPE_DECIMAL, unscaled.length + 4);
+            output.writeInt(decimal.scale());
+            output.write(unscaled);
+        } else if (value instanceof UUID) {
+            UUID uuid = (UUID) value;
+            writeExtensionHeader(JODA_TYPE_UUID, 16);
+            output.writeLong(uuid.getMostSignificantBits());
+            output.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            throw new IllegalArgumentException("Unsupported native value type: " + value.getClass().getName());
+        }
+    }
+
+    // writes the header of an extension, avoiding the FIX_EXT sizes used for integer references
+    private void writeExtensionHeader(int extensionType, int size) throws IOException {
+        if (size == 8) {
+            output.writeByte(FIX_EXT_8);
+        } else if (size == 16) {
+            output.writeByte(FIX_EXT_16);
+        } else if (size < 256) {
+            output.writeByte(EXT_8);
+            output.writeByte(size);
+        } else if (size < 65536) {
+            output.writeByte(EXT_16);
+            output.writeShort(size);
+        } else {
+            output.writeByte(EXT_32);
+            output.writeInt(size);
+        }
+        output.writeByte(extensionType);
+    }
+
     /**
      * Writes a MessagePack string.
      * 
@@ -202,7 +316,43 @@ final class MsgPackOutput extends MsgPack {
      */
     void writeString(String value) throws IOException {
         byte[] bytes = toUTF8(value);
-        int size = bytes.length;
+        writeStringHeader(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Encodes a MessagePack string, including the header.
+     * <p>
+     * This is used to pre-encode strings that are written many times.
+     * 
+     * @param value  the value
+     * @return the encoded string, not null
+     */
+    static byte[] encodeString(String value) {
+        byte[] bytes = value.getBytes(UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 5);
+        MsgPackOutput encoder = new MsgPackOutput(buffer);
+        try {
+            encoder.writeStringHeader(bytes.length);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        buffer.put(bytes);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Writes a MessagePack string that was encoded by {@link #encodeString(String)}.
+     * 
+     * @param encoded  the encoded string
+     * @throws IOException if an error occurs
+     */
+    void writeEncodedString(byte[] encoded) throws IOException {
+        output.write(encoded);
+    }
+
+    // writes the header of a string
+    private void writeStringHeader(int size) throws IOException {
         if (size < 32) {
             output.writeByte(MIN_FIX_STR + size);
         } else if (size < 256) {
@@ -215,7 +365,6 @@ final class MsgPackOutput extends MsgPack {
             output.writeByte(STR_32);
             output.writeInt(size);
         }
-        output.write(bytes);
     }
 
     private byte[] toUTF8(String value) {
@@ -277,9 +426,9 @@ final class MsgPackOutput extends MsgPack {
      * @throws IOException if an error occurs
      */
     void writeExtensionByte(int extensionType, int value) throws IOException {
-        output.write(FIX_EXT_1);
-        output.write(extensionType);
-        output.write(value);
+        output.writeByte(FIX_EXT_1);
+        output.writeByte(extensionType);
+        output.writeByte(value);
     }
 
     /**
@@ -294,9 +443,9 @@ final class MsgPackOutput extends MsgPack {
         if (bytes.length > 256) {
             throw new IllegalArgumentException("String too long");
         }
-        output.write(EXT_8);
-        output.write(bytes.length);
-        output.write(extensionType);
+        output.writeByte(EXT_8);
+        output.writeByte(bytes.length);
+        output.writeByte(extensionType);
         output.write(bytes);
     }
 
@@ -312,16 +461,16 @@ final class MsgPackOutput extends MsgPack {
             throw new IllegalArgumentException("Can only serialize positive references: " + reference);
         }
         if (reference < 0xFF) {
-            output.write(FIX_EXT_1);
-            output.write(extensionType);
+            output.writeByte(FIX_EXT_1);
+            output.writeByte(extensionType);
             output.writeByte((byte) reference);
         } else if (reference < 0xFFFF) {
             output.writeByte(FIX_EXT_2);
-            output.write(extensionType);
+            output.writeByte(extensionType);
             output.writeShort((short) reference);
         } else {
             output.writeByte(FIX_EXT_4);
-            output.write(extensionType);
+            output.writeByte(extensionType);
             output.writeInt(reference);
         }
     }
@@ -0,0 +1,213 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A sink of bytes for MsgPack output.
+ * <p>
+ * The binary writers push their data through this class, allowing the data
+ * to be sent to an {@code OutputStream} or a heap or direct {@code ByteBuffer}.
+ * All multi-byte values are big-endian, as required by MsgPack.
+ */
+abstract class MsgPackSink {
+
+    /**
+     * Creates a sink that writes to a stream.
+     *
+     * @param stream  the stream to write to, not null
+     * @return the sink, not null
+     */
+    static MsgPackSink of(OutputStream stream) {
+        if (stream instanceof DataOutputStream) {
+            return new StreamSink((DataOutputStream) stream);
+        }
+        return new StreamSink(new DataOutputStream(stream));
+    }
+
+    /**
+     * Creates a sink that writes to a buffer.
+     * <p>
+     * The sink writes from the position of the buffer.
+     * A {@code BufferOverflowException} is thrown if the buffer is too small.
+     *
+     * @param buffer  the buffer to write to, which must be big-endian, not null
+     * @return the sink, not null
+     */
+    static MsgPackSink of(ByteBuffer buffer) {
+        if (buffer.order() != ByteOrder.BIG_ENDIAN) {
+            throw new IllegalArgumentException("Buffer must be big-endian");
+        }
+        return new BufferSink(buffer);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Writes the low 8 bits of the value.
+     *
+     * @param value  the value
+     * @throws IOException if an error occurs
+     */
+    abstract void writeByte(int value) throws IOException;
+
+    /**
+     * Writes the low 16 bits of the value.
+     *
+     * @param value  the value
+     * @throws IOException if an error occurs
+     */
+    abstract void writeShort(int value) throws IOException;
+
+    /**
+     * Writes an int.
+     *
+     * @param value  the value
+     * @throws IOException if an error occurs
+     */
+    abstract void writeInt(int value) throws IOException;
+
+    /**
+     * Writes a long.
+     *
+     * @param value  the value
+     * @throws IOException if an error occurs
+     */
+    abstract void writeLong(long value) throws IOException;
+
+    /**
+     * Writes a float.
+     *
+     * @param value  the value
+     * @throws IOException if an error occurs
+     */
+    abstract void writeFloat(float value) throws IOException;
+
+    /**
+     * Writes a double.
+     *
+     * @param value  the value
+     * @throws IOException if an error occurs
+     */
+    abstract void writeDouble(double value) throws IOException;
+
+    /**
+     * Writes all the bytes in the array.
+     *
+     * @param bytes  the bytes, not null
+     * @throws IOException if an error occurs
+     */
+    abstract void write(byte[] bytes) throws IOException;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Sink based on a stream.
+     */
+    private static final class StreamSink extends MsgPackSink {
+        private final DataOutputStream output;
+
+        private StreamSink(DataOutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        void writeByte(int value) throws IOException {
+            output.writeByte(value);
+        }
+
+        @Override
+        void writeShort(int value) throws IOException {
+            output.writeShort(value);
+        }
+
+        @Override
+        void writeInt(int value) throws IOException {
+            output.writeInt(value);
+        }
+
+        @Override
+        void writeLong(long value) throws IOException {
+            output.writeLong(value);
+        }
+
+        @Override
+        void writeFloat(float value) throws IOException {
+            output.writeFloat(value);
+        }
+
+        @Override
+        void writeDouble(double value) throws IOException {
+            output.writeDouble(value);
+        }
+
+        @Override
+        void write(byte[] bytes) throws IOException {
+            output.write(bytes);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Sink based on a buffer, which may be heap or direct.
+     */
+    private static final class BufferSink extends MsgPackSink {
+        private final ByteBuffer buffer;
+
+        private BufferSink(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        void writeByte(int value) {
+            buffer.put((byte) value);
+        }
+
+        @Override
+        void writeShort(int value) {
+            buffer.putShort((short) value);
+        }
+
+        @Override
+        void writeInt(int value) {
+            buffer.putInt(value);
+        }
+
+        @Override
+        void writeLong(long value) {
+            buffer.putLong(value);
+        }
+
+        @Override
+        void writeFloat(float value) {
+            buffer.putFloat(value);
+        }
+
+        @Override
+        void writeDouble(double value) {
+            buffer.putDouble(value);
+        }
+
+        @Override
+        void write(byte[] bytes) {
+            buffer.put(bytes);
+        }
+    }
+
+}
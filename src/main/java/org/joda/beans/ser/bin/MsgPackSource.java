@@ -0,0 +1,653 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * A source of bytes for MsgPack parsing.
+ * <p>
+ * The binary readers pull their data through this class, allowing the data
+ * to be held in an {@code InputStream}, a heap or direct {@code ByteBuffer}
+ * or a memory-mapped file.
+ * All multi-byte values are big-endian, as required by MsgPack.
+ */
+abstract class MsgPackSource {
+
+    /**
+     * Creates a source that reads from a stream.
+     *
+     * @param stream  the stream to read from, not null
+     * @return the source, not null
+     */
+    static MsgPackSource of(InputStream stream) {
+        if (stream instanceof DataInputStream) {
+            return new StreamSource((DataInputStream) stream);
+        }
+        return new StreamSource(new DataInputStream(stream));
+    }
+
+    /**
+     * Creates a source that reads from a buffer.
+     * <p>
+     * The source reads from the position to the limit of the buffer.
+     * The buffer must not be used elsewhere while the source is in use.
+     *
+     * @param buffer  the buffer to read from, which must be big-endian, not null
+     * @return the source, not null
+     */
+    static MsgPackSource of(ByteBuffer buffer) {
+        if (buffer.order() != ByteOrder.BIG_ENDIAN) {
+            throw new IllegalArgumentException("Buffer must be big-endian");
+        }
+        return new BufferSource(buffer);
+    }
+
+    /**
+     * Creates a source that reads from a memory-mapped file.
+     * <p>
+     * The file is mapped in chunks of the specified size, from the current position
+     * of the channel to the end of the file. Each chunk is only mapped when it is reached,
+     * and the data is decoded directly from the mapping.
+     *
+     * @param channel  the channel to map, not null
+     * @param chunkSize  the size of each mapped chunk, at least 8
+     * @return the source, not null
+     * @throws IOException if an error occurs
+     */
+    static MappedSource of(FileChannel channel, int chunkSize) throws IOException {
+        return new MappedSource(channel, channel.position(), channel.size(), chunkSize);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Reads a single unsigned byte, returning -1 at the end of the data.
+     *
+     * @return the byte, from 0 to 255, or -1 at the end of the data
+     * @throws IOException if an error occurs
+     */
+    abstract int read() throws IOException;
+
+    /**
+     * Reads a signed byte.
+     *
+     * @return the byte
+     * @throws IOException if an error occurs
+     */
+    abstract byte readByte() throws IOException;
+
+    /**
+     * Reads an unsigned byte.
+     *
+     * @return the byte, from 0 to 255
+     * @throws IOException if an error occurs
+     */
+    abstract int readUnsignedByte() throws IOException;
+
+    /**
+     * Reads a signed short.
+     *
+     * @return the short
+     * @throws IOException if an error occurs
+     */
+    abstract short readShort() throws IOException;
+
+    /**
+     * Reads an unsigned short.
+     *
+     * @return the short, from 0 to 65535
+     * @throws IOException if an error occurs
+     */
+    abstract int readUnsignedShort() throws IOException;
+
+    /**
+     * Reads an int.
+     *
+     * @return the int
+     * @throws IOException if an error occurs
+     */
+    abstract int readInt() throws IOException;
+
+    /**
+     * Reads a long.
+     *
+     * @return the long
+     * @throws IOException if an error occurs
+     */
+    abstract long readLong() throws IOException;
+
+    /**
+     * Reads a float.
+     *
+     * @return the float
+     * @throws IOException if an error occurs
+     */
+    abstract float readFloat() throws IOException;
+
+    /**
+     * Reads a double.
+     *
+     * @return the double
+     * @throws IOException if an error occurs
+     */
+    abstract double readDouble() throws IOException;
+
+    /**
+     * Reads bytes to completely fill the array.
+     *
+     * @param bytes  the array to fill, not null
+     * @throws IOException if an error occurs
+     */
+    void readFully(byte[] bytes) throws IOException {
+        readFully(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reads bytes to completely fill part of the array.
+     *
+     * @param bytes  the array to fill, not null
+     * @param offset  the offset into the array
+     * @param length  the number of bytes to read
+     * @throws IOException if an error occurs
+     */
+    abstract void readFully(byte[] bytes, int offset, int length) throws IOException;
+
+    /**
+     * Reads a UTF-8 string of the specified number of bytes.
+     *
+     * @param size  the number of bytes
+     * @return the string, not null
+     * @throws IOException if an error occurs
+     */
+    String readUtf8(int size) throws IOException {
+        byte[] bytes = new byte[size];
+        readFully(bytes);
+        // inline common ASCII case for much better performance
+        char[] chars = new char[size];
+        for (int i = 0; i < size; i++) {
+            byte b = bytes[i];
+            if (b >= 0) {
+                chars[i] = (char) b;
+            } else {
+                return new String(bytes, MsgPack.UTF_8);
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Skips the specified number of bytes.
+     *
+     * @param size  the number of bytes to skip
+     * @throws IOException if an error occurs
+     */
+    abstract void skip(int size) throws IOException;
+
+    /**
+     * Marks the current position.
+     *
+     * @param readLimit  the maximum number of bytes that will be read before reset
+     */
+    abstract void mark(int readLimit);
+
+    /**
+     * Resets to the marked position.
+     *
+     * @throws IOException if an error occurs
+     */
+    abstract void reset() throws IOException;
+
+    /**
+     * Closes the source.
+     *
+     * @throws IOException if an error occurs
+     */
+    abstract void close() throws IOException;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Source based on a stream.
+     */
+    private static final class StreamSource extends MsgPackSource {
+        private final DataInputStream input;
+
+        private StreamSource(DataInputStream input) {
+            this.input = input;
+        }
+
+        @Override
+        int read() throws IOException {
+            return input.read();
+        }
+
+        @Override
+        byte readByte() throws IOException {
+            return input.readByte();
+        }
+
+        @Override
+        int readUnsignedByte() throws IOException {
+            return input.readUnsignedByte();
+        }
+
+        @Override
+        short readShort() throws IOException {
+            return input.readShort();
+        }
+
+        @Override
+        int readUnsignedShort() throws IOException {
+            return input.readUnsignedShort();
+        }
+
+        @Override
+        int readInt() throws IOException {
+            return input.readInt();
+        }
+
+        @Override
+        long readLong() throws IOException {
+            return input.readLong();
+        }
+
+        @Override
+        float readFloat() throws IOException {
+            return input.readFloat();
+        }
+
+        @Override
+        double readDouble() throws IOException {
+            return input.readDouble();
+        }
+
+        @Override
+        void readFully(byte[] bytes, int offset, int length) throws IOException {
+            input.readFully(bytes, offset, length);
+        }
+
+        @Override
+        void skip(int size) throws IOException {
+            int remaining = size;
+            while (remaining > 0) {
+                int skipped = input.skipBytes(remaining);
+                if (skipped <= 0) {
+                    // skipBytes can return zero without reaching the end, so check explicitly
+                    input.readByte();
+                    skipped = 1;
+                }
+                remaining -= skipped;
+            }
+        }
+
+        @Override
+        void mark(int readLimit) {
+            input.mark(readLimit);
+        }
+
+        @Override
+        void reset() throws IOException {
+            input.reset();
+        }
+
+        @Override
+        void close() throws IOException {
+            input.close();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Source based on a buffer, which may be heap or direct.
+     */
+    private static final class BufferSource extends MsgPackSource {
+        private final ByteBuffer buffer;
+
+        private BufferSource(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        int read() {
+            if (buffer.hasRemaining()) {
+                return buffer.get() & 0xFF;
+            }
+            return -1;
+        }
+
+        @Override
+        byte readByte() throws IOException {
+            try {
+                return buffer.get();
+            } catch (BufferUnderflowException ex) {
+                throw eof(ex);
+            }
+        }
+
+        @Override
+        int readUnsignedByte() throws IOException {
+            try {
+                return buffer.get() & 0xFF;
+            } catch (BufferUnderflowException ex) {
+                throw eof(ex);
+            }
+        }
+
+        @Override
+        short readShort() throws IOException {
+            try {
+                return buffer.getShort();
+            } catch (BufferUnderflowException ex) {
+                throw eof(ex);
+            }
+        }
+
+        @Override
+        int readUnsignedShort() throws IOException {
+            try {
+                return buffer.getShort() & 0xFFFF;
+            } catch (BufferUnderflowException ex) {
+                throw eof(ex);
+            }
+        }
+
+        @Override
+        int readInt() throws IOException {
+            try {
+                return buffer.getInt();
+            } catch (BufferUnderflowException ex) {
+                throw eof(ex);
+            }
+        }
+
+        @Override
+        long readLong() throws IOException {
+            try {
+                return buffer.getLong();
+            } catch (BufferUnderflowException ex) {
+                throw eof(ex);
+            }
+        }
+
+        @Override
+        float readFloat() throws IOException {
+            try {
+                return buffer.getFloat();
+            } catch (BufferUnderflowException ex) {
+                throw eof(ex);
+            }
+        }
+
+        @Override
+        double readDouble() throws IOException {
+            try {
+                return buffer.getDouble();
+            } catch (BufferUnderflowException ex) {
+                throw eof(ex);
+            }
+        }
+
+        @Override
+        void readFully(byte[] bytes, int offset, int length) throws IOException {
+            try {
+                buffer.get(bytes, offset, length);
+            } catch (BufferUnderflowException ex) {
+                throw eof(ex);
+            }
+        }
+
+        @Override
+        String readUtf8(int size) throws IOException {
+            if (size > buffer.remaining()) {
+                throw eof(null);
+            }
+            if (buffer.hasArray()) {
+                // decode directly from the backing array, avoiding a copy
+                byte[] array = buffer.array();
+                int start = buffer.arrayOffset() + buffer.position();
+                buffer.position(buffer.position() + size);
+                char[] chars = new char[size];
+                for (int i = 0; i < size; i++) {
+                    byte b = array[start + i];
+                    if (b >= 0) {
+                        chars[i] = (char) b;
+                    } else {
+                        return new String(array, start, size, MsgPack.UTF_8);
+                    }
+                }
+                return new String(chars);
+            }
+            return super.readUtf8(size);
+        }
+
+        @Override
+        void skip(int size) throws IOException {
+            if (size > buffer.remaining()) {
+                throw eof(null);
+            }
+            buffer.position(buffer.position() + size);
+        }
+
+        @Override
+        void mark(int readLimit) {
+            buffer.mark();
+        }
+
+        @Override
+        void reset() {
+            buffer.reset();
+        }
+
+        @Override
+        void close() {
+            // nothing to close
+        }
+
+        private static EOFException eof(BufferUnderflowException cause) {
+            EOFException ex = new EOFException("Unexpected end of binary data");
+            if (cause != null) {
+                ex.initCause(cause);
+            }
+            return ex;
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Source based on a file that is memory-mapped in chunks.
+     * <p>
+     * A single {@code MappedByteBuffer} is limited to 2GB, thus larger files are
+     * mapped as a sequence of chunks, with values spanning two chunks read byte by byte.
+     */
+    static final class MappedSource extends MsgPackSource {
+        private final FileChannel channel;
+        private final long start;
+        private final int chunkSize;
+        private final ByteBuffer[] chunks;
+        private final long lastChunkSize;
+        private int chunkIndex;
+        private ByteBuffer current;
+        private int markChunkIndex;
+        private int markPosition;
+
+        private MappedSource(FileChannel channel, long start, long end, int chunkSize) throws IOException {
+            if (chunkSize < 8) {
+                throw new IllegalArgumentException("Chunk size must be at least 8");
+            }
+            long length = Math.max(end - start, 0);
+            long chunkCount = (length + chunkSize - 1) / chunkSize;
+            if (chunkCount > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("File too large");
+            }
+            this.channel = channel;
+            this.start = start;
+            this.chunkSize = chunkSize;
+            this.chunks = new ByteBuffer[(int) chunkCount];
+            this.lastChunkSize = length - (chunkCount - 1) * chunkSize;
+            this.current = (chunkCount > 0 ? chunk(0) : ByteBuffer.allocate(0));
+            this.markChunkIndex = -1;
+        }
+
+        // gets the chunk, mapping it if necessary
+        private ByteBuffer chunk(int index) throws IOException {
+            ByteBuffer chunk = chunks[index];
+            if (chunk == null) {
+                long size = (index == chunks.length - 1 ? lastChunkSize : chunkSize);
+                chunk = channel.map(MapMode.READ_ONLY, start + (long) index * chunkSize, size);
+                chunks[index] = chunk;
+            }
+            return chunk;
+        }
+
+        // moves to the next chunk, returning false if there is none
+        private boolean nextChunk() throws IOException {
+            if (chunkIndex + 1 >= chunks.length) {
+                return false;
+            }
+            chunkIndex++;
+            current = chunk(chunkIndex);
+            current.position(0);
+            return true;
+        }
+
+        /**
+         * Gets the position in the file of the next byte to be read.
+         *
+         * @return the position in the file
+         */
+        long filePosition() {
+            return start + (long) chunkIndex * chunkSize + current.position();
+        }
+
+        @Override
+        int read() throws IOException {
+            if (current.hasRemaining() || nextChunk()) {
+                return current.get() & 0xFF;
+            }
+            return -1;
+        }
+
+        @Override
+        byte readByte() throws IOException {
+            if (current.hasRemaining() || nextChunk()) {
+                return current.get();
+            }
+            throw new EOFException("Unexpected end of binary data");
+        }
+
+        @Override
+        int readUnsignedByte() throws IOException {
+            return readByte() & 0xFF;
+        }
+
+        @Override
+        short readShort() throws IOException {
+            if (current.remaining() >= 2) {
+                return current.getShort();
+            }
+            return (short) ((readUnsignedByte() << 8) | readUnsignedByte());
+        }
+
+        @Override
+        int readUnsignedShort() throws IOException {
+            return readShort() & 0xFFFF;
+        }
+
+        @Override
+        int readInt() throws IOException {
+            if (current.remaining() >= 4) {
+                return current.getInt();
+            }
+            return (readUnsignedShort() << 16) | readUnsignedShort();
+        }
+
+        @Override
+        long readLong() throws IOException {
+            if (current.remaining() >= 8) {
+                return current.getLong();
+            }
+            return (((long) readInt()) << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        @Override
+        float readFloat() throws IOException {
+            return Float.intBitsToFloat(readInt());
+        }
+
+        @Override
+        double readDouble() throws IOException {
+            return Double.longBitsToDouble(readLong());
+        }
+
+        @Override
+        void readFully(byte[] bytes, int offset, int length) throws IOException {
+            int pos = offset;
+            int end = offset + length;
+            while (pos < end) {
+                if (!current.hasRemaining() && !nextChunk()) {
+                    throw new EOFException("Unexpected end of binary data");
+                }
+                int len = Math.min(end - pos, current.remaining());
+                current.get(bytes, pos, len);
+                pos += len;
+            }
+        }
+
+        @Override
+        void skip(int size) throws IOException {
+            int remaining = size;
+            while (remaining > 0) {
+                if (!current.hasRemaining() && !nextChunk()) {
+                    throw new EOFException("Unexpected end of binary data");
+                }
+                int len = Math.min(remaining, current.remaining());
+                current.position(current.position() + len);
+                remaining -= len;
+            }
+        }
+
+        @Override
+        void mark(int readLimit) {
+            markChunkIndex = chunkIndex;
+            markPosition = current.position();
+        }
+
+        @Override
+        void reset() throws IOException {
+            if (markChunkIndex < 0) {
+                throw new IOException("Mark not set");
+            }
+            chunkIndex = markChunkIndex;
+            if (chunks.length > 0) {
+                current = chunk(chunkIndex);
+            }
+            current.position(markPosition);
+        }
+
+        @Override
+        void close() {
+            // the channel is managed by the caller, and the mappings are released by garbage collection
+        }
+    }
+
+}
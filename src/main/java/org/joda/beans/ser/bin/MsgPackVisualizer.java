@@ -15,7 +15,6 @@
  */
 package org.joda.beans.ser.bin;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -54,10 +53,10 @@ final class MsgPackVisualizer extends MsgPackInput {
     /**
      * Creates an instance.
      * 
-     * @param stream  the stream to read from, not null
+     * @param source  the source to read from, not null
      */
-    MsgPackVisualizer(DataInputStream stream) {
-        super(stream);
+    MsgPackVisualizer(MsgPackSource source) {
+        super(source);
     }
 
     //-----------------------------------------------------------------------
@@ -164,7 +163,10 @@ final class MsgPackVisualizer extends MsgPackInput {
     @Override
     void handleExtension(int type, boolean numeric, byte[] bytes) throws IOException {
         String str;
-        if (numeric) {
+        Object nativeValue = decodeNativeValue(type, bytes);
+        if (nativeValue != null) {
+            str = nativeValue.toString();
+        } else if (numeric) {
             int value = 0;
             for (byte b : bytes) {
                 value = (value << 8) | (0xFF & b);
@@ -175,6 +177,8 @@ final class MsgPackVisualizer extends MsgPackInput {
                 value = Short.toUnsignedInt((short) value);
             }
             str = Integer.toString(value);
+        } else if (type == JODA_TYPE_ARRAY && bytes.length > 0) {
+            str = (char) bytes[0] + ", " + (bytes.length - 1) + " bytes";
         } else {
             str = new String(bytes, UTF_8);            
         }
@@ -199,6 +203,15 @@ final class MsgPackVisualizer extends MsgPackInput {
             case JODA_TYPE_REF:
                 buf.append(" (ref)");
                 break;
+            case JODA_TYPE_ARRAY:
+                buf.append(" (array)");
+                break;
+            case JODA_TYPE_LOCAL_DATE:
+            case JODA_TYPE_INSTANT:
+            case JODA_TYPE_DECIMAL:
+            case JODA_TYPE_UUID:
+                buf.append(" (value)");
+                break;
             default:
                 break;
         }
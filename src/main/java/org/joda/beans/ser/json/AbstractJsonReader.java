@@ -33,6 +33,7 @@ import org.joda.beans.ser.SerCategory;
 import org.joda.beans.ser.SerDeserializer;
 import org.joda.beans.ser.SerIterable;
 import org.joda.beans.ser.SerOptional;
+import org.joda.beans.ser.SerPropertyCache;
 import org.joda.beans.ser.SerTypeMapper;
 
 /**
@@ -87,6 +88,24 @@ abstract class AbstractJsonReader {
         return declaredType.cast(parsed);
     }
 
+    /**
+     * Parses a root bean within a stream of beans, each of which is independent.
+     * 
+     * @param input  the JSON input
+     * @param event  the event that starts the bean
+     * @param declaredType  the declared type, not null
+     * @return the bean, not null
+     * @throws Exception if an error occurs
+     */
+    <T> T parseStreamBean(JsonInput input, JsonEvent event, Class<T> declaredType) throws Exception {
+        this.input = input;
+        // type names are shortened relative to each bean, but the property name caches are retained
+        this.basePackage = null;
+        this.knownTypes.clear();
+        Object parsed = parseObject(input.ensureEvent(event, JsonEvent.OBJECT), declaredType, null, null, null, true);
+        return declaredType.cast(parsed);
+    }
+
     // parse a bean, event after object start passed in
     private Object parseBean(JsonEvent event, Class<?> beanType) throws Exception {
         String propName = "";
@@ -94,10 +113,17 @@ abstract class AbstractJsonReader {
             SerDeserializer deser = settings.getDeserializers().findDeserializer(beanType);
             MetaBean metaBean = deser.findMetaBean(beanType);
             BeanBuilder<?> builder = deser.createBuilder(beanType, metaBean);
+            SerPropertyCache cache = SerPropertyCache.of(deser, beanType, metaBean);
             while (event != JsonEvent.OBJECT_END) {
-                // property name
-                propName = input.acceptObjectKey(event);
-                MetaProperty<?> metaProp = deser.findMetaProperty(beanType, metaBean, propName);
+                // property name, looked up from the parsed characters to avoid creating a string
+                CharSequence key = input.acceptObjectKeyChars(event);
+                SerPropertyCache.Entry entry = cache.find(key);
+                if (entry == null) {
+                    propName = key.toString();
+                    entry = cache.add(propName);
+                }
+                propName = entry.name();
+                MetaProperty<?> metaProp = entry.metaProperty();
                 // ignore unknown properties
                 if (metaProp == null || metaProp.style().isDerived()) {
                     input.skipData();
@@ -15,6 +15,7 @@
  */
 package org.joda.beans.ser.json;
 
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 
@@ -65,6 +66,49 @@ public class JodaBeanJsonReader extends AbstractJsonReader {
         return read(new StringReader(input), rootType);
     }
 
+    /**
+     * Reads and parses UTF-8 bytes to a bean.
+     * <p>
+     * The bytes are decoded directly, without an intermediate string.
+     * 
+     * @param input  the input UTF-8 bytes, not null
+     * @return the bean, not null
+     */
+    public Bean read(byte[] input) {
+        return read(input, Bean.class);
+    }
+
+    /**
+     * Reads and parses UTF-8 bytes to a bean.
+     * <p>
+     * The bytes are decoded directly, without an intermediate string.
+     * 
+     * @param <T>  the root type
+     * @param input  the input UTF-8 bytes, not null
+     * @param rootType  the root type, not null
+     * @return the bean, not null
+     */
+    public <T> T read(byte[] input, Class<T> rootType) {
+        JodaBeanUtils.notNull(input, "input");
+        return read(new JsonUtf8Reader(input, 0, input.length), rootType);
+    }
+
+    /**
+     * Reads and parses a UTF-8 input stream to a bean.
+     * <p>
+     * The bytes are decoded directly, without an intermediate string.
+     * The stream is not closed. Compressed data must be read using the smart reader.
+     * 
+     * @param <T>  the root type
+     * @param input  the input stream of UTF-8 bytes, not null
+     * @param rootType  the root type, not null
+     * @return the bean, not null
+     */
+    public <T> T read(InputStream input, Class<T> rootType) {
+        JodaBeanUtils.notNull(input, "input");
+        return read(new JsonUtf8Reader(input), rootType);
+    }
+
     /**
      * Reads and parses to a bean.
      * 
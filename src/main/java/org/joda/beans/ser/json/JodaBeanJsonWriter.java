@@ -16,6 +16,7 @@
 package org.joda.beans.ser.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,10 +24,12 @@ import org.joda.beans.Bean;
 import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.ser.JodaBeanSer;
+import org.joda.beans.ser.SerCompression;
 import org.joda.beans.ser.SerCategory;
 import org.joda.beans.ser.SerIterator;
 import org.joda.beans.ser.SerOptional;
 import org.joda.beans.ser.SerTypeMapper;
+import org.joda.beans.ser.json.JsonOutput.EncodedName;
 import org.joda.convert.StringConverter;
 
 /**
@@ -130,6 +133,9 @@ public class JodaBeanJsonWriter {
      * @return the JSON, not null
      */
     public String write(Bean bean, boolean rootType) {
+        if (settings.isPooledBuffers()) {
+            return writePooled(bean, rootType);
+        }
         StringBuilder buf = new StringBuilder(1024);
         try {
             write(bean, rootType, buf);
@@ -139,6 +145,21 @@ public class JodaBeanJsonWriter {
         return buf.toString();
     }
 
+    // writes the bean using a pooled buffer
+    private String writePooled(Bean bean, boolean rootType) {
+        JodaBeanUtils.notNull(bean, "bean");
+        Class<?> type = bean.getClass();
+        StringBuilder buf = JsonBufferPool.acquire(type);
+        try {
+            write(bean, rootType, buf);
+            return JsonBufferPool.toString(type, buf);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            JsonBufferPool.release(buf);
+        }
+    }
+
     /**
      * Writes the bean to the {@code Appendable}.
      * <p>
@@ -163,11 +184,63 @@ public class JodaBeanJsonWriter {
     public void write(Bean bean, boolean rootType, Appendable output) throws IOException {
         JodaBeanUtils.notNull(bean, "bean");
         JodaBeanUtils.notNull(output, "output");
+        writeRoot(bean, rootType, output);
+    }
+
+    // writes the root bean to the appendable
+    private void writeRoot(Bean bean, boolean rootType, Appendable output) throws IOException {
         this.output = new JsonOutput(output, settings.getIndent(), settings.getNewLine());
         writeBean(bean, bean.getClass(), rootType ? RootType.ROOT_WITH_TYPE : RootType.ROOT_WITHOUT_TYPE);
         output.append(settings.getNewLine());
     }
 
+    /**
+     * Writes the bean to the {@code OutputStream} in UTF-8.
+     * <p>
+     * The type of the bean will be set in the message.
+     * If compression is enabled in the settings, the data is compressed.
+     * 
+     * @param bean  the bean to output, not null
+     * @param output  the output stream, not null
+     * @throws IOException if an error occurs
+     */
+    public void writeTo(Bean bean, OutputStream output) throws IOException {
+        writeTo(bean, true, output);
+    }
+
+    /**
+     * Writes the bean to the {@code OutputStream} in UTF-8 specifying whether to include the type at the root.
+     * <p>
+     * The UTF-8 bytes are encoded directly, without an intermediate string.
+     * If compression is enabled in the settings, the data is compressed.
+     * 
+     * @param bean  the bean to output, not null
+     * @param rootType  true to output the root type
+     * @param output  the output stream, not null
+     * @throws IOException if an error occurs
+     */
+    public void writeTo(Bean bean, boolean rootType, OutputStream output) throws IOException {
+        JodaBeanUtils.notNull(bean, "bean");
+        JodaBeanUtils.notNull(output, "output");
+        OutputStream compressed = settings.getCompression().compress(output);
+        try {
+            JsonUtf8Appendable utf8 = new JsonUtf8Appendable(compressed);
+            writeRoot(bean, rootType, utf8);
+            utf8.flush();
+            SerCompression.finish(compressed);
+        } finally {
+            SerCompression.end(compressed);
+        }
+    }
+
+    // writes a bean within a stream of beans, on a single line and independent of the other beans
+    void writeStreamBean(Bean bean, Appendable output) throws IOException {
+        this.output = new JsonOutput(output);
+        this.basePackage = null;
+        this.knownTypes.clear();
+        writeBean(bean, bean.getClass(), RootType.ROOT_WITH_TYPE);
+    }
+
     //-----------------------------------------------------------------------
     // write a bean as a JSON object
     private void writeBean(Bean bean, Class<?> declaredType, RootType rootTypeFlag) throws IOException {
@@ -181,11 +254,14 @@ public class JodaBeanJsonWriter {
             output.writeObjectKeyValue(BEAN, typeStr);
         }
         // property information
+        EncodedName[] names = JsonOutput.PROPERTY_NAMES.encoded(bean.metaBean());
+        int index = 0;
         for (MetaProperty<?> prop : bean.metaBean().metaPropertyIterable()) {
+            EncodedName name = names[index++];
             if (prop.style().isSerializable() || (prop.style().isDerived() && settings.isIncludeDerived())) {
                 Object value = SerOptional.extractValue(prop, bean);
                 if (value != null) {
-                    output.writeObjectKey(prop.name());
+                    output.writeObjectKey(name);
                     Class<?> propType = SerOptional.extractType(prop, bean.getClass());
                     if (value instanceof Bean) {
                         if (settings.getConverter().isConvertible(value.getClass())) {
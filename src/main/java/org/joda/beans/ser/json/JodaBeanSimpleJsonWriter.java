@@ -24,6 +24,7 @@ import org.joda.beans.ser.JodaBeanSer;
 import org.joda.beans.ser.SerCategory;
 import org.joda.beans.ser.SerIterator;
 import org.joda.beans.ser.SerOptional;
+import org.joda.beans.ser.json.JsonOutput.EncodedName;
 import org.joda.convert.StringConverter;
 
 /**
@@ -107,11 +108,14 @@ public class JodaBeanSimpleJsonWriter {
     private void writeBean(Bean bean, Class<?> declaredType) throws IOException {
         output.writeObjectStart();
         // property information
+        EncodedName[] names = JsonOutput.PROPERTY_NAMES.encoded(bean.metaBean());
+        int index = 0;
         for (MetaProperty<?> prop : bean.metaBean().metaPropertyIterable()) {
+            EncodedName name = names[index++];
             if (prop.style().isSerializable() || (prop.style().isDerived() && settings.isIncludeDerived())) {
                 Object value = SerOptional.extractValue(prop, bean);
                 if (value != null) {
-                    output.writeObjectKey(prop.name());
+                    output.writeObjectKey(name);
                     Class<?> propType = SerOptional.extractType(prop, bean.getClass());
                     if (value instanceof Bean) {
                         if (settings.getConverter().isConvertible(value.getClass())) {
@@ -0,0 +1,485 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.json;
+
+import java.io.CharArrayReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.ser.JodaBeanSer;
+
+/**
+ * Provides the ability to read a stream of Joda-Beans from JSON using multiple threads.
+ * <p>
+ * This class contains mutable state and cannot be used from multiple threads.
+ * The beans are parsed on the threads of the executor, but the stream must be consumed by one thread.
+ * <p>
+ * The input is in one of the layouts accepted by {@link JsonBeanStreamReader},
+ * a top-level JSON array or a sequence of JSON objects such as newline-delimited JSON.
+ * The consuming thread scans the input, splitting it into chunks at the boundaries
+ * between beans. Each chunk is parsed by a task on the executor, with each thread
+ * using its own parser. The number of chunks in progress is bounded, thus memory usage
+ * does not depend on the number of beans in the stream.
+ * <p>
+ * The beans can be obtained in input order, or in the order they are parsed which is faster
+ * as a slow chunk does not hold up the others.
+ *
+ * @param <T>  the type of the beans in the stream
+ */
+public final class JsonBeanParallelReader<T> implements Closeable {
+
+    /**
+     * The number of characters after which a chunk is complete.
+     */
+    private static final int CHUNK_SIZE = 65536;
+
+    /**
+     * The input.
+     */
+    private final Reader input;
+    /**
+     * The type of each bean.
+     */
+    private final Class<T> rootType;
+    /**
+     * The executor to parse on.
+     */
+    private final Executor executor;
+    /**
+     * The maximum number of chunks in progress.
+     */
+    private final int maxPending;
+    /**
+     * The parser for each thread.
+     */
+    private final ThreadLocal<AbstractJsonReader> parsers;
+    /**
+     * The buffer of input characters.
+     */
+    private final char[] buf = new char[8192];
+    /**
+     * The index of the next character in the buffer.
+     */
+    private int pos;
+    /**
+     * The index after the last valid character in the buffer.
+     */
+    private int limit;
+    /**
+     * Whether the start of the input has been read.
+     */
+    private boolean started;
+    /**
+     * Whether the input is a JSON array.
+     */
+    private boolean array;
+    /**
+     * Whether the end of the beans has been reached.
+     */
+    private boolean finished;
+    /**
+     * Whether a stream has been returned.
+     */
+    private boolean streamed;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Creates an instance reading the standard JSON format of {@link JodaBeanJsonReader}.
+     * <p>
+     * The input must be UTF-8 bytes. The stream is closed when this reader is closed.
+     *
+     * @param <T>  the type of the beans in the stream
+     * @param settings  the settings, not null
+     * @param input  the input stream of UTF-8 bytes, not null
+     * @param rootType  the type of each bean, not null
+     * @param executor  the executor to parse on, such as a {@code ForkJoinPool}, not null
+     * @return the reader, not null
+     */
+    public static <T> JsonBeanParallelReader<T> of(JodaBeanSer settings, InputStream input, Class<T> rootType, Executor executor) {
+        return new JsonBeanParallelReader<>(settings, input, rootType, executor, JodaBeanJsonReader::new);
+    }
+
+    /**
+     * Creates an instance reading the simple JSON format of {@link JodaBeanSimpleJsonReader}.
+     * <p>
+     * The input must be UTF-8 bytes. The stream is closed when this reader is closed.
+     *
+     * @param <T>  the type of the beans in the stream
+     * @param settings  the settings, not null
+     * @param input  the input stream of UTF-8 bytes, not null
+     * @param rootType  the type of each bean, not null
+     * @param executor  the executor to parse on, such as a {@code ForkJoinPool}, not null
+     * @return the reader, not null
+     */
+    public static <T> JsonBeanParallelReader<T> ofSimple(JodaBeanSer settings, InputStream input, Class<T> rootType, Executor executor) {
+        return new JsonBeanParallelReader<>(settings, input, rootType, executor, JodaBeanSimpleJsonReader::new);
+    }
+
+    // creates an instance
+    private JsonBeanParallelReader(
+            JodaBeanSer settings,
+            InputStream input,
+            Class<T> rootType,
+            Executor executor,
+            Function<JodaBeanSer, AbstractJsonReader> parserFactory) {
+
+        JodaBeanUtils.notNull(settings, "settings");
+        JodaBeanUtils.notNull(input, "input");
+        JodaBeanUtils.notNull(rootType, "rootType");
+        JodaBeanUtils.notNull(executor, "executor");
+        this.input = new JsonUtf8Reader(input);
+        this.rootType = rootType;
+        this.executor = executor;
+        int parallelism = executor instanceof ForkJoinPool ?
+                ((ForkJoinPool) executor).getParallelism() :
+                Runtime.getRuntime().availableProcessors();
+        this.maxPending = parallelism * 2;
+        this.parsers = ThreadLocal.withInitial(() -> parserFactory.apply(settings));
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Returns a sequential stream of the beans in the order of the input.
+     * <p>
+     * Closing the returned stream closes this reader.
+     * Parse errors are thrown when the affected bean is reached.
+     *
+     * @return the stream of beans, not null
+     * @throws IllegalStateException if a stream has already been returned
+     */
+    public Stream<T> stream() {
+        return stream(true);
+    }
+
+    /**
+     * Returns a sequential stream of the beans in the order they are parsed.
+     * <p>
+     * Beans from the same chunk remain in input order, but chunks are returned as soon as they are parsed.
+     * Closing the returned stream closes this reader.
+     *
+     * @return the stream of beans, not null
+     * @throws IllegalStateException if a stream has already been returned
+     */
+    public Stream<T> unorderedStream() {
+        return stream(false);
+    }
+
+    // returns the stream
+    private Stream<T> stream(boolean ordered) {
+        if (streamed) {
+            throw new IllegalStateException("Stream has already been returned");
+        }
+        streamed = true;
+        Iterator<List<T>> chunks = ordered ? new OrderedChunks() : new UnorderedChunks();
+        int characteristics = ordered ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, characteristics), false)
+                .flatMap(List::stream)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+    }
+
+    /**
+     * Closes the underlying input.
+     * <p>
+     * Chunks that are already being parsed are not interrupted.
+     *
+     * @throws IOException if an error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    //-----------------------------------------------------------------------
+    // submits the next chunk for parsing, returning null at the end of the input
+    private CompletableFuture<List<T>> submitChunk() {
+        char[] chunk = readChunk();
+        if (chunk == null) {
+            return null;
+        }
+        return CompletableFuture.supplyAsync(() -> parseChunk(chunk), executor);
+    }
+
+    // parses a chunk of beans separated by whitespace, on the executor
+    private List<T> parseChunk(char[] chunk) {
+        AbstractJsonReader parser = parsers.get();
+        JsonInput chunkInput = new JsonInput(new CharArrayReader(chunk));
+        List<T> beans = new ArrayList<>();
+        try {
+            JsonEvent event = chunkInput.readEventOrEnd();
+            while (event != null) {
+                beans.add(parser.parseStreamBean(chunkInput, event, rootType));
+                event = chunkInput.readEventOrEnd();
+            }
+            return beans;
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    // waits for a chunk to be parsed
+    private static <T> List<T> join(CompletableFuture<List<T>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    // reads the characters of the next chunk of beans, null at the end of the input
+    private char[] readChunk() {
+        if (finished) {
+            return null;
+        }
+        try {
+            char[] chunk = new char[CHUNK_SIZE + 256];
+            int length = 0;
+            while (length < CHUNK_SIZE) {
+                int first = nextRecordStart();
+                if (first < 0) {
+                    finished = true;
+                    break;
+                }
+                // copy one bean, tracking nesting outside strings
+                int depth = 0;
+                boolean inString = false;
+                char ch = (char) first;
+                while (true) {
+                    if (length == chunk.length) {
+                        chunk = Arrays.copyOf(chunk, chunk.length * 2);
+                    }
+                    chunk[length++] = ch;
+                    if (inString) {
+                        if (ch == '\\') {
+                            if (length == chunk.length) {
+                                chunk = Arrays.copyOf(chunk, chunk.length * 2);
+                            }
+                            chunk[length++] = readChar();
+                        } else if (ch == '"') {
+                            inString = false;
+                        }
+                    } else if (ch == '"') {
+                        inString = true;
+                    } else if (ch == '{' || ch == '[') {
+                        depth++;
+                    } else if (ch == '}' || ch == ']') {
+                        depth--;
+                        if (depth == 0) {
+                            break;
+                        }
+                    }
+                    ch = readChar();
+                }
+                if (length == chunk.length) {
+                    chunk = Arrays.copyOf(chunk, chunk.length * 2);
+                }
+                chunk[length++] = '\n';
+            }
+            return length == 0 ? null : Arrays.copyOf(chunk, length);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // moves to the start of the next bean, returning the first character, or -1 if there are no more beans
+    private int nextRecordStart() throws IOException {
+        int ch = skipWhitespace();
+        if (!started) {
+            started = true;
+            if (ch == '[') {
+                array = true;
+                ch = skipWhitespace();
+                if (ch == ']') {
+                    return acceptEnd();
+                }
+            }
+        } else if (array) {
+            if (ch == ']') {
+                return acceptEnd();
+            }
+            if (ch != ',') {
+                throw new IllegalArgumentException("Invalid JSON data: Expected ',' or ']' but found " + describe(ch));
+            }
+            ch = skipWhitespace();
+            if (ch == ']') {
+                // leniently allow comma before arrayEnd
+                return acceptEnd();
+            }
+        }
+        if (ch < 0 && !array) {
+            return -1;
+        }
+        if (ch != '{') {
+            throw new IllegalArgumentException("Invalid JSON data: Expected '{' but found " + describe(ch));
+        }
+        return ch;
+    }
+
+    // accepts the end of the input after the array
+    private int acceptEnd() throws IOException {
+        int ch = skipWhitespace();
+        if (ch >= 0) {
+            throw new IllegalArgumentException("Invalid JSON data: Expected end of file after array but found " + describe(ch));
+        }
+        return -1;
+    }
+
+    // describes a character for an error message
+    private static String describe(int ch) {
+        return ch < 0 ? "end of file" : "'" + (char) ch + "'";
+    }
+
+    // skips whitespace, returning the next character, or -1 at the end of the input
+    private int skipWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char ch = buf[pos++];
+            if (ch != ' ' && ch != '\t' && ch != '\n' && ch != '\r') {
+                return ch;
+            }
+        }
+    }
+
+    // reads a character within a bean
+    private char readChar() throws IOException {
+        if (pos == limit && !fill()) {
+            throw new IllegalArgumentException("Invalid JSON data: End of file");
+        }
+        return buf[pos++];
+    }
+
+    // reads more input into the buffer, returning false at the end of the input
+    private boolean fill() throws IOException {
+        int count = input.read(buf, 0, buf.length);
+        if (count < 0) {
+            return false;
+        }
+        pos = 0;
+        limit = count;
+        return true;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Iterates over the parsed chunks in input order.
+     */
+    private final class OrderedChunks implements Iterator<List<T>> {
+        /**
+         * The chunks being parsed, in input order.
+         */
+        private final ArrayDeque<CompletableFuture<List<T>>> pending = new ArrayDeque<>();
+
+        @Override
+        public boolean hasNext() {
+            while (pending.size() < maxPending) {
+                CompletableFuture<List<T>> future = submitChunk();
+                if (future == null) {
+                    break;
+                }
+                pending.add(future);
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public List<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return join(pending.remove());
+        }
+    }
+
+    /**
+     * Iterates over the parsed chunks in the order they complete.
+     */
+    private final class UnorderedChunks implements Iterator<List<T>> {
+        /**
+         * The chunks that have been parsed.
+         */
+        private final BlockingQueue<CompletableFuture<List<T>>> completed = new LinkedBlockingQueue<>();
+        /**
+         * The number of chunks being parsed or completed but not yet returned.
+         */
+        private int pendingCount;
+
+        @Override
+        public boolean hasNext() {
+            while (pendingCount < maxPending) {
+                CompletableFuture<List<T>> future = submitChunk();
+                if (future == null) {
+                    break;
+                }
+                pendingCount++;
+                future.whenComplete((beans, ex) -> completed.add(future));
+            }
+            return pendingCount > 0;
+        }
+
+        @Override
+        public List<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                CompletableFuture<List<T>> future = completed.take();
+                pendingCount--;
+                return join(future);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for beans to be parsed", ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.ser.JodaBeanSer;
+
+/**
+ * Provides the ability to read a stream of Joda-Beans from JSON.
+ * <p>
+ * This class contains mutable state and cannot be used from multiple threads.
+ * <p>
+ * Two layouts are accepted, determined by the first character of the input.
+ * If the input starts with a JSON array, each element of the array is a bean.
+ * Otherwise, the input is a sequence of JSON objects separated by whitespace,
+ * such as newline-delimited JSON, where each object is a bean.
+ * Each bean is in the format defined by {@link JodaBeanJsonWriter}, and must include its type
+ * unless the root type specified is a concrete bean type.
+ * <p>
+ * Beans are parsed one at a time as the iterator is advanced, thus memory usage
+ * does not depend on the number of beans in the stream.
+ * The stream format written by {@link JsonBeanStreamWriter} is compatible.
+ *
+ * @param <T>  the type of the beans in the stream
+ */
+public final class JsonBeanStreamReader<T> implements Iterator<T>, Closeable {
+
+    /**
+     * The reader to close.
+     */
+    private final Reader reader;
+    /**
+     * The JSON input.
+     */
+    private final JsonInput input;
+    /**
+     * The parser, which retains the property name caches.
+     */
+    private final JodaBeanJsonReader parser;
+    /**
+     * The type of each bean.
+     */
+    private final Class<T> rootType;
+    /**
+     * Whether the start of the input has been read.
+     */
+    private boolean started;
+    /**
+     * Whether the input is a JSON array.
+     */
+    private boolean array;
+    /**
+     * Whether the end of the beans has been reached.
+     */
+    private boolean finished;
+    /**
+     * The next bean, null if not yet read.
+     */
+    private T next;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Creates an instance reading from a stream of UTF-8 bytes.
+     * <p>
+     * The bytes are decoded directly and buffered internally.
+     *
+     * @param settings  the settings, not null
+     * @param input  the input stream of UTF-8 bytes, not null
+     * @param rootType  the type of each bean, not null
+     */
+    public JsonBeanStreamReader(JodaBeanSer settings, InputStream input, Class<T> rootType) {
+        this(settings, new JsonUtf8Reader(notNull(input)), rootType);
+    }
+
+    /**
+     * Creates an instance reading from a reader.
+     * <p>
+     * The characters are buffered internally.
+     *
+     * @param settings  the settings, not null
+     * @param input  the input reader, not null
+     * @param rootType  the type of each bean, not null
+     */
+    public JsonBeanStreamReader(JodaBeanSer settings, Reader input, Class<T> rootType) {
+        JodaBeanUtils.notNull(settings, "settings");
+        JodaBeanUtils.notNull(input, "input");
+        JodaBeanUtils.notNull(rootType, "rootType");
+        this.reader = input;
+        this.input = new JsonInput(input);
+        this.parser = new JodaBeanJsonReader(settings);
+        this.rootType = rootType;
+    }
+
+    // checks the input stream is not null
+    private static InputStream notNull(InputStream input) {
+        JodaBeanUtils.notNull(input, "input");
+        return input;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if there is another bean in the stream.
+     *
+     * @return true if there is another bean
+     * @throws UncheckedIOException if unable to read the stream
+     * @throws RuntimeException if unable to parse
+     */
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            JsonEvent event;
+            if (!started) {
+                started = true;
+                event = input.readEventOrEnd();
+                if (event == JsonEvent.ARRAY) {
+                    array = true;
+                    event = input.readEvent();
+                }
+            } else if (array) {
+                event = input.acceptArraySeparator();
+            } else {
+                event = input.readEventOrEnd();
+            }
+            if (array && event == JsonEvent.ARRAY_END) {
+                if (input.readEventOrEnd() != null) {
+                    throw new IllegalArgumentException("Invalid JSON data: Expected end of file after array");
+                }
+                event = null;
+            }
+            if (event == null) {
+                finished = true;
+                return false;
+            }
+            next = parser.parseStreamBean(input, event, rootType);
+            return true;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Reads the next bean from the stream.
+     *
+     * @return the bean, not null
+     * @throws NoSuchElementException if there are no more beans
+     * @throws UncheckedIOException if unable to read the stream
+     * @throws RuntimeException if unable to parse
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Returns a sequential stream of the remaining beans.
+     * <p>
+     * Closing the returned stream closes this reader.
+     *
+     * @return the stream of beans, not null
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+    }
+
+    /**
+     * Closes the underlying input.
+     *
+     * @throws IOException if an error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.joda.beans.Bean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.ser.JodaBeanSer;
+
+/**
+ * Provides the ability to write a stream of Joda-Beans to JSON.
+ * <p>
+ * This class contains mutable state and cannot be used from multiple threads.
+ * <p>
+ * Each bean is written in the format defined by {@link JodaBeanJsonWriter}, always with its type,
+ * in compact form on a single line. The indent and new line of the settings are not used.
+ * Each bean is independent of the others, with type names shortened relative to that bean alone.
+ * <p>
+ * Two layouts are supported.
+ * Newline-delimited JSON writes each bean followed by a new line.
+ * Array layout writes a single JSON array containing each bean, one per line.
+ * The array is completed when the writer is closed.
+ * <p>
+ * Beans are written as they are passed in, thus memory usage does not depend on the number
+ * of beans in the stream. The stream is read using {@link JsonBeanStreamReader}.
+ */
+public final class JsonBeanStreamWriter implements Closeable, Flushable {
+
+    /**
+     * The output.
+     */
+    private final Appendable output;
+    /**
+     * The UTF-8 output, null if writing to an appendable.
+     */
+    private final JsonUtf8Appendable utf8;
+    /**
+     * The underlying output to flush and close.
+     */
+    private final Object underlying;
+    /**
+     * The writer, which retains the encoded property names.
+     */
+    private final JodaBeanJsonWriter writer;
+    /**
+     * Whether to write a JSON array.
+     */
+    private final boolean array;
+    /**
+     * Whether a bean has been written.
+     */
+    private boolean started;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Creates an instance writing UTF-8 bytes.
+     * <p>
+     * The bytes are encoded directly and buffered internally.
+     * Compression is not applied.
+     *
+     * @param settings  the settings to use, not null
+     * @param output  the output stream, not null
+     * @param array  true to write a JSON array, false to write newline-delimited JSON
+     */
+    public JsonBeanStreamWriter(JodaBeanSer settings, OutputStream output, boolean array) {
+        JodaBeanUtils.notNull(settings, "settings");
+        JodaBeanUtils.notNull(output, "output");
+        this.utf8 = new JsonUtf8Appendable(output);
+        this.output = utf8;
+        this.underlying = output;
+        this.writer = new JodaBeanJsonWriter(settings);
+        this.array = array;
+    }
+
+    /**
+     * Creates an instance writing to an {@code Appendable}.
+     * <p>
+     * If the appendable is {@link Flushable} or {@link Closeable}, it will be flushed or closed by this writer.
+     *
+     * @param settings  the settings to use, not null
+     * @param output  the output appendable, not null
+     * @param array  true to write a JSON array, false to write newline-delimited JSON
+     */
+    public JsonBeanStreamWriter(JodaBeanSer settings, Appendable output, boolean array) {
+        JodaBeanUtils.notNull(settings, "settings");
+        JodaBeanUtils.notNull(output, "output");
+        this.utf8 = null;
+        this.output = output;
+        this.underlying = output;
+        this.writer = new JodaBeanJsonWriter(settings);
+        this.array = array;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Writes a bean to the stream.
+     * <p>
+     * The type of the bean is always set in the stream.
+     *
+     * @param bean  the bean to output, not null
+     * @throws IOException if an error occurs
+     */
+    public void write(Bean bean) throws IOException {
+        JodaBeanUtils.notNull(bean, "bean");
+        if (array) {
+            output.append(started ? ",\n" : "[\n");
+        }
+        started = true;
+        writer.writeStreamBean(bean, output);
+        if (!array) {
+            output.append('\n');
+        }
+    }
+
+    /**
+     * Flushes the buffered output and the underlying output.
+     *
+     * @throws IOException if an error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        if (utf8 != null) {
+            utf8.flush();
+        } else if (underlying instanceof Flushable) {
+            ((Flushable) underlying).flush();
+        }
+    }
+
+    /**
+     * Closes the underlying output, completing the array if necessary.
+     *
+     * @throws IOException if an error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (array) {
+                output.append(started ? "\n]\n" : "[]\n");
+            }
+            flush();
+        } finally {
+            if (underlying instanceof Closeable) {
+                ((Closeable) underlying).close();
+            }
+        }
+    }
+
+}
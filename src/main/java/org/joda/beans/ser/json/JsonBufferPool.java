@@ -0,0 +1,137 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.json;
+
+/**
+ * Pool of output character buffers for the JSON writers.
+ * <p>
+ * Each thread has one buffer which is reused between messages.
+ * A buffer that is already in use, such as when a message is written while writing another,
+ * is replaced by a new unpooled buffer. Buffers that grow beyond 1Mb are not retained.
+ * <p>
+ * The size of the last JSON message written for each root bean type is recorded and used
+ * to size the buffer before writing, thus a steady state of messages can be written
+ * without growing the buffer.
+ * <p>
+ * Pooling is enabled using {@link org.joda.beans.ser.JodaBeanSer#withPooledBuffers(boolean)}.
+ */
+final class JsonBufferPool {
+
+    /**
+     * The default initial size of a buffer.
+     */
+    private static final int DEFAULT_SIZE = 1024;
+    /**
+     * The maximum size of a buffer that is retained.
+     */
+    private static final int MAX_RETAINED_SIZE = 1024 * 1024;
+    /**
+     * The size hints, keyed by root bean type.
+     */
+    private static final ClassValue<int[]> SIZE_HINTS = new ClassValue<int[]>() {
+        @Override
+        protected int[] computeValue(Class<?> type) {
+            return new int[] {DEFAULT_SIZE};
+        }
+    };
+    /**
+     * The pooled buffer.
+     */
+    private static final ThreadLocal<PooledChars> CHARS = new ThreadLocal<>();
+
+    /**
+     * Restricted constructor.
+     */
+    private JsonBufferPool() {
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains an empty buffer for the specified root type.
+     * <p>
+     * The buffer must be passed to {@link #release(StringBuilder)} once finished with.
+     *
+     * @param rootType  the type of the root bean, not null
+     * @return the empty buffer, not null
+     */
+    static StringBuilder acquire(Class<?> rootType) {
+        int hint = sizeHint(rootType);
+        PooledChars pooled = CHARS.get();
+        if (pooled == null || pooled.inUse) {
+            if (pooled != null) {
+                return new StringBuilder(hint);
+            }
+            pooled = new PooledChars(hint);
+            CHARS.set(pooled);
+        }
+        pooled.inUse = true;
+        pooled.buffer.setLength(0);
+        pooled.buffer.ensureCapacity(hint);
+        return pooled.buffer;
+    }
+
+    /**
+     * Returns the characters written to the buffer, recording the size against the root type.
+     *
+     * @param rootType  the type of the root bean, not null
+     * @param buffer  the buffer obtained from {@link #acquire(Class)}, not null
+     * @return the string, not null
+     */
+    static String toString(Class<?> rootType, StringBuilder buffer) {
+        int size = buffer.length();
+        SIZE_HINTS.get(rootType)[0] = Math.min(size + (size >> 3) + 16, MAX_RETAINED_SIZE);
+        return buffer.toString();
+    }
+
+    /**
+     * Releases a buffer back to the pool.
+     *
+     * @param buffer  the buffer obtained from {@link #acquire(Class)}, not null
+     */
+    static void release(StringBuilder buffer) {
+        PooledChars pooled = CHARS.get();
+        if (pooled != null && pooled.buffer == buffer) {
+            pooled.inUse = false;
+            if (buffer.capacity() > MAX_RETAINED_SIZE) {
+                CHARS.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the size hint for the root type.
+     *
+     * @param rootType  the type of the root bean, not null
+     * @return the size hint
+     */
+    static int sizeHint(Class<?> rootType) {
+        return SIZE_HINTS.get(rootType)[0];
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Pooled character buffer.
+     */
+    private static final class PooledChars {
+        private final StringBuilder buffer;
+        private boolean inUse;
+
+        private PooledChars(int size) {
+            this.buffer = new StringBuilder(size);
+        }
+    }
+
+}
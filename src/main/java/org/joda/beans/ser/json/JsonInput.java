@@ -17,9 +17,13 @@ package org.joda.beans.ser.json;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Arrays;
 
 /**
  * Reader of JSON data.
+ * <p>
+ * The input is read in blocks into a window of characters, which is scanned by index.
+ * The window grows if a single string or number is larger than the window.
  */
 final class JsonInput {
 
@@ -39,10 +43,27 @@ final class JsonInput {
         REPLACE[127] = "\\u007f";
     }
 
+    /**
+     * The initial size of the window.
+     */
+    private static final int WINDOW_SIZE = 4096;
+
     /**
      * The reader.
      */
     private final Reader input;
+    /**
+     * The window of characters read from the input.
+     */
+    private char[] chars = new char[WINDOW_SIZE];
+    /**
+     * The index of the next character to read in the window.
+     */
+    private int pos;
+    /**
+     * The index after the last valid character in the window.
+     */
+    private int limit;
     /**
      * The reused string buffer.
      */
@@ -56,9 +77,9 @@ final class JsonInput {
      */
     private double floating;
     /**
-     * The previously read character.
+     * The previously read character, negative if none.
      */
-    private Character cachedNext;
+    private int cachedNext = -1;
     /**
      * The previously read object key.
      */
@@ -124,7 +145,21 @@ final class JsonInput {
         }
     }
 
-    // store peeked value for later use
+    // reads the next event, returning null if only whitespace remains before the end of the input
+    JsonEvent readEventOrEnd() throws IOException {
+        while (true) {
+            if (cachedNext < 0 && pos == limit && !fill(limit)) {
+                return null;
+            }
+            char next = readNext();
+            if (next != ' ' && next != '\t' && next != '\n' && next != '\r') {
+                pushBack(next);
+                return readEvent();
+            }
+        }
+    }
+
+    // store peeked value for later use, which must be consumed by the next call to readEvent()
     void pushBack(char ch) throws IOException {
         cachedNext = ch;
     }
@@ -164,6 +199,20 @@ final class JsonInput {
         return str;
     }
 
+    // expect object key and parse it, returning the reused buffer unless the key was pushed back
+    // the result is only valid until the next string or number is parsed
+    CharSequence acceptObjectKeyChars(JsonEvent event) throws IOException {
+        ensureEvent(event, JsonEvent.STRING);
+        if (cachedObjectKey != null) {
+            String key = cachedObjectKey;
+            cachedObjectKey = null;
+            return key;
+        }
+        parseChars();
+        acceptEvent(JsonEvent.COLON);
+        return buf;
+    }
+
     //-----------------------------------------------------------------------
     // expect string and parse it
     String acceptString() throws IOException {
@@ -173,17 +222,48 @@ final class JsonInput {
 
     // opening quite already consumed
     String parseString() throws IOException {
+        // strings without escapes are sliced directly from the window
+        int end = scanString();
+        if (chars[end] == '"') {
+            String str = new String(chars, pos, end - pos);
+            pos = end + 1;
+            return str;
+        }
+        parseChars();
+        return buf.toString();
+    }
+
+    // parses the characters of a string into the reused buffer, opening quote already consumed
+    private void parseChars() throws IOException {
         buf.setLength(0);
-        char next = readNext();
-        while (next != '"') {
-            if (next == '\\') {
-                parseEscape();
-            } else {
-                buf.append(next);
+        while (true) {
+            int end = scanString();
+            buf.append(chars, pos, end - pos);
+            pos = end + 1;
+            if (chars[end] == '"') {
+                return;
             }
-            next = readNext();
+            parseEscape();
+        }
+    }
+
+    // finds the next quote or backslash, ensuring that all characters from the position are in the window
+    private int scanString() throws IOException {
+        int index = pos;
+        while (true) {
+            if (index == limit) {
+                int start = pos;
+                if (!fill(start)) {
+                    throw new IllegalArgumentException("Invalid JSON data: End of file");
+                }
+                index -= start;
+            }
+            char ch = chars[index];
+            if (ch == '"' || ch == '\\') {
+                return index;
+            }
+            index++;
         }
-        return buf.toString();
     }
 
     private void parseEscape() throws IOException {
@@ -251,32 +331,73 @@ final class JsonInput {
     }
 
     private JsonEvent acceptNumber(char first) throws IOException {
-        buf.setLength(0);
-        buf.append(first);
-        char last = first;
-        char next = readNext();
-        while ((next >= '0' && next <= '9') || next == '.' || next == '-' || next == '+' || next == 'e' || next == 'E') {
-            buf.append((char) next);
-            last = next;
-            next = readNext();
+        // the first character is the last one read from the window, as numbers are never pushed back
+        int start = pos - 1;
+        int end = pos;
+        boolean floatingPoint = false;
+        while (true) {
+            if (end == limit) {
+                // refill the window, which moves the number to the start
+                int offset = start;
+                if (!fill(start)) {
+                    throw new IllegalArgumentException("Invalid JSON data: End of file");
+                }
+                end -= offset;
+                start = 0;
+            }
+            char next = chars[end];
+            if (next >= '0' && next <= '9') {
+                end++;
+            } else if (next == '.' || next == 'e' || next == 'E') {
+                floatingPoint = true;
+                end++;
+            } else if (next == '-' || next == '+') {
+                end++;
+            } else {
+                break;
+            }
         }
-        pushBack(next);
+        pos = end;
+        char last = chars[end - 1];
         if (last < '0' || last > '9') {
             throw new IllegalArgumentException("Invalid JSON data: Expected number but found invalid last char '" + last + "'");
         }
-        String str = buf.toString();
-        if (str.equals("0")) {
-            integral = 0;
-            return JsonEvent.NUMBER_INTEGRAL;
-        } else if (str.startsWith("0") && str.charAt(1) != '.') {
-            throw new IllegalArgumentException("Invalid JSON data: Expected number but found zero at start");
-        } else if (str.contains(".") || str.contains("e") || str.contains("E")) {
-            floating = Double.parseDouble(str);
+        int length = end - start;
+        if (first == '0') {
+            if (length == 1) {
+                integral = 0;
+                return JsonEvent.NUMBER_INTEGRAL;
+            } else if (chars[start + 1] != '.') {
+                throw new IllegalArgumentException("Invalid JSON data: Expected number but found zero at start");
+            }
+        }
+        if (floatingPoint) {
+            floating = JsonNumbers.parseDouble(chars, start, end);
             return JsonEvent.NUMBER_FLOATING;
-        } else {
-            integral = Long.parseLong(str);
-            return JsonEvent.NUMBER_INTEGRAL;
         }
+        integral = parseIntegral(start, end);
+        return JsonEvent.NUMBER_INTEGRAL;
+    }
+
+    // parses an integral number in place, falling back to the JDK for large or unusual numbers
+    private long parseIntegral(int start, int end) {
+        int index = start;
+        boolean negative = chars[index] == '-';
+        if (negative) {
+            index++;
+        }
+        if (end - index > 18) {
+            return Long.parseLong(new String(chars, start, end - start));
+        }
+        long value = 0;
+        for (; index < end; index++) {
+            char ch = chars[index];
+            if (ch < '0' || ch > '9') {
+                return Long.parseLong(new String(chars, start, end - start));
+            }
+            value = value * 10 + (ch - '0');
+        }
+        return negative ? -value : value;
     }
 
     //-----------------------------------------------------------------------
@@ -311,16 +432,35 @@ final class JsonInput {
 
     //-----------------------------------------------------------------------
     private char readNext() throws IOException {
-        if (cachedNext != null) {
-            char next = cachedNext.charValue();
-            cachedNext = null;
+        if (cachedNext >= 0) {
+            char next = (char) cachedNext;
+            cachedNext = -1;
             return next;
         }
-        int next = input.read();
-        if (next == -1) {
+        if (pos == limit && !fill(limit)) {
             throw new IllegalArgumentException("Invalid JSON data: End of file");
         }
-        return (char) next;
+        return chars[pos++];
+    }
+
+    // reads more input into the window, retaining the characters from the specified index
+    // the retained characters are moved to the start of the window, growing it if necessary
+    // returns false if the end of the input has been reached
+    private boolean fill(int retainFrom) throws IOException {
+        int retained = limit - retainFrom;
+        if (retainFrom > 0) {
+            System.arraycopy(chars, retainFrom, chars, 0, retained);
+        } else if (retained == chars.length) {
+            chars = Arrays.copyOf(chars, chars.length * 2);
+        }
+        pos -= retainFrom;
+        limit = retained;
+        int count = input.read(chars, limit, chars.length - limit);
+        if (count < 0) {
+            return false;
+        }
+        limit += count;
+        return true;
     }
 
     void skipData() throws IOException {
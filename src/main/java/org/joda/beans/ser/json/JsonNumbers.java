@@ -0,0 +1,441 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.json;
+
+import java.math.BigInteger;
+
+/**
+ * Parses and formats doubles without allocation, optimized for JSON.
+ * <p>
+ * Parsing uses the Clinger fast path for short decimals, then the Eisel-Lemire algorithm.
+ * Both produce the correctly rounded result or fail, falling back to {@link Double#parseDouble(String)}.
+ * <p>
+ * Formatting uses the Schubfach algorithm by Raffaello Giulietti, as used by {@link Double#toString(double)} in Java 19.
+ * The output is the shortest decimal that parses back to the same double, in the layout of {@code Double.toString}.
+ */
+final class JsonNumbers {
+
+    /**
+     * The maximum length of a formatted double.
+     */
+    static final int MAX_DOUBLE_LENGTH = 26;
+
+    /**
+     * The exact powers of ten as doubles.
+     */
+    private static final double[] DOUBLE_POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    /**
+     * The minimum power of ten in the table.
+     */
+    private static final int MIN_EXP10 = -342;
+    /**
+     * The maximum power of ten in the table.
+     */
+    private static final int MAX_EXP10 = 324;
+    /**
+     * The maximum power of ten that can be parsed without overflow.
+     */
+    private static final int MAX_PARSE_EXP10 = 308;
+    /**
+     * The powers of ten as 128-bit mantissas rounded down, high then low.
+     * The binary exponent is implied, with the top bit of the mantissa always set.
+     */
+    private static final long[] POW10_MANTISSAS = new long[(MAX_EXP10 - MIN_EXP10 + 1) * 2];
+    /**
+     * The powers of ten as longs.
+     */
+    private static final long[] LONG_POW10 = new long[18];
+    static {
+        BigInteger pow = BigInteger.ONE;
+        BigInteger mask64 = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int e = 0; e <= Math.max(-MIN_EXP10, MAX_EXP10); e++) {
+            // 10^e = m * 2^x where 2^127 <= m < 2^128, rounded down
+            if (e <= MAX_EXP10) {
+                int shift = pow.bitLength() - 128;
+                BigInteger m = shift > 0 ? pow.shiftRight(shift) : pow.shiftLeft(-shift);
+                POW10_MANTISSAS[(e - MIN_EXP10) * 2] = m.shiftRight(64).longValue();
+                POW10_MANTISSAS[(e - MIN_EXP10) * 2 + 1] = m.and(mask64).longValue();
+            }
+            if (e > 0 && -e >= MIN_EXP10) {
+                BigInteger m = BigInteger.ONE.shiftLeft(pow.bitLength() + 127).divide(pow);
+                POW10_MANTISSAS[(-e - MIN_EXP10) * 2] = m.shiftRight(64).longValue();
+                POW10_MANTISSAS[(-e - MIN_EXP10) * 2 + 1] = m.and(mask64).longValue();
+            }
+            pow = pow.multiply(BigInteger.TEN);
+        }
+        long value = 1;
+        for (int i = 0; i < LONG_POW10.length; i++) {
+            LONG_POW10[i] = value;
+            value *= 10;
+        }
+    }
+
+    /**
+     * Restricted constructor.
+     */
+    private JsonNumbers() {
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Parses a JSON number to a double.
+     * <p>
+     * Numbers that are not in the standard JSON layout are passed to {@code Double.parseDouble}.
+     *
+     * @param chars  the characters, not null
+     * @param start  the index of the first character
+     * @param end  the index after the last character
+     * @return the parsed double
+     * @throws NumberFormatException if the number is invalid
+     */
+    static double parseDouble(char[] chars, int start, int end) {
+        int index = start;
+        boolean negative = chars[index] == '-';
+        if (negative) {
+            index++;
+        }
+        // up to 19 significant digits, which fits in an unsigned long
+        long mantissa = 0;
+        int digits = 0;
+        int exp10 = 0;
+        int intStart = index;
+        while (index < end && chars[index] >= '0' && chars[index] <= '9') {
+            int digit = chars[index++] - '0';
+            if (digits < 19) {
+                mantissa = mantissa * 10 + digit;
+                digits += (mantissa == 0 ? 0 : 1);
+            } else {
+                return fallback(chars, start, end);
+            }
+        }
+        if (index == intStart) {
+            return fallback(chars, start, end);
+        }
+        if (index < end && chars[index] == '.') {
+            index++;
+            int fractionStart = index;
+            while (index < end && chars[index] >= '0' && chars[index] <= '9') {
+                int digit = chars[index++] - '0';
+                if (digits < 19) {
+                    mantissa = mantissa * 10 + digit;
+                    digits += (mantissa == 0 ? 0 : 1);
+                    exp10--;
+                } else if (digit != 0) {
+                    return fallback(chars, start, end);
+                }
+            }
+            if (index == fractionStart) {
+                return fallback(chars, start, end);
+            }
+        }
+        if (index < end && (chars[index] == 'e' || chars[index] == 'E')) {
+            index++;
+            boolean negativeExponent = false;
+            if (index < end && (chars[index] == '-' || chars[index] == '+')) {
+                negativeExponent = chars[index] == '-';
+                index++;
+            }
+            int exponentStart = index;
+            int exponent = 0;
+            while (index < end && chars[index] >= '0' && chars[index] <= '9') {
+                exponent = Math.min(exponent * 10 + chars[index++] - '0', 10000);
+            }
+            if (index == exponentStart) {
+                return fallback(chars, start, end);
+            }
+            exp10 += negativeExponent ? -exponent : exponent;
+        }
+        if (index != end) {
+            return fallback(chars, start, end);
+        }
+        if (mantissa == 0) {
+            return negative ? -0d : 0d;
+        }
+        // Clinger fast path, both the mantissa and the power of ten are exact doubles
+        if (exp10 >= -22 && exp10 <= 22 && mantissa >= 0 && mantissa <= (1L << 53)) {
+            double value = exp10 < 0 ? mantissa / DOUBLE_POW10[-exp10] : mantissa * DOUBLE_POW10[exp10];
+            return negative ? -value : value;
+        }
+        long bits = eiselLemire(mantissa, exp10);
+        if (bits < 0) {
+            return fallback(chars, start, end);
+        }
+        double value = Double.longBitsToDouble(bits);
+        return negative ? -value : value;
+    }
+
+    // parses using the JDK
+    private static double fallback(char[] chars, int start, int end) {
+        return Double.parseDouble(new String(chars, start, end - start));
+    }
+
+    // the Eisel-Lemire algorithm, returning the bits of the positive double, or -1 if the result may be inexact
+    private static long eiselLemire(long mantissa, int exp10) {
+        if (exp10 < MIN_EXP10 || exp10 > MAX_PARSE_EXP10) {
+            return -1;
+        }
+        // normalize
+        int lz = Long.numberOfLeadingZeros(mantissa);
+        long man = mantissa << lz;
+        long retExp2 = ((217706L * exp10) >> 16) + 64 + 1023 - lz;
+        // multiply by the high part of the power of ten
+        int index = (exp10 - MIN_EXP10) * 2;
+        long xHi = unsignedMultiplyHigh(man, POW10_MANTISSAS[index]);
+        long xLo = man * POW10_MANTISSAS[index];
+        // use the low part of the power of ten if the result is ambiguous
+        if ((xHi & 0x1FF) == 0x1FF && Long.compareUnsigned(xLo + man, man) < 0) {
+            long yHi = unsignedMultiplyHigh(man, POW10_MANTISSAS[index + 1]);
+            long yLo = man * POW10_MANTISSAS[index + 1];
+            long mergedHi = xHi;
+            long mergedLo = xLo + yHi;
+            if (Long.compareUnsigned(mergedLo, xLo) < 0) {
+                mergedHi++;
+            }
+            if ((mergedHi & 0x1FF) == 0x1FF && mergedLo == -1 && Long.compareUnsigned(yLo + man, man) < 0) {
+                return -1;
+            }
+            xHi = mergedHi;
+            xLo = mergedLo;
+        }
+        // shift to 54 bits
+        long msb = xHi >>> 63;
+        long retMantissa = xHi >>> (msb + 9);
+        retExp2 -= 1 ^ msb;
+        // halfway ambiguity
+        if (xLo == 0 && (xHi & 0x1FF) == 0 && (retMantissa & 3) == 1) {
+            return -1;
+        }
+        // round to 53 bits
+        retMantissa += retMantissa & 1;
+        retMantissa >>>= 1;
+        if ((retMantissa >>> 53) > 0) {
+            retMantissa >>>= 1;
+            retExp2++;
+        }
+        // subnormal, infinite or NaN
+        if (retExp2 <= 0 || retExp2 >= 0x7FF) {
+            return -1;
+        }
+        return retExp2 << 52 | (retMantissa & 0x000F_FFFF_FFFF_FFFFL);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Formats a finite double in the layout of {@code Double.toString}.
+     * <p>
+     * The output is the shortest decimal that parses back to the same double.
+     *
+     * @param value  the value to format, not NaN or infinite
+     * @param buf  the buffer to write to, at least {@link #MAX_DOUBLE_LENGTH} long
+     * @return the number of characters written
+     */
+    static int formatDouble(double value, char[] buf) {
+        long bits = Double.doubleToRawLongBits(value);
+        int pos = 0;
+        if (bits < 0) {
+            buf[pos++] = '-';
+        }
+        long t = bits & 0x000F_FFFF_FFFF_FFFFL;
+        int bq = (int) (bits >>> 52) & 0x7FF;
+        if (bq != 0) {
+            // normal value, v = c * 2^-mq
+            int mq = 1074 + 1 - bq;
+            long c = (1L << 52) | t;
+            if (0 < mq && mq < 53) {
+                // integer value
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return format(f, 0, buf, pos);
+                }
+            }
+            return toDecimal(-mq, c, 0, buf, pos);
+        }
+        if (t != 0) {
+            // subnormal value
+            return t < 3 ? toDecimal(-1074, 10 * t, -1, buf, pos) : toDecimal(-1074, t, 0, buf, pos);
+        }
+        buf[pos++] = '0';
+        buf[pos++] = '.';
+        buf[pos++] = '0';
+        return pos;
+    }
+
+    // finds the shortest decimal in the rounding interval of c * 2^q
+    private static int toDecimal(int q, long c, int dk, char[] buf, int pos) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != (1L << 52) || q == -1074) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        // 10^-k = beta * 2^r where 2^125 <= beta < 2^126, and g = floor(beta) + 1
+        // g is derived exactly from the 128-bit mantissa rounded down, split into two 63-bit parts
+        int index = (-k - MIN_EXP10) * 2;
+        long mHi = POW10_MANTISSAS[index];
+        long mLo = POW10_MANTISSAS[index + 1];
+        long gHi = mHi >>> 2;
+        long gLo = (mHi << 62 | mLo >>> 2) + 1;
+        if (gLo == 0) {
+            gHi++;
+        }
+        long g1 = gHi << 1 | gLo >>> 63;
+        long g0 = gLo & Long.MAX_VALUE;
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+        long s = vb >> 2;
+        if (s >= 100) {
+            // try one digit fewer
+            long sp10 = 10 * unsignedMultiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return format(upin ? sp10 : tp10, k, buf, pos);
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return format(uin ? s : t, k + dk, buf, pos);
+        }
+        // both are in the interval, choose the closest, or the even one if equally close
+        long cmp = vb - ((s + t) << 1);
+        return format(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buf, pos);
+    }
+
+    // computes the rounded product of g and cp, scaled down by 2^127, with a sticky bit
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = unsignedMultiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = unsignedMultiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | ((z & Long.MAX_VALUE) + Long.MAX_VALUE) >>> 63;
+    }
+
+    // formats f * 10^e in the layout of Double.toString
+    private static int format(long f, int e, char[] buf, int pos) {
+        // normalize to 17 digits, such that the value is 0.fffff * 10^exp
+        int len = flog10pow2(64 - Long.numberOfLeadingZeros(f));
+        if (f >= LONG_POW10[len]) {
+            len++;
+        }
+        f *= LONG_POW10[17 - len];
+        int exp = e + len;
+        // write the digits at the end of the buffer, then count the significant digits
+        int digitsStart = buf.length - 17;
+        for (int i = 16; i >= 0; i--) {
+            buf[digitsStart + i] = (char) ('0' + f % 10);
+            f /= 10;
+        }
+        int digits = 17;
+        while (digits > 1 && buf[digitsStart + digits - 1] == '0') {
+            digits--;
+        }
+        if (0 < exp && exp <= 7) {
+            // plain, such as 123.45
+            for (int i = 0; i < exp; i++) {
+                buf[pos++] = i < digits ? buf[digitsStart + i] : '0';
+            }
+            buf[pos++] = '.';
+            if (digits <= exp) {
+                buf[pos++] = '0';
+            } else {
+                for (int i = exp; i < digits; i++) {
+                    buf[pos++] = buf[digitsStart + i];
+                }
+            }
+        } else if (-3 < exp && exp <= 0) {
+            // plain with leading zeros, such as 0.0012345
+            buf[pos++] = '0';
+            buf[pos++] = '.';
+            for (int i = exp; i < 0; i++) {
+                buf[pos++] = '0';
+            }
+            for (int i = 0; i < digits; i++) {
+                buf[pos++] = buf[digitsStart + i];
+            }
+        } else {
+            // scientific, such as 1.2345E-7
+            buf[pos++] = buf[digitsStart];
+            buf[pos++] = '.';
+            if (digits == 1) {
+                buf[pos++] = '0';
+            } else {
+                for (int i = 1; i < digits; i++) {
+                    buf[pos++] = buf[digitsStart + i];
+                }
+            }
+            buf[pos++] = 'E';
+            int sciExp = exp - 1;
+            if (sciExp < 0) {
+                buf[pos++] = '-';
+                sciExp = -sciExp;
+            }
+            if (sciExp >= 100) {
+                buf[pos++] = (char) ('0' + sciExp / 100);
+                sciExp %= 100;
+                buf[pos++] = (char) ('0' + sciExp / 10);
+            } else if (sciExp >= 10) {
+                buf[pos++] = (char) ('0' + sciExp / 10);
+            }
+            buf[pos++] = (char) ('0' + sciExp % 10);
+        }
+        return pos;
+    }
+
+    //-----------------------------------------------------------------------
+    // floor(log10(2^e))
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    // floor(log10(3/4 * 2^e))
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L - 274_743_187_321L >> 41);
+    }
+
+    // floor(log2(10^e))
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    // the high 64 bits of the unsigned 128-bit product
+    private static long unsignedMultiplyHigh(long x, long y) {
+        long x0 = x & 0xFFFF_FFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFF_FFFFL;
+        long y1 = y >>> 32;
+        long p00 = x0 * y0;
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long p11 = x1 * y1;
+        long middle = p10 + (p00 >>> 32) + (p01 & 0xFFFF_FFFFL);
+        return p11 + (middle >>> 32) + (p01 >>> 32);
+    }
+
+}
@@ -16,15 +16,18 @@
 package org.joda.beans.ser.json;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.BitSet;
 
+import org.joda.beans.ser.SerPropertyNames;
+
 /**
  * Outputter for JSON data.
  */
 final class JsonOutput {
 
     /** encoding JSON */
-    private static final String[] REPLACE = new String[128];
+    static final String[] REPLACE = new String[128];
     static {
         for (int i = 0; i < 32; i++) {
             REPLACE[i] = String.format("\\u%04x", i);
@@ -38,11 +41,17 @@ final class JsonOutput {
         REPLACE['\\'] = "\\\\";
         REPLACE[127] = "\\u007f";
     }
+    /** property names encoded as JSON strings */
+    static final SerPropertyNames<EncodedName> PROPERTY_NAMES = new SerPropertyNames<>(EncodedName::new, EncodedName[]::new);
 
     /**
      * The appender to write to.
      */
     private final Appendable output;
+    /**
+     * The UTF-8 appendable, null if writing characters.
+     */
+    private final JsonUtf8Appendable utf8;
     /**
      * The indent amount.
      */
@@ -63,6 +72,10 @@ final class JsonOutput {
      * The comma state.
      */
     private BitSet commaState = new BitSet(64);
+    /**
+     * The buffer used to format numbers, null until used.
+     */
+    private char[] numberChars;
 
     /**
      * Creates an instance that outputs in compact format.
@@ -82,6 +95,7 @@ final class JsonOutput {
      */
     JsonOutput(Appendable output, String indent, String newLine) {
         this.output = output;
+        this.utf8 = (output instanceof JsonUtf8Appendable ? (JsonUtf8Appendable) output : null);
         this.indent = indent;
         this.newLine = newLine;
     }
@@ -155,6 +169,8 @@ final class JsonOutput {
      * Writes a JSON double.
      * <p>
      * This outputs the values of NaN, and Infinity as strings.
+     * Finite values are formatted without creating a string, as the shortest decimal that parses
+     * back to the same value, in the layout of {@link Double#toString(double)}.
      * 
      * @param value  the value
      * @throws IOException if an error occurs
@@ -163,7 +179,13 @@ final class JsonOutput {
         if (Double.isNaN(value) || Double.isInfinite(value)) {
             output.append('"').append(Double.toString(value)).append('"');
         } else {
-            output.append(Double.toString(value));
+            if (numberChars == null) {
+                numberChars = new char[JsonNumbers.MAX_DOUBLE_LENGTH];
+            }
+            int length = JsonNumbers.formatDouble(value, numberChars);
+            for (int i = 0; i < length; i++) {
+                output.append(numberChars[i]);
+            }
         }
     }
 
@@ -175,6 +197,10 @@ final class JsonOutput {
      * @throws IOException if an error occurs
      */
     void writeString(String value) throws IOException {
+        if (utf8 != null) {
+            utf8.appendQuoted(value);
+            return;
+        }
         output.append('"');
         for (int i = 0; i < value.length(); i++) {
             char ch = value.charAt(i);
@@ -196,6 +222,24 @@ final class JsonOutput {
         output.append('"');
     }
 
+    /**
+     * Encodes a JSON string, including the quotes.
+     * <p>
+     * This is used to pre-encode strings that are written many times.
+     * 
+     * @param value  the value
+     * @return the encoded string, not null
+     */
+    static String encodeString(String value) {
+        StringBuilder buf = new StringBuilder(value.length() + 2);
+        try {
+            new JsonOutput(buf).writeString(value);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return buf.toString();
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Writes a JSON array start.
@@ -256,6 +300,32 @@ final class JsonOutput {
      * @throws IOException if an error occurs
      */
     void writeObjectKey(String key) throws IOException {
+        writeObjectKeyStart();
+        writeString(key);
+        writeObjectKeyEnd();
+    }
+
+    /**
+     * Writes a JSON object key that is the name of a property.
+     * <p>
+     * This handles the comma, string encoded key and separator colon.
+     * The encoded name is obtained from {@link #PROPERTY_NAMES}, avoiding the need to encode the name each time.
+     * 
+     * @param name  the encoded name of the property
+     * @throws IOException if an error occurs
+     */
+    void writeObjectKey(EncodedName name) throws IOException {
+        writeObjectKeyStart();
+        if (utf8 != null) {
+            utf8.appendEncoded(name.utf8);
+        } else {
+            output.append(name.quoted);
+        }
+        writeObjectKeyEnd();
+    }
+
+    // writes the comma and indent before a key
+    private void writeObjectKeyStart() throws IOException {
         if (commaState.get(commaDepth)) {
             output.append(',');
         } else {
@@ -263,7 +333,10 @@ final class JsonOutput {
         }
         output.append(newLine);
         output.append(currentIndent);
-        writeString(key);
+    }
+
+    // writes the colon after a key
+    private void writeObjectKeyEnd() throws IOException {
         output.append(':');
         if (newLine.length() > 0) {
             output.append(' ');
@@ -297,4 +370,24 @@ final class JsonOutput {
         commaDepth--;
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * A property name encoded as a JSON string, including the quotes.
+     */
+    static final class EncodedName {
+        /**
+         * The encoded name.
+         */
+        final String quoted;
+        /**
+         * The encoded name in UTF-8.
+         */
+        final byte[] utf8;
+
+        EncodedName(String name) {
+            this.quoted = encodeString(name);
+            this.utf8 = quoted.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
 }
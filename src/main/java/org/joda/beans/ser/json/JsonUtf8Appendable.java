@@ -0,0 +1,208 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Appendable that encodes UTF-8 bytes to an output stream, optimized for JSON, which is mostly ASCII.
+ * <p>
+ * The bytes are buffered, thus {@link #flush()} must be called once finished.
+ * JSON strings are escaped directly to bytes using a table, see {@link #appendQuoted(String)}.
+ */
+final class JsonUtf8Appendable implements Appendable {
+
+    /**
+     * The escaped form of each ASCII character, null if not escaped.
+     */
+    private static final byte[][] ESCAPES = new byte[128][];
+    static {
+        for (int i = 0; i < 128; i++) {
+            if (JsonOutput.REPLACE[i] != null) {
+                ESCAPES[i] = JsonOutput.REPLACE[i].getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+    }
+    /**
+     * The escaped line separator, which matches other JSON writers.
+     */
+    private static final byte[] LINE_SEPARATOR = "\\u2028".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The escaped paragraph separator, which matches other JSON writers.
+     */
+    private static final byte[] PARAGRAPH_SEPARATOR = "\\u2029".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The output stream.
+     */
+    private final OutputStream output;
+    /**
+     * The buffer.
+     */
+    private final byte[] buffer = new byte[8192];
+    /**
+     * The number of bytes in the buffer.
+     */
+    private int count;
+
+    /**
+     * Creates an instance.
+     *
+     * @param output  the output stream, not null
+     */
+    JsonUtf8Appendable(OutputStream output) {
+        this.output = output;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Appendable append(CharSequence chars) throws IOException {
+        return append(chars, 0, chars.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence chars, int start, int end) throws IOException {
+        for (int i = start; i < end; i++) {
+            char ch = chars.charAt(i);
+            if (ch < 128) {
+                if (count == buffer.length) {
+                    flushBuffer();
+                }
+                buffer[count++] = (byte) ch;
+            } else {
+                i = appendNonAscii(chars, i, end);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char ch) throws IOException {
+        if (ch < 128) {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (byte) ch;
+        } else {
+            appendNonAscii(String.valueOf(ch), 0, 1);
+        }
+        return this;
+    }
+
+    /**
+     * Appends a JSON string, including the quotes, escaping as necessary.
+     *
+     * @param value  the value to append, not null
+     * @throws IOException if an error occurs
+     */
+    void appendQuoted(String value) throws IOException {
+        append('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch < 128) {
+                byte[] escape = ESCAPES[ch];
+                if (escape != null) {
+                    appendBytes(escape);
+                } else {
+                    if (count == buffer.length) {
+                        flushBuffer();
+                    }
+                    buffer[count++] = (byte) ch;
+                }
+            } else if (ch == '\u2028') {
+                appendBytes(LINE_SEPARATOR);
+            } else if (ch == '\u2029') {
+                appendBytes(PARAGRAPH_SEPARATOR);
+            } else {
+                i = appendNonAscii(value, i, length);
+            }
+        }
+        append('"');
+    }
+
+    /**
+     * Appends bytes that are already encoded, such as a property name.
+     *
+     * @param encoded  the encoded bytes, not null
+     * @throws IOException if an error occurs
+     */
+    void appendEncoded(byte[] encoded) throws IOException {
+        if (encoded.length > buffer.length) {
+            flushBuffer();
+            output.write(encoded);
+        } else {
+            appendBytes(encoded);
+        }
+    }
+
+    // appends the UTF-8 encoding of the character at the index, returning the index of the last char used
+    private int appendNonAscii(CharSequence chars, int index, int end) throws IOException {
+        if (count > buffer.length - 4) {
+            flushBuffer();
+        }
+        char ch = chars.charAt(index);
+        if (ch < 0x800) {
+            buffer[count++] = (byte) (0xC0 | (ch >> 6));
+            buffer[count++] = (byte) (0x80 | (ch & 0x3F));
+        } else if (!Character.isSurrogate(ch)) {
+            buffer[count++] = (byte) (0xE0 | (ch >> 12));
+            buffer[count++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (ch & 0x3F));
+        } else if (Character.isHighSurrogate(ch) && index + 1 < end && Character.isLowSurrogate(chars.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(ch, chars.charAt(index + 1));
+            buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+            return index + 1;
+        } else {
+            // unpaired surrogate, matching String.getBytes()
+            buffer[count++] = '?';
+        }
+        return index;
+    }
+
+    // appends bytes that are much smaller than the buffer
+    private void appendBytes(byte[] bytes) throws IOException {
+        if (count > buffer.length - bytes.length) {
+            flushBuffer();
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Flushes the buffered bytes to the output stream, and flushes the stream.
+     *
+     * @throws IOException if an error occurs
+     */
+    void flush() throws IOException {
+        flushBuffer();
+        output.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            output.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Reader that decodes UTF-8 bytes, optimized for JSON, which is mostly ASCII.
+ * <p>
+ * Runs of ASCII are copied directly, avoiding the overhead of a general purpose decoder.
+ * Malformed input is replaced by the Unicode replacement character.
+ */
+final class JsonUtf8Reader extends Reader {
+
+    /**
+     * The replacement character for malformed input.
+     */
+    private static final char REPLACEMENT = '\uFFFD';
+    /**
+     * The minimum code point for each size of sequence, used to reject overlong encodings.
+     */
+    private static final int[] MIN_CODE_POINT = {0, 0, 0x80, 0x800, 0x10000};
+
+    /**
+     * The input stream, null if reading from an array.
+     */
+    private final InputStream input;
+    /**
+     * The bytes.
+     */
+    private byte[] bytes;
+    /**
+     * The index of the next byte to decode.
+     */
+    private int pos;
+    /**
+     * The index after the last valid byte.
+     */
+    private int limit;
+    /**
+     * The low surrogate that did not fit in the previous read, negative if none.
+     */
+    private int pendingLowSurrogate = -1;
+
+    /**
+     * Creates an instance reading from an array.
+     *
+     * @param bytes  the bytes, not null
+     * @param offset  the offset of the first byte
+     * @param length  the number of bytes
+     */
+    JsonUtf8Reader(byte[] bytes, int offset, int length) {
+        this.input = null;
+        this.bytes = bytes;
+        this.pos = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Creates an instance reading from a stream.
+     *
+     * @param input  the input stream, not null
+     */
+    JsonUtf8Reader(InputStream input) {
+        this.input = input;
+        this.bytes = new byte[8192];
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public int read(char[] chars, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        int count = 0;
+        if (pendingLowSurrogate >= 0) {
+            chars[offset] = (char) pendingLowSurrogate;
+            pendingLowSurrogate = -1;
+            count++;
+        }
+        while (count < length) {
+            // only block for more input if nothing has been decoded yet
+            if (pos == limit && (count > 0 || !fill(1))) {
+                break;
+            }
+            // inline ASCII case for much better performance
+            int end = Math.min(limit, pos + length - count);
+            while (pos < end && bytes[pos] >= 0) {
+                chars[offset + count++] = (char) bytes[pos++];
+            }
+            if (pos < end) {
+                count += decode(chars, offset + count, length - count);
+            }
+        }
+        return count == 0 ? -1 : count;
+    }
+
+    // decodes a multi-byte sequence, returning the number of chars decoded
+    private int decode(char[] chars, int offset, int length) throws IOException {
+        int b = bytes[pos] & 0xFF;
+        int size = b >= 0xF8 ? 1 : b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+        if (size == 1) {
+            // invalid lead byte
+            pos++;
+            chars[offset] = REPLACEMENT;
+            return 1;
+        }
+        if (limit - pos < size) {
+            fill(size);
+        }
+        int available = Math.min(size, limit - pos);
+        int codePoint = b & (0x7F >> size);
+        for (int i = 1; i < size; i++) {
+            if (i == available || (bytes[pos + i] & 0xC0) != 0x80) {
+                // truncated sequence, replaced as a whole
+                pos += i;
+                chars[offset] = REPLACEMENT;
+                return 1;
+            }
+            codePoint = (codePoint << 6) | (bytes[pos + i] & 0x3F);
+        }
+        if (codePoint < MIN_CODE_POINT[size] || codePoint > Character.MAX_CODE_POINT ||
+                (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            // overlong encoding or invalid code point
+            pos++;
+            chars[offset] = REPLACEMENT;
+            return 1;
+        }
+        pos += size;
+        if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            chars[offset] = (char) codePoint;
+            return 1;
+        }
+        chars[offset] = Character.highSurrogate(codePoint);
+        if (length > 1) {
+            chars[offset + 1] = Character.lowSurrogate(codePoint);
+            return 2;
+        }
+        pendingLowSurrogate = Character.lowSurrogate(codePoint);
+        return 1;
+    }
+
+    // reads more bytes, ensuring at least the specified number are available, returning false at the end
+    private boolean fill(int required) throws IOException {
+        if (input == null) {
+            return false;
+        }
+        int retained = limit - pos;
+        System.arraycopy(bytes, pos, bytes, 0, retained);
+        pos = 0;
+        limit = retained;
+        while (limit < required) {
+            int count = input.read(bytes, limit, bytes.length - limit);
+            if (count < 0) {
+                return false;
+            }
+            limit += count;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (input != null) {
+            input.close();
+        }
+    }
+
+}
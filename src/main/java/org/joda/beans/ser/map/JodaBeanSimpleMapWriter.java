@@ -15,14 +15,20 @@
  */
 package org.joda.beans.ser.map;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import org.joda.beans.Bean;
 import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.ser.JodaBeanSer;
 import org.joda.beans.ser.SerCategory;
@@ -48,6 +54,8 @@ import org.joda.convert.StringConverter;
  * <p>
  * Collections are output using lists, Maps as maps, with other collection types
  * having a complex list-based format.
+ * <p>
+ * As well as writing a copy, a read-only view of a bean can be obtained using {@link #writeView(Bean)}.
  */
 public class JodaBeanSimpleMapWriter {
 
@@ -55,6 +63,10 @@ public class JodaBeanSimpleMapWriter {
      * The settings to use.
      */
     private final JodaBeanSer settings;
+    /**
+     * Whether to write beans as views rather than copies.
+     */
+    private final boolean view;
 
     /**
      * Creates an instance.
@@ -62,8 +74,19 @@ public class JodaBeanSimpleMapWriter {
      * @param settings  the settings to use, not null
      */
     public JodaBeanSimpleMapWriter(JodaBeanSer settings) {
+        this(settings, false);
+    }
+
+    /**
+     * Creates an instance.
+     * 
+     * @param settings  the settings to use, not null
+     * @param view  whether to write beans as views
+     */
+    private JodaBeanSimpleMapWriter(JodaBeanSer settings, boolean view) {
         JodaBeanUtils.notNull(settings, "settings");
         this.settings = settings;
+        this.view = view;
     }
 
     //-----------------------------------------------------------------------
@@ -78,38 +101,68 @@ public class JodaBeanSimpleMapWriter {
         return writeBean(bean, bean.getClass());
     }
 
+    /**
+     * Writes the bean as a read-only view.
+     * <p>
+     * The map is backed by the bean, with each property read and converted only when the map is queried.
+     * This avoids copying the whole bean graph when only a few properties are read.
+     * Beans within the view are themselves views, created as they are read.
+     * Collections are written as they are read, with any beans they contain written as views.
+     * The view has the same content as the map returned by {@link #write(Bean)}.
+     * <p>
+     * The view is not cached, thus each query reflects the current state of a mutable bean.
+     * 
+     * @param bean  the bean to output, not null
+     * @return the read-only view, not null
+     */
+    public Map<String, Object> writeView(Bean bean) {
+        JodaBeanUtils.notNull(bean, "bean");
+        return new JodaBeanSimpleMapWriter(settings, true).writeBean(bean, bean.getClass());
+    }
+
     //-----------------------------------------------------------------------
     // write a bean as a JSON object
     private Map<String, Object> writeBean(Bean bean, Class<?> declaredType) {
+        if (view) {
+            return new BeanView(bean);
+        }
         Map<String, Object> result = new LinkedHashMap<>();
         // property information
         for (MetaProperty<?> prop : bean.metaBean().metaPropertyIterable()) {
-            if (prop.style().isSerializable() || (prop.style().isDerived() && settings.isIncludeDerived())) {
+            if (isIncluded(prop)) {
                 Object value = SerOptional.extractValue(prop, bean);
                 if (value != null) {
-                    Object outputValue = null;
-                    Class<?> propType = SerOptional.extractType(prop, bean.getClass());
-                    if (value instanceof Bean) {
-                        if (settings.getConverter().isConvertible(value.getClass())) {
-                            outputValue = writeSimple(propType, value);
-                        } else {
-                            outputValue = writeBean((Bean) value, propType);
-                        }
-                    } else {
-                        SerIterator itemIterator = settings.getIteratorFactory().create(value, prop, bean.getClass(), true);
-                        if (itemIterator != null) {
-                            outputValue = writeElements(itemIterator);
-                        } else {
-                            outputValue = writeSimple(propType, value);
-                        }
-                    }
-                    result.put(prop.name(), outputValue);
+                    result.put(prop.name(), writeProperty(bean, prop, value));
                 }
             }
         }
         return result;
     }
 
+    // checks if the property is written
+    private boolean isIncluded(MetaProperty<?> prop) {
+        return prop.style().isSerializable() || (prop.style().isDerived() && settings.isIncludeDerived());
+    }
+
+    // write the non-null value of a property
+    private Object writeProperty(Bean bean, MetaProperty<?> prop, Object value) {
+        Class<?> propType = SerOptional.extractType(prop, bean.getClass());
+        if (value instanceof Bean) {
+            if (settings.getConverter().isConvertible(value.getClass())) {
+                return writeSimple(propType, value);
+            } else {
+                return writeBean((Bean) value, propType);
+            }
+        } else {
+            SerIterator itemIterator = settings.getIteratorFactory().create(value, prop, bean.getClass(), true);
+            if (itemIterator != null) {
+                return writeElements(itemIterator);
+            } else {
+                return writeSimple(propType, value);
+            }
+        }
+    }
+
     //-----------------------------------------------------------------------
     // write a collection
     private Object writeElements(SerIterator itemIterator) {
@@ -269,4 +322,124 @@ public class JodaBeanSimpleMapWriter {
         }
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * A read-only view of a bean, reading each property when queried.
+     */
+    private final class BeanView extends AbstractMap<String, Object> {
+        /**
+         * The bean.
+         */
+        private final Bean bean;
+
+        private BeanView(Bean bean) {
+            this.bean = bean;
+        }
+
+        // finds the property, null if not written
+        private MetaProperty<?> findProperty(Object key) {
+            if (key instanceof String) {
+                MetaBean metaBean = bean.metaBean();
+                String name = (String) key;
+                if (metaBean.metaPropertyExists(name)) {
+                    MetaProperty<?> prop = metaBean.metaProperty(name);
+                    // aliases are not keys of the map
+                    if (prop.name().equals(name) && isIncluded(prop)) {
+                        return prop;
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            MetaProperty<?> prop = findProperty(key);
+            return prop != null && SerOptional.extractValue(prop, bean) != null;
+        }
+
+        @Override
+        public Object get(Object key) {
+            MetaProperty<?> prop = findProperty(key);
+            if (prop == null) {
+                return null;
+            }
+            Object value = SerOptional.extractValue(prop, bean);
+            return value != null ? writeProperty(bean, prop, value) : null;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new PropertyIterator(bean);
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (MetaProperty<?> prop : bean.metaBean().metaPropertyIterable()) {
+                        if (isIncluded(prop) && SerOptional.extractValue(prop, bean) != null) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * Iterates over the written properties of a bean, converting each value as it is reached.
+     */
+    private final class PropertyIterator implements Iterator<Map.Entry<String, Object>> {
+        /**
+         * The bean.
+         */
+        private final Bean bean;
+        /**
+         * The meta-properties.
+         */
+        private final Iterator<MetaProperty<?>> props;
+        /**
+         * The next property, null if not yet found.
+         */
+        private MetaProperty<?> nextProp;
+        /**
+         * The value of the next property.
+         */
+        private Object nextValue;
+
+        private PropertyIterator(Bean bean) {
+            this.bean = bean;
+            this.props = bean.metaBean().metaPropertyIterable().iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextProp == null && props.hasNext()) {
+                MetaProperty<?> prop = props.next();
+                if (isIncluded(prop)) {
+                    Object value = SerOptional.extractValue(prop, bean);
+                    if (value != null) {
+                        nextProp = prop;
+                        nextValue = value;
+                    }
+                }
+            }
+            return nextProp != null;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            MetaProperty<?> prop = nextProp;
+            nextProp = null;
+            return new AbstractMap.SimpleImmutableEntry<>(prop.name(), writeProperty(bean, prop, nextValue));
+        }
+    }
+
 }
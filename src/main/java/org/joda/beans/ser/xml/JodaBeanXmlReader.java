@@ -15,19 +15,24 @@
  */
 package org.joda.beans.ser.xml;
 
-import static org.joda.beans.ser.xml.JodaBeanXml.BEAN_QNAME;
-import static org.joda.beans.ser.xml.JodaBeanXml.COLS_QNAME;
-import static org.joda.beans.ser.xml.JodaBeanXml.COL_QNAME;
-import static org.joda.beans.ser.xml.JodaBeanXml.COUNT_QNAME;
-import static org.joda.beans.ser.xml.JodaBeanXml.ENTRY_QNAME;
-import static org.joda.beans.ser.xml.JodaBeanXml.ITEM_QNAME;
-import static org.joda.beans.ser.xml.JodaBeanXml.KEY_QNAME;
-import static org.joda.beans.ser.xml.JodaBeanXml.METATYPE_QNAME;
-import static org.joda.beans.ser.xml.JodaBeanXml.NULL_QNAME;
-import static org.joda.beans.ser.xml.JodaBeanXml.ROWS_QNAME;
-import static org.joda.beans.ser.xml.JodaBeanXml.ROW_QNAME;
+import static org.joda.beans.ser.xml.JodaBeanXml.BEAN;
+import static org.joda.beans.ser.xml.JodaBeanXml.COL;
+import static org.joda.beans.ser.xml.JodaBeanXml.COLS;
+import static org.joda.beans.ser.xml.JodaBeanXml.COUNT;
+import static org.joda.beans.ser.xml.JodaBeanXml.ENTRY;
+import static org.joda.beans.ser.xml.JodaBeanXml.ITEM;
+import static org.joda.beans.ser.xml.JodaBeanXml.KEY;
+import static org.joda.beans.ser.xml.JodaBeanXml.METATYPE;
+import static org.joda.beans.ser.xml.JodaBeanXml.NULL;
+import static org.joda.beans.ser.xml.JodaBeanXml.ROW;
+import static org.joda.beans.ser.xml.JodaBeanXml.ROWS;
 import static org.joda.beans.ser.xml.JodaBeanXml.TYPE;
-import static org.joda.beans.ser.xml.JodaBeanXml.TYPE_QNAME;
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.END_DOCUMENT;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
 
 import java.io.InputStream;
 import java.io.Reader;
@@ -35,12 +40,9 @@ import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
 
-import javax.xml.namespace.QName;
-import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.StartElement;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.joda.beans.Bean;
 import org.joda.beans.BeanBuilder;
@@ -51,12 +53,14 @@ import org.joda.beans.ser.SerCategory;
 import org.joda.beans.ser.SerDeserializer;
 import org.joda.beans.ser.SerIterable;
 import org.joda.beans.ser.SerOptional;
+import org.joda.beans.ser.SerPropertyCache;
 import org.joda.beans.ser.SerTypeMapper;
 
 /**
  * Provides the ability for a Joda-Bean to read from XML.
  * <p>
  * The XML format is defined by {@link JodaBeanXmlWriter}.
+ * The XML is parsed using the cursor-based {@link XMLStreamReader}, which avoids an object per XML event.
  * <p>
  * This class contains mutable state and cannot be used from multiple threads.
  * A new instance must be created for each message.
@@ -84,7 +88,7 @@ public class JodaBeanXmlReader {
     /**
      * The reader.
      */
-    private XMLEventReader reader;
+    private XMLStreamReader reader;
     /**
      * The base package including the trailing dot.
      */
@@ -147,7 +151,7 @@ public class JodaBeanXmlReader {
     public <T> T read(final InputStream input, Class<T> rootType) {
         try {
             try {
-                reader = XML_FACTORY.createXMLEventReader(input);
+                reader = XML_FACTORY.createXMLStreamReader(input);
                 return read(rootType);
             } finally {
                 if (reader != null) {
@@ -182,7 +186,7 @@ public class JodaBeanXmlReader {
     public <T> T read(final Reader input, Class<T> rootType) {
         try {
             try {
-                reader = XML_FACTORY.createXMLEventReader(input);
+                reader = XML_FACTORY.createXMLStreamReader(input);
                 return read(rootType);
             } finally {
                 if (reader != null) {
@@ -205,17 +209,16 @@ public class JodaBeanXmlReader {
      * @throws Exception if an error occurs
      */
     private <T> T read(final Class<T> rootType) throws Exception {
-        StartElement start = advanceToStartElement();
-        if (start.getName().equals(BEAN_QNAME) == false) {
-            throw new IllegalArgumentException("Expected root element 'bean' but found '" + start.getName() + "'");
+        advanceToStartElement();
+        if (isElement(BEAN) == false) {
+            throw new IllegalArgumentException("Expected root element 'bean' but found '" + reader.getName() + "'");
         }
-        Attribute attr = start.getAttributeByName(TYPE_QNAME);
-        if (attr == null && rootType == Bean.class) {
+        String typeStr = reader.getAttributeValue(null, TYPE);
+        if (typeStr == null && rootType == Bean.class) {
             throw new IllegalArgumentException("Root element attribute must specify '" + TYPE + "'");
         }
         Class<?> effectiveType = rootType;
-        if (attr != null) {
-            String typeStr = attr.getValue();
+        if (typeStr != null) {
             effectiveType = SerTypeMapper.decodeType(typeStr, settings, null, knownTypes);
             if (rootType.isAssignableFrom(effectiveType) == false) {
                 throw new IllegalArgumentException("Specified root type is incompatible with XML root type: " + rootType.getName() + " and " + effectiveType.getName());
@@ -229,34 +232,117 @@ public class JodaBeanXmlReader {
         return rootType.cast(parsed);
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Opens the input for a stream of beans.
+     * 
+     * @param input  the input stream, not null
+     * @throws Exception if an error occurs
+     */
+    void openStream(InputStream input) throws Exception {
+        reader = XML_FACTORY.createXMLStreamReader(input);
+    }
+
+    /**
+     * Opens the input for a stream of beans.
+     * 
+     * @param input  the input reader, not null
+     * @throws Exception if an error occurs
+     */
+    void openStream(Reader input) throws Exception {
+        reader = XML_FACTORY.createXMLStreamReader(input);
+    }
+
+    /**
+     * Moves from the start of the document to the element containing the stream of beans.
+     * <p>
+     * The root bean is not created, and properties not on the path are skipped.
+     * 
+     * @param path  the property names from the root bean to the collection, not empty
+     * @return true if the element was found, false if a property on the path is absent
+     * @throws Exception if an error occurs
+     */
+    boolean startStream(String[] path) throws Exception {
+        advanceToStartElement();
+        if (isElement(BEAN) == false) {
+            throw new IllegalArgumentException("Expected root element 'bean' but found '" + reader.getName() + "'");
+        }
+        // type names are shortened by the package of the root type, which is only needed as a string
+        String typeStr = reader.getAttributeValue(null, TYPE);
+        int lastDot = (typeStr != null ? typeStr.lastIndexOf('.') : -1);
+        basePackage = (lastDot >= 0 ? typeStr.substring(0, lastDot + 1) : null);
+        for (String name : path) {
+            if (advanceToChildElement(name) == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the next bean in the stream, which is discarded by this reader once returned.
+     * <p>
+     * Known types are retained, as types are only written in full on first use in a document.
+     * 
+     * @param declaredType  the declared type of each bean, not null
+     * @return the bean, null if the end of the collection has been reached
+     * @throws Exception if an error occurs
+     */
+    <T> T parseStreamBean(Class<T> declaredType) throws Exception {
+        int event = nextEvent(">strm ");
+        while (event != START_ELEMENT) {
+            if (event == END_ELEMENT) {
+                return null;
+            }
+            event = nextEvent(".strm ");
+        }
+        if (isElement(ITEM) == false) {
+            throw new IllegalArgumentException("Expected 'item' but found '" + reader.getName() + "'");
+        }
+        if (reader.getAttributeValue(null, NULL) != null) {
+            throw new IllegalArgumentException("Unable to read null item in stream of beans");
+        }
+        Class<?> childType = parseTypeAttribute(declaredType);
+        if (declaredType.isAssignableFrom(childType) == false) {
+            throw new IllegalArgumentException("Specified type is incompatible with XML item type: " + declaredType.getName() + " and " + childType.getName());
+        }
+        if (Bean.class.isAssignableFrom(childType) == false) {
+            throw new IllegalArgumentException("Item type is not a Joda-Bean: " + childType.getName());
+        }
+        return declaredType.cast(parseBean(childType));
+    }
+
+    /**
+     * Closes the input of a stream of beans.
+     * 
+     * @throws XMLStreamException if an error occurs
+     */
+    void closeStream() throws XMLStreamException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
     /**
      * Parses a logical bean in the input XML.
      * <p>
      * Return type allows for a non-bean to be returned.
+     * The reader must be at the start element of the bean.
      * 
      * @param beanType  the bean type, not null
      * @return the bean, not null
      */
-    @SuppressWarnings("null")
     private Object parseBean(final Class<?> beanType) throws Exception {
         String propName = "";
         try {
-            XMLEvent event = null;
+            int event;
             // handle case where whole bean is Joda-Convert string
             if (settings.getConverter().isConvertible(beanType)) {
-                StringBuilder buf = new StringBuilder();
-                while (reader.hasNext()) {
-                    event = nextEvent(">btxt ");
-                    if (event.isCharacters()) {
-                        buf.append(event.asCharacters().getData());
-                    } else if (event.isEndElement()) {
-                        return settings.getConverter().convertFromString(beanType, buf.toString());
-                    } else if (event.isStartElement()) {
-                        break;  // not serialized via Joda-Convert
-                    } else if (event.isEndDocument()) {
-                        throw new IllegalArgumentException("Unexpected end of document");
-                    }
+                String text = parseText(true);
+                if (text != null) {
+                    return settings.getConverter().convertFromString(beanType, text);
                 }
+                event = START_ELEMENT;  // not serialized via Joda-Convert
             } else {
                 event = nextEvent(">bean ");
             }
@@ -264,42 +350,39 @@ public class JodaBeanXmlReader {
             SerDeserializer deser = settings.getDeserializers().findDeserializer(beanType);
             MetaBean metaBean = deser.findMetaBean(beanType);
             BeanBuilder<?> builder = deser.createBuilder(beanType, metaBean);
+            SerPropertyCache cache = SerPropertyCache.of(deser, beanType, metaBean);
             // handle beans with structure
-            while (event.isEndElement() == false) {
-                if (event.isStartElement()) {
-                    StartElement start = event.asStartElement();
-                    propName = start.getName().getLocalPart();
-                    MetaProperty<?> metaProp = deser.findMetaProperty(beanType, metaBean, propName);
+            while (event != END_ELEMENT) {
+                if (event == START_ELEMENT) {
+                    // property name, looked up in the cache to avoid the deserializer on each element
+                    String localName = reader.getLocalName();
+                    SerPropertyCache.Entry entry = cache.find(localName);
+                    if (entry == null) {
+                        propName = localName;
+                        entry = cache.add(localName);
+                    }
+                    propName = entry.name();
+                    MetaProperty<?> metaProp = entry.metaProperty();
                     if (metaProp == null || metaProp.style().isDerived()) {
-                        int depth = 0;
-                        event = nextEvent(" skip ");
-                        while (event.isEndElement() == false || depth > 0) {
-                            if (event.isStartElement()) {
-                                depth++;
-                            } else if (event.isEndElement()) {
-                                depth--;
-                            }
-                            event = nextEvent(" skip ");
-                        }
-                        // skip elements
+                        skipElement();
                     } else {
-                        Class<?> childType = parseTypeAttribute(start, SerOptional.extractType(metaProp, beanType));
+                        Class<?> childType = parseTypeAttribute(SerOptional.extractType(metaProp, beanType));
                         Object value;
                         if (Bean.class.isAssignableFrom(childType)) {
                             value = parseBean(childType);
                         } else {
                             SerIterable iterable = settings.getIteratorFactory().createIterable(metaProp, beanType);
                             if (iterable != null) {
-                                value = parseIterable(start, iterable);
+                                value = parseIterable(iterable);
                             } else {
                                 // metatype
-                                Attribute metaTypeAttr = start.getAttributeByName(METATYPE_QNAME);
-                                if (metaTypeAttr != null) {
-                                    iterable = settings.getIteratorFactory().createIterable(metaTypeAttr.getValue(), settings, knownTypes);
+                                String metaType = reader.getAttributeValue(null, METATYPE);
+                                if (metaType != null) {
+                                    iterable = settings.getIteratorFactory().createIterable(metaType, settings, knownTypes);
                                     if (iterable == null) {
                                         throw new IllegalArgumentException("Invalid metaType");
                                     }
-                                    value = parseIterable(start, iterable);
+                                    value = parseIterable(iterable);
                                 } else {
                                     String text = advanceAndParseText();
                                     value = settings.getConverter().convertFromString(childType, text);
@@ -320,81 +403,78 @@ public class JodaBeanXmlReader {
 
     /**
      * Parses to a collection wrapper.
+     * <p>
+     * The reader must be at the start element of the collection.
      * 
      * @param iterable  the iterable builder, not null
      * @return the iterable, not null
      */
-    private Object parseIterable(final StartElement iterableEvent, final SerIterable iterable) throws Exception {
-        Attribute rowsAttr = iterableEvent.getAttributeByName(ROWS_QNAME);
-        Attribute columnsAttr = iterableEvent.getAttributeByName(COLS_QNAME);
-        if (rowsAttr != null && columnsAttr != null) {
-            iterable.dimensions(new int[] {Integer.parseInt(rowsAttr.getValue()), Integer.parseInt(columnsAttr.getValue())});
+    private Object parseIterable(final SerIterable iterable) throws Exception {
+        String rowsStr = reader.getAttributeValue(null, ROWS);
+        String columnsStr = reader.getAttributeValue(null, COLS);
+        if (rowsStr != null && columnsStr != null) {
+            iterable.dimensions(new int[] {Integer.parseInt(rowsStr), Integer.parseInt(columnsStr)});
         }
-        XMLEvent event = nextEvent(">iter ");
-        while (event.isEndElement() == false) {
-            if (event.isStartElement()) {
-                StartElement start = event.asStartElement();
-                QName expectedType = iterable.category() == SerCategory.MAP ? ENTRY_QNAME : ITEM_QNAME;
-                if (start.getName().equals(expectedType) == false) {
-                    throw new IllegalArgumentException("Expected '" + expectedType.getLocalPart() + "' but found '" + start.getName() + "'");
+        int event = nextEvent(">iter ");
+        while (event != END_ELEMENT) {
+            if (event == START_ELEMENT) {
+                String expectedType = iterable.category() == SerCategory.MAP ? ENTRY : ITEM;
+                if (isElement(expectedType) == false) {
+                    throw new IllegalArgumentException("Expected '" + expectedType + "' but found '" + reader.getName() + "'");
                 }
                 int count = 1;
                 Object key = null;
                 Object column = null;
                 Object value = null;
                 if (iterable.category() == SerCategory.COUNTED) {
-                    Attribute countAttr = start.getAttributeByName(COUNT_QNAME);
-                    if (countAttr != null) {
-                        count = Integer.parseInt(countAttr.getValue());
+                    String countStr = reader.getAttributeValue(null, COUNT);
+                    if (countStr != null) {
+                        count = Integer.parseInt(countStr);
                     }
-                    value = parseValue(iterable, start);
+                    value = parseValue(iterable);
                     
                 } else if (iterable.category() == SerCategory.TABLE || iterable.category() == SerCategory.GRID) {
-                    Attribute rowAttr = start.getAttributeByName(ROW_QNAME);
-                    Attribute colAttr = start.getAttributeByName(COL_QNAME);
-                    if (rowAttr == null || colAttr == null) {
+                    String rowStr = reader.getAttributeValue(null, ROW);
+                    String colStr = reader.getAttributeValue(null, COL);
+                    if (rowStr == null || colStr == null) {
                         throw new IllegalArgumentException("Unable to read table as row/col attribute missing");
                     }
-                    String rowStr = rowAttr.getValue();
                     if (iterable.keyType() != null) {
                         key = settings.getConverter().convertFromString(iterable.keyType(), rowStr);
                     } else {
                         key = rowStr;
                     }
-                    String colStr = colAttr.getValue();
                     if (iterable.columnType() != null) {
                         column = settings.getConverter().convertFromString(iterable.columnType(), colStr);
                     } else {
                         column = colStr;
                     }
-                    value = parseValue(iterable, start);
+                    value = parseValue(iterable);
                     
                 } else if (iterable.category() == SerCategory.MAP) {
-                    Attribute keyAttr = start.getAttributeByName(KEY_QNAME);
-                    if (keyAttr != null) {
+                    String keyStr = reader.getAttributeValue(null, KEY);
+                    if (keyStr != null) {
                         // item is value with a key attribute
-                        String keyStr = keyAttr.getValue();
                         if (iterable.keyType() != null) {
                             key = settings.getConverter().convertFromString(iterable.keyType(), keyStr);
                         } else {
                             key = keyStr;
                         }
-                        value = parseValue(iterable, start);
+                        value = parseValue(iterable);
                         
                     } else {
                         // two items nested in this entry
                         event = nextEvent(">>map ");
                         int loop = 0;
-                        while (event.isEndElement() == false) {
-                            if (event.isStartElement()) {
-                                start = event.asStartElement();
-                                if (start.getName().equals(ITEM_QNAME) == false) {
-                                    throw new IllegalArgumentException("Expected 'item' but found '" + start.getName() + "'");
+                        while (event != END_ELEMENT) {
+                            if (event == START_ELEMENT) {
+                                if (isElement(ITEM) == false) {
+                                    throw new IllegalArgumentException("Expected 'item' but found '" + reader.getName() + "'");
                                 }
                                 if (key == null) {
-                                    key = parseKey(iterable, start);
+                                    key = parseKey(iterable);
                                 } else {
-                                    value = parseValue(iterable, start);
+                                    value = parseValue(iterable);
                                 }
                                 loop++;
                             }
@@ -406,7 +486,7 @@ public class JodaBeanXmlReader {
                     }                    
                     
                 } else {  // COLLECTION
-                    value = parseValue(iterable, start);
+                    value = parseValue(iterable);
                 }
                 iterable.add(key, column, value, count);
             }
@@ -415,9 +495,10 @@ public class JodaBeanXmlReader {
         return iterable.build();
     }
 
-    private Object parseKey(final SerIterable iterable, StartElement start) throws Exception {
+    // reader must be at the start element of the key
+    private Object parseKey(final SerIterable iterable) throws Exception {
         // type
-        Class<?> childType = parseTypeAttribute(start, iterable.keyType());
+        Class<?> childType = parseTypeAttribute(iterable.keyType());
         if (Bean.class.isAssignableFrom(childType) || settings.getConverter().isConvertible(childType)) {
             return parseBean(childType);
         } else if (childType.isAssignableFrom(String.class)) {
@@ -427,35 +508,36 @@ public class JodaBeanXmlReader {
         }
     }
 
-    private Object parseValue(final SerIterable iterable, StartElement start) throws Exception {
+    // reader must be at the start element of the value
+    private Object parseValue(final SerIterable iterable) throws Exception {
         // null
         Object value;
-        Attribute nullAttr = start.getAttributeByName(NULL_QNAME);
-        if (nullAttr != null) {
-            if (nullAttr.getValue().equals("true") == false) {
+        String nullStr = reader.getAttributeValue(null, NULL);
+        if (nullStr != null) {
+            if (nullStr.equals("true") == false) {
                 throw new IllegalArgumentException("Unexpected value for null attribute");
             }
             advanceAndParseText();  // move to end tag and ignore any text
             value = null;
         } else {
             // type
-            Class<?> childType = parseTypeAttribute(start, iterable.valueType());
+            Class<?> childType = parseTypeAttribute(iterable.valueType());
             if (Bean.class.isAssignableFrom(childType)) {
                 value = parseBean(childType);
             } else {
                 // try deep generic parameters
                 SerIterable childIterable = settings.getIteratorFactory().createIterable(iterable);
                 if (childIterable != null) {
-                    value = parseIterable(start, childIterable);
+                    value = parseIterable(childIterable);
                 } else {
                     // metatype
-                    Attribute metaTypeAttr = start.getAttributeByName(METATYPE_QNAME);
-                    if (metaTypeAttr != null) {
-                        childIterable = settings.getIteratorFactory().createIterable(metaTypeAttr.getValue(), settings, knownTypes);
+                    String metaType = reader.getAttributeValue(null, METATYPE);
+                    if (metaType != null) {
+                        childIterable = settings.getIteratorFactory().createIterable(metaType, settings, knownTypes);
                         if (childIterable == null) {
                             throw new IllegalArgumentException("Invalid metaType");
                         }
-                        value = parseIterable(start, childIterable);
+                        value = parseIterable(childIterable);
                     } else {
                         String text = advanceAndParseText();
                         value = settings.getConverter().convertFromString(childType, text);
@@ -467,46 +549,121 @@ public class JodaBeanXmlReader {
     }
 
     //-----------------------------------------------------------------------
-    private Class<?> parseTypeAttribute(StartElement start, Class<?> defaultType) throws ClassNotFoundException {
-        Attribute typeAttr = start.getAttributeByName(TYPE_QNAME);
-        if (typeAttr == null) {
+    // reader must be at a start element
+    private Class<?> parseTypeAttribute(Class<?> defaultType) throws ClassNotFoundException {
+        String typeStr = reader.getAttributeValue(null, TYPE);
+        if (typeStr == null) {
             return (defaultType == Object.class ? String.class : defaultType);
         }
-        String typeStr = typeAttr.getValue();
         return settings.getDeserializers().decodeType(typeStr, settings, basePackage, knownTypes, defaultType);
     }
 
+    // reader must be at a start element, checks the local name and that there is no namespace
+    private boolean isElement(String localName) {
+        String namespace = reader.getNamespaceURI();
+        return reader.getLocalName().equals(localName) && (namespace == null || namespace.isEmpty());
+    }
+
     // reader can be anywhere, but normally at StartDocument
-    private StartElement advanceToStartElement() throws Exception {
+    private void advanceToStartElement() throws Exception {
         while (reader.hasNext()) {
-            XMLEvent event = nextEvent("advnc ");
-            if (event.isStartElement()) {
-                return event.asStartElement();
+            if (nextEvent("advnc ") == START_ELEMENT) {
+                return;
             }
         }
         throw new IllegalArgumentException("Unexpected end of document");
     }
 
+    // reader must be at a start element, moves to the start of the named child element
+    // returns false if the element ends first, leaving the reader at the end element
+    private boolean advanceToChildElement(String localName) throws Exception {
+        int event = nextEvent(">chld ");
+        while (event != END_ELEMENT) {
+            if (event == START_ELEMENT) {
+                if (isElement(localName)) {
+                    return true;
+                }
+                skipElement();
+            }
+            event = nextEvent(".chld ");
+        }
+        return false;
+    }
+
+    // reader must be at a start element, moves to the matching end element
+    // type names are only written in full on first use in a document, thus they are recorded while skipping
+    private void skipElement() throws Exception {
+        recordTypeAttributes();
+        int depth = 0;
+        int event = nextEvent(" skip ");
+        while (event != END_ELEMENT || depth > 0) {
+            if (event == START_ELEMENT) {
+                depth++;
+                recordTypeAttributes();
+            } else if (event == END_ELEMENT) {
+                depth--;
+            }
+            event = nextEvent(" skip ");
+        }
+    }
+
+    // reader must be at a start element, adds the type and meta-type to the known types
+    // types that cannot be decoded are ignored, as the element is not needed
+    private void recordTypeAttributes() {
+        try {
+            String typeStr = reader.getAttributeValue(null, TYPE);
+            if (typeStr != null) {
+                settings.getDeserializers().decodeType(typeStr, settings, basePackage, knownTypes, Object.class);
+            }
+            String metaType = reader.getAttributeValue(null, METATYPE);
+            if (metaType != null) {
+                settings.getIteratorFactory().createIterable(metaType, settings, knownTypes);
+            }
+        } catch (ClassNotFoundException | RuntimeException ex) {
+            // ignore, as the element is being skipped
+        }
+    }
+
     // reader must be at StartElement
     private String advanceAndParseText() throws Exception {
-        StringBuilder buf = new StringBuilder();
+        return parseText(false);
+    }
+
+    // reader must be at a start element, parses the text up to the end element
+    // a single block of text is returned directly, avoiding a copy
+    // if a start element is found, returns null if allowed, leaving the reader at the start element
+    private String parseText(boolean allowStartElement) throws Exception {
+        String text = null;
+        StringBuilder buf = null;
         while (reader.hasNext()) {
-            XMLEvent event = nextEvent("text  ");
-            if (event.isCharacters()) {
-                buf.append(event.asCharacters().getData());
-            } else if (event.isEndElement()) {
-                return buf.toString();
-            } else if (event.isStartElement()) {
+            int event = nextEvent("text  ");
+            if (event == CHARACTERS || event == CDATA || event == SPACE) {
+                if (text == null) {
+                    text = reader.getText();
+                } else {
+                    if (buf == null) {
+                        buf = new StringBuilder(text);
+                    }
+                    buf.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+            } else if (event == END_ELEMENT) {
+                return buf != null ? buf.toString() : text != null ? text : "";
+            } else if (event == START_ELEMENT) {
+                if (allowStartElement) {
+                    return null;
+                }
                 throw new IllegalArgumentException("Unexpected start tag");
+            } else if (event == END_DOCUMENT) {
+                break;
             }
         }
         throw new IllegalArgumentException("Unexpected end of document");
     }
 
     // provide for debugging
-    private XMLEvent nextEvent(String location) throws Exception {
-        XMLEvent event = reader.nextEvent();
-//        System.out.println(location + event.toString().replace('\n', ' ') + " " + event.getClass().getSimpleName());
+    private int nextEvent(String location) throws Exception {
+        int event = reader.next();
+//        System.out.println(location + event + " " + (reader.hasName() ? reader.getLocalName() : ""));
         return event;
     }
 
@@ -29,15 +29,20 @@ import static org.joda.beans.ser.xml.JodaBeanXml.ROWS;
 import static org.joda.beans.ser.xml.JodaBeanXml.TYPE;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.joda.beans.Bean;
+import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.ser.JodaBeanSer;
 import org.joda.beans.ser.SerCategory;
+import org.joda.beans.ser.SerCompression;
 import org.joda.beans.ser.SerIterator;
 import org.joda.beans.ser.SerOptional;
+import org.joda.beans.ser.SerPropertyNames;
 import org.joda.beans.ser.SerTypeMapper;
 import org.joda.convert.StringConverter;
 
@@ -63,9 +68,51 @@ import org.joda.convert.StringConverter;
  * <p>
  * Type names are shortened by the package of the root type if possible.
  * Certain basic types are also handled, such as String, Integer, File and URI.
+ * <p>
+ * When writing to an {@code OutputStream}, the UTF-8 bytes are encoded directly using
+ * a fixed-size buffer, thus memory usage does not depend on the size of the document.
  */
 public class JodaBeanXmlWriter {
 
+    /**
+     * The escaped form of each ASCII character in text, null if not escaped.
+     * Control characters that are not in the table are invalid.
+     */
+    static final String[] TEXT_ESCAPES = new String[128];
+    /**
+     * The escaped form of each ASCII character in an attribute, null if not escaped.
+     * Control characters that are not in the table are invalid.
+     */
+    static final String[] ATTRIBUTE_ESCAPES = new String[128];
+    static {
+        TEXT_ESCAPES['&'] = "&amp;";
+        TEXT_ESCAPES['<'] = "&lt;";
+        TEXT_ESCAPES['>'] = "&gt;";
+        TEXT_ESCAPES['\t'] = "\t";
+        TEXT_ESCAPES['\n'] = "\n";
+        TEXT_ESCAPES['\r'] = "\r";
+        ATTRIBUTE_ESCAPES['&'] = "&amp;";
+        ATTRIBUTE_ESCAPES['<'] = "&lt;";
+        ATTRIBUTE_ESCAPES['>'] = "&gt;";
+        ATTRIBUTE_ESCAPES['"'] = "&quot;";
+        ATTRIBUTE_ESCAPES['\''] = "&apos;";
+        ATTRIBUTE_ESCAPES['\t'] = "&#09;";
+        ATTRIBUTE_ESCAPES['\n'] = "&#0A;";
+        ATTRIBUTE_ESCAPES['\r'] = "&#0D;";
+    }
+    /**
+     * The tag for items.
+     */
+    private static final XmlTag ITEM_TAG = new XmlTag(ITEM);
+    /**
+     * The tag for entries.
+     */
+    private static final XmlTag ENTRY_TAG = new XmlTag(ENTRY);
+    /**
+     * The tags for each property, shared by all writers.
+     */
+    private static final SerPropertyNames<XmlTag> PROPERTY_TAGS = new SerPropertyNames<>(XmlTag::new, XmlTag[]::new);
+
     /**
      * The settings to use.
      */
@@ -78,6 +125,10 @@ public class JodaBeanXmlWriter {
      * The location to output to.
      */
     private Appendable output;
+    /**
+     * The UTF-8 output, null if writing to an {@code Appendable}.
+     */
+    private XmlUtf8Appendable utf8;
     /**
      * The root bean.
      */
@@ -192,6 +243,55 @@ public class JodaBeanXmlWriter {
         if (bean == null) {
             throw new NullPointerException("bean");
         }
+        this.utf8 = null;
+        writeRoot(bean, rootType, output);
+    }
+
+    /**
+     * Writes the bean to the {@code OutputStream} in UTF-8.
+     * <p>
+     * The type of the bean will be set in the message.
+     * If compression is enabled in the settings, the data is compressed.
+     *
+     * @param bean  the bean to output, not null
+     * @param output  the output stream, not null
+     * @throws IOException if an error occurs
+     */
+    public void writeTo(Bean bean, OutputStream output) throws IOException {
+        writeTo(bean, true, output);
+    }
+
+    /**
+     * Writes the bean to the {@code OutputStream} in UTF-8 specifying whether to include the type at the root.
+     * <p>
+     * The UTF-8 bytes are encoded directly, without an intermediate string, using a fixed-size buffer.
+     * If compression is enabled in the settings, the data is compressed.
+     *
+     * @param bean  the bean to output, not null
+     * @param rootType  true to output the root type
+     * @param output  the output stream, not null
+     * @throws IOException if an error occurs
+     */
+    public void writeTo(Bean bean, boolean rootType, OutputStream output) throws IOException {
+        if (bean == null) {
+            throw new NullPointerException("bean");
+        }
+        if (output == null) {
+            throw new NullPointerException("output");
+        }
+        OutputStream compressed = settings.getCompression().compress(output);
+        try {
+            this.utf8 = new XmlUtf8Appendable(compressed);
+            writeRoot(bean, rootType, utf8);
+            utf8.flush();
+            SerCompression.finish(compressed);
+        } finally {
+            SerCompression.end(compressed);
+        }
+    }
+
+    // writes the root bean to the appendable
+    private void writeRoot(Bean bean, boolean rootType, Appendable output) throws IOException {
         this.output = output;
         this.rootBean = bean;
         this.basePackage = (rootType ? bean.getClass().getPackage().getName() + "." : null);
@@ -222,24 +322,27 @@ public class JodaBeanXmlWriter {
     }
 
     private void writeBean(Bean bean, String currentIndent) throws IOException {
-        for (MetaProperty<?> prop : bean.metaBean().metaPropertyIterable()) {
+        MetaBean metaBean = bean.metaBean();
+        XmlTag[] tags = PROPERTY_TAGS.encoded(metaBean);
+        int index = 0;
+        for (MetaProperty<?> prop : metaBean.metaPropertyIterable()) {
+            XmlTag propTag = tags[index++];
             if (prop.style().isSerializable() || (prop.style().isDerived() && settings.isIncludeDerived())) {
                 Object value = SerOptional.extractValue(prop, bean);
                 if (value != null) {
-                    String propName = prop.name();
                     Class<?> propType = SerOptional.extractType(prop, bean.getClass());
                     if (value instanceof Bean) {
                         if (settings.getConverter().isConvertible(value.getClass())) {
-                            writeSimple(currentIndent, propName, new StringBuilder(), propType, value);
+                            writeSimple(currentIndent, propTag, new StringBuilder(), propType, value);
                         } else {
-                            writeBean(currentIndent, propName, new StringBuilder(), propType, (Bean) value);
+                            writeBean(currentIndent, propTag, new StringBuilder(), propType, (Bean) value);
                         }
                     } else {
                         SerIterator itemIterator = settings.getIteratorFactory().create(value, prop, bean.getClass());
                         if (itemIterator != null) {
-                            writeElements(currentIndent, propName, new StringBuilder(), itemIterator);
+                            writeElements(currentIndent, propTag, new StringBuilder(), itemIterator);
                         } else {
-                            writeSimple(currentIndent, propName, new StringBuilder(), propType, value);
+                            writeSimple(currentIndent, propTag, new StringBuilder(), propType, value);
                         }
                     }
                 }
@@ -248,11 +351,11 @@ public class JodaBeanXmlWriter {
     }
 
     //-----------------------------------------------------------------------
-    private void writeBean(String currentIndent, String tagName, StringBuilder attrs, Class<?> propType, Bean value) throws IOException {
+    private void writeBean(String currentIndent, XmlTag tagName, StringBuilder attrs, Class<?> propType, Bean value) throws IOException {
         if (value == null) {
             throw new IllegalArgumentException("Bean cannot be null");
         }
-        output.append(currentIndent).append('<').append(tagName).append(attrs);
+        appendStartTag(currentIndent, tagName).append(attrs);
         if (value.getClass() != propType) {
             String typeStr = SerTypeMapper.encodeType(value.getClass(), settings, basePackage, knownTypes);
             appendAttribute(output, TYPE, typeStr);
@@ -260,14 +363,14 @@ public class JodaBeanXmlWriter {
         if (willWriteBean(value)) {
             output.append('>').append(settings.getNewLine());
             writeBean(value, currentIndent + settings.getIndent());
-            output.append(currentIndent).append('<').append('/').append(tagName).append('>').append(settings.getNewLine());
+            appendEndTag(currentIndent, tagName).append(settings.getNewLine());
         } else {
             output.append('/').append('>').append(settings.getNewLine());
         }
     }
 
     //-----------------------------------------------------------------------
-    private void writeElements(String currentIndent, String tagName, StringBuilder attrs, SerIterator itemIterator) throws IOException {
+    private void writeElements(String currentIndent, XmlTag tagName, StringBuilder attrs, SerIterator itemIterator) throws IOException {
         if (itemIterator.metaTypeRequired()) {
             appendAttribute(attrs, METATYPE, itemIterator.metaTypeName());
         }
@@ -276,11 +379,11 @@ public class JodaBeanXmlWriter {
             appendAttribute(attrs, COLS, Integer.toString(itemIterator.dimensionSize(1)));
         }
         if (itemIterator.size() == 0) {
-            output.append(currentIndent).append('<').append(tagName).append(attrs).append('/').append('>').append(settings.getNewLine());
+            appendStartTag(currentIndent, tagName).append(attrs).append('/').append('>').append(settings.getNewLine());
         } else {
-            output.append(currentIndent).append('<').append(tagName).append(attrs).append('>').append(settings.getNewLine());
+            appendStartTag(currentIndent, tagName).append(attrs).append('>').append(settings.getNewLine());
             writeElements(currentIndent + settings.getIndent(), itemIterator);
-            output.append(currentIndent).append('<').append('/').append(tagName).append('>').append(settings.getNewLine());
+            appendEndTag(currentIndent, tagName).append(settings.getNewLine());
         }
     }
 
@@ -328,12 +431,12 @@ public class JodaBeanXmlWriter {
             }
             if (keyBean) {
                 Object key = itemIterator.key();
-                output.append(currentIndent).append('<').append(ENTRY).append(attr).append('>').append(settings.getNewLine());
+                appendStartTag(currentIndent, ENTRY_TAG).append(attr).append('>').append(settings.getNewLine());
                 writeKeyElement(currentIndent + settings.getIndent(), key, itemIterator);
-                writeValueElement(currentIndent + settings.getIndent(), ITEM, new StringBuilder(), itemIterator);
-                output.append(currentIndent).append('<').append('/').append(ENTRY).append('>').append(settings.getNewLine());
+                writeValueElement(currentIndent + settings.getIndent(), ITEM_TAG, new StringBuilder(), itemIterator);
+                appendEndTag(currentIndent, ENTRY_TAG).append(settings.getNewLine());
             } else {
-                String tagName = itemIterator.category() == SerCategory.MAP ? ENTRY : ITEM;
+                XmlTag tagName = itemIterator.category() == SerCategory.MAP ? ENTRY_TAG : ITEM_TAG;
                 writeValueElement(currentIndent, tagName, attr, itemIterator);
             }
         }
@@ -356,25 +459,25 @@ public class JodaBeanXmlWriter {
         }
         // if key type is known and convertible use short key format
         if (settings.getConverter().isConvertible(itemIterator.keyType())) {
-            writeSimple(currentIndent, ITEM, new StringBuilder(), Object.class, key);
+            writeSimple(currentIndent, ITEM_TAG, new StringBuilder(), Object.class, key);
         } else if (key instanceof Bean) {
-            writeBean(currentIndent, ITEM, new StringBuilder(), itemIterator.keyType(), (Bean) key);
+            writeBean(currentIndent, ITEM_TAG, new StringBuilder(), itemIterator.keyType(), (Bean) key);
         } else {
             // this case covers where the key type is not known, such as an Object meta-property
             try {
-                writeSimple(currentIndent, ITEM, new StringBuilder(), Object.class, key);
+                writeSimple(currentIndent, ITEM_TAG, new StringBuilder(), Object.class, key);
             } catch (RuntimeException ex) {
                 throw new IllegalArgumentException("Unable to write map as declared key type is neither a bean nor a simple type: " + itemIterator.keyType().getName(), ex);
             }
         }
     }
 
-    private void writeValueElement(String currentIndent, String tagName, StringBuilder attrs, SerIterator itemIterator) throws IOException {
+    private void writeValueElement(String currentIndent, XmlTag tagName, StringBuilder attrs, SerIterator itemIterator) throws IOException {
         Object value = itemIterator.value();
         Class<?> valueType = itemIterator.valueType();
         if (value == null) {
             appendAttribute(attrs, NULL, "true");
-            output.append(currentIndent).append('<').append(tagName).append(attrs).append("/>").append(settings.getNewLine());
+            appendStartTag(currentIndent, tagName).append(attrs).append("/>").append(settings.getNewLine());
         } else if (value instanceof Bean) {
             if (settings.getConverter().isConvertible(value.getClass())) {
                 writeSimple(currentIndent, tagName, attrs, valueType, value);
@@ -392,7 +495,7 @@ public class JodaBeanXmlWriter {
     }
 
     //-----------------------------------------------------------------------
-    private void writeSimple(String currentIndent, String tagName, StringBuilder attrs, Class<?> declaredType, Object value) throws IOException {
+    private void writeSimple(String currentIndent, XmlTag tagName, StringBuilder attrs, Class<?> declaredType, Object value) throws IOException {
         Class<?> effectiveType;
         if (declaredType == Object.class) {
             Class<?> realType = value.getClass();
@@ -415,42 +518,56 @@ public class JodaBeanXmlWriter {
             if (converted == null) {
                 throw new IllegalArgumentException("Unable to write because converter returned a null string: " + value);
             }
-            output.append(currentIndent).append('<').append(tagName).append(attrs).append('>');
+            appendStartTag(currentIndent, tagName).append(attrs).append('>');
             appendEncoded(converted);
-            output.append('<').append('/').append(tagName).append('>').append(settings.getNewLine());
+            appendEndTag("", tagName).append(settings.getNewLine());
         } catch (RuntimeException ex) {
             throw new IllegalArgumentException("Unable to convert type " + effectiveType.getName() + " declared as " + declaredType.getName(), ex);
         }
     }
 
     private void appendEncoded(String text) throws IOException {
+        if (utf8 != null) {
+            utf8.appendText(text);
+            return;
+        }
         for (int i = 0; i < text.length(); i++) {
             char ch = text.charAt(i);
-            switch (ch) {
-                case '&':
-                    output.append("&amp;");
-                    break;
-                case '<':
-                    output.append("&lt;");
-                    break;
-                case '>':
-                    output.append("&gt;");
-                    break;
-                case '\t':
-                case '\n':
-                case '\r':
-                    output.append(ch);
-                    break;
-                default:
-                    if ((int) ch < 32) {
-                        throw new IllegalArgumentException("Invalid character for XML: " + ((int) ch));
-                    }
-                    output.append(ch);
-                    break;
+            if (ch < 128) {
+                String escape = TEXT_ESCAPES[ch];
+                if (escape != null) {
+                    output.append(escape);
+                    continue;
+                } else if (ch < 32) {
+                    throw new IllegalArgumentException("Invalid character for XML: " + ((int) ch));
+                }
             }
+            output.append(ch);
         }
     }
 
+    // appends the indent and the start of the tag, without the closing bracket
+    private Appendable appendStartTag(String currentIndent, XmlTag tag) throws IOException {
+        output.append(currentIndent);
+        if (utf8 != null) {
+            utf8.appendBytes(tag.startBytes);
+        } else {
+            output.append(tag.start);
+        }
+        return output;
+    }
+
+    // appends the indent and the end tag
+    private Appendable appendEndTag(String currentIndent, XmlTag tag) throws IOException {
+        output.append(currentIndent);
+        if (utf8 != null) {
+            utf8.appendBytes(tag.endBytes);
+        } else {
+            output.append(tag.end);
+        }
+        return output;
+    }
+
     //-----------------------------------------------------------------------
     private void appendAttribute(Appendable buf, String attrName, String encodedValue) throws IOException {
         buf.append(' ').append(attrName).append('=').append('\"').append(encodedValue).append('\"');
@@ -466,40 +583,48 @@ public class JodaBeanXmlWriter {
     private StringBuilder appendEncodedAttribute(StringBuilder builder, String text) {
         for (int i = 0; i < text.length(); i++) {
             char ch = text.charAt(i);
-            switch (ch) {
-                case '&':
-                    builder.append("&amp;");
-                    break;
-                case '<':
-                    builder.append("&lt;");
-                    break;
-                case '>':
-                    builder.append("&gt;");
-                    break;
-                case '"':
-                    builder.append("&quot;");
-                    break;
-                case '\'':
-                    builder.append("&apos;");
-                    break;
-                case '\t':
-                    builder.append("&#09;");
-                    break;
-                case '\n':
-                    builder.append("&#0A;");
-                    break;
-                case '\r':
-                    builder.append("&#0D;");
-                    break;
-                default:
-                    if ((int) ch < 32) {
-                        throw new IllegalArgumentException("Invalid character for XML: " + ((int) ch));
-                    }
-                    builder.append(ch);
-                    break;
+            if (ch < 128) {
+                String escape = ATTRIBUTE_ESCAPES[ch];
+                if (escape != null) {
+                    builder.append(escape);
+                    continue;
+                } else if (ch < 32) {
+                    throw new IllegalArgumentException("Invalid character for XML: " + ((int) ch));
+                }
             }
+            builder.append(ch);
         }
         return builder;
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * The start and end of an element, encoded once for each property name.
+     */
+    private static final class XmlTag {
+        /**
+         * The start of the tag, without the closing bracket.
+         */
+        private final String start;
+        /**
+         * The end tag.
+         */
+        private final String end;
+        /**
+         * The start of the tag in UTF-8.
+         */
+        private final byte[] startBytes;
+        /**
+         * The end tag in UTF-8.
+         */
+        private final byte[] endBytes;
+
+        XmlTag(String name) {
+            this.start = "<" + name;
+            this.end = "</" + name + ">";
+            this.startBytes = start.getBytes(StandardCharsets.UTF_8);
+            this.endBytes = end.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
 }
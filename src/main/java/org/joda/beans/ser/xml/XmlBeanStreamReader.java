@@ -0,0 +1,235 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.xml;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.ser.JodaBeanSer;
+
+/**
+ * Provides the ability to read the beans of a large collection in an XML document one at a time.
+ * <p>
+ * This class contains mutable state and cannot be used from multiple threads.
+ * <p>
+ * The document is in the format defined by {@link JodaBeanXmlWriter}.
+ * The path is formed from the names of properties separated by '/', starting from a property of the root bean,
+ * such as "orders" or "portfolio/trades". The property at the end of the path must be a collection, such as
+ * a list, whose items are beans. The root bean and the beans on the path are not created, and properties
+ * that are not on the path are skipped. If a property on the path is absent, there are no beans.
+ * <p>
+ * Each item is parsed when the iterator is advanced and is not retained,
+ * thus memory usage does not depend on the number of items in the collection.
+ * Anything in the document after the collection is not read.
+ *
+ * @param <T>  the type of the beans in the collection
+ */
+public final class XmlBeanStreamReader<T> implements Iterator<T>, Closeable {
+
+    /**
+     * The input to close.
+     */
+    private final Closeable input;
+    /**
+     * The parser, which retains the known types and property name caches.
+     */
+    private final JodaBeanXmlReader parser;
+    /**
+     * The property names from the root bean to the collection.
+     */
+    private final String[] path;
+    /**
+     * The declared type of each bean.
+     */
+    private final Class<T> beanType;
+    /**
+     * Whether the collection has been found.
+     */
+    private boolean started;
+    /**
+     * Whether the end of the collection has been reached.
+     */
+    private boolean finished;
+    /**
+     * The next bean, null if not yet read.
+     */
+    private T next;
+
+    //-----------------------------------------------------------------------
+    /**
+     * Creates an instance reading from a stream of bytes.
+     * <p>
+     * The encoding is determined from the XML declaration, defaulting to UTF-8.
+     *
+     * @param settings  the settings, not null
+     * @param input  the input stream, not null
+     * @param path  the property names from the root bean to the collection, separated by '/', not empty
+     * @param beanType  the declared type of each bean, not null
+     */
+    public XmlBeanStreamReader(JodaBeanSer settings, InputStream input, String path, Class<T> beanType) {
+        JodaBeanUtils.notNull(settings, "settings");
+        JodaBeanUtils.notNull(input, "input");
+        JodaBeanUtils.notNull(beanType, "beanType");
+        this.input = input;
+        this.parser = new JodaBeanXmlReader(settings);
+        this.path = parsePath(path);
+        this.beanType = beanType;
+        try {
+            parser.openStream(input);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Creates an instance reading from a reader.
+     *
+     * @param settings  the settings, not null
+     * @param input  the input reader, not null
+     * @param path  the property names from the root bean to the collection, separated by '/', not empty
+     * @param beanType  the declared type of each bean, not null
+     */
+    public XmlBeanStreamReader(JodaBeanSer settings, Reader input, String path, Class<T> beanType) {
+        JodaBeanUtils.notNull(settings, "settings");
+        JodaBeanUtils.notNull(input, "input");
+        JodaBeanUtils.notNull(beanType, "beanType");
+        this.input = input;
+        this.parser = new JodaBeanXmlReader(settings);
+        this.path = parsePath(path);
+        this.beanType = beanType;
+        try {
+            parser.openStream(input);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    // splits the path into property names
+    private static String[] parsePath(String path) {
+        JodaBeanUtils.notEmpty(path, "path");
+        String[] names = path.split("/", -1);
+        for (String name : names) {
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Invalid path, property name must not be empty: " + path);
+            }
+        }
+        return names;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if there is another bean in the collection.
+     *
+     * @return true if there is another bean
+     * @throws RuntimeException if unable to read or parse
+     */
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            if (!started) {
+                started = true;
+                if (!parser.startStream(path)) {
+                    finished = true;
+                    return false;
+                }
+            }
+            next = parser.parseStreamBean(beanType);
+            if (next == null) {
+                finished = true;
+                return false;
+            }
+            return true;
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Reads the next bean from the collection.
+     *
+     * @return the bean, not null
+     * @throws NoSuchElementException if there are no more beans
+     * @throws RuntimeException if unable to read or parse
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Returns a sequential stream of the remaining beans.
+     * <p>
+     * Closing the returned stream closes this reader.
+     *
+     * @return the stream of beans, not null
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+    }
+
+    /**
+     * Closes the underlying input.
+     *
+     * @throws IOException if an error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            parser.closeStream();
+        } catch (XMLStreamException ex) {
+            throw new IOException(ex);
+        } finally {
+            input.close();
+        }
+    }
+
+}
@@ -74,6 +74,57 @@ public class TestSerDeserializerProvider {
         assertSame(deser.findDeserializer(Person.class), DESER);
     }
 
+    @Test
+    public void test_registerAfterFind() {
+        SerDeserializers deser = new SerDeserializers();
+        assertSame(deser.findDeserializer(Person.class), DefaultDeserializer.INSTANCE);
+        deser.register(Person.class, DESER);
+        assertSame(deser.findDeserializer(Person.class), DESER);
+    }
+
+    @Test
+    public void test_registerProviderAfterFind() {
+        SerDeserializers deser = new SerDeserializers();
+        assertSame(deser.findDeserializer(Person.class), DefaultDeserializer.INSTANCE);
+        deser.registerProvider(PROVIDER);
+        assertSame(deser.findDeserializer(Person.class), DESER);
+    }
+
+    @Test
+    public void test_modifyMapAfterFind() {
+        SerDeserializers deser = new SerDeserializers();
+        assertSame(deser.findDeserializer(Person.class), DefaultDeserializer.INSTANCE);
+        deser.getDeserializers().put(Person.class, DESER);
+        assertSame(deser.findDeserializer(Person.class), DESER);
+        deser.getDeserializers().remove(Person.class);
+        assertSame(deser.findDeserializer(Person.class), DefaultDeserializer.INSTANCE);
+    }
+
+    @Test
+    public void test_modifyMapAfterFindFromProvider() {
+        SerDeserializers deser = new SerDeserializers(PROVIDER);
+        assertSame(deser.findDeserializer(Person.class), DESER);
+        deser.getDeserializers().put(Person.class, LenientDeserializer.INSTANCE);
+        assertSame(deser.findDeserializer(Person.class), LenientDeserializer.INSTANCE);
+        deser.getDeserializers().remove(Person.class);
+        assertSame(deser.findDeserializer(Person.class), DESER);
+    }
+
+    @Test
+    public void test_modifyMapViewsAfterFind() {
+        SerDeserializers deser = new SerDeserializers();
+        deser.getDeserializers().put(Person.class, DESER);
+        assertSame(deser.findDeserializer(Person.class), DESER);
+        deser.getDeserializers().entrySet().stream()
+                .filter(e -> e.getKey() == Person.class)
+                .forEach(e -> e.setValue(LenientDeserializer.INSTANCE));
+        assertSame(deser.findDeserializer(Person.class), LenientDeserializer.INSTANCE);
+        deser.getDeserializers().keySet().removeIf(type -> type == Person.class);
+        assertSame(deser.findDeserializer(Person.class), DefaultDeserializer.INSTANCE);
+        deser.getDeserializers().computeIfAbsent(Person.class, type -> DESER);
+        assertSame(deser.findDeserializer(Person.class), DESER);
+    }
+
     @Test
     public void test_classpathImmKey() {
         assertTrue(SerDeserializers.INSTANCE.getDeserializers().containsKey(ImmKey.class));
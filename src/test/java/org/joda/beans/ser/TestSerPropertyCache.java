@@ -0,0 +1,125 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.NoSuchElementException;
+
+import org.joda.beans.impl.flexi.FlexiBean;
+import org.joda.beans.sample.Address;
+import org.joda.beans.sample.ImmPerson;
+import org.joda.beans.sample.Person;
+import org.junit.Test;
+
+/**
+ * Test property name cache.
+ */
+public class TestSerPropertyCache {
+
+    @Test
+    public void test_of_shared() {
+        SerPropertyCache test = SerPropertyCache.of(DefaultDeserializer.INSTANCE, ImmPerson.class, ImmPerson.meta());
+        assertSame(SerPropertyCache.of(DefaultDeserializer.INSTANCE, ImmPerson.class, ImmPerson.meta()), test);
+        SerPropertyCache lenient = SerPropertyCache.of(LenientDeserializer.INSTANCE, ImmPerson.class, ImmPerson.meta());
+        assertNotSame(lenient, test);
+        assertSame(SerPropertyCache.of(LenientDeserializer.INSTANCE, ImmPerson.class, ImmPerson.meta()), lenient);
+    }
+
+    @Test
+    public void test_of_sharedAcrossDeserializers() {
+        SerPropertyCache test = SerPropertyCache.of(DefaultDeserializer.INSTANCE, Address.class, Address.meta());
+        SerPropertyCache lenient = SerPropertyCache.of(LenientDeserializer.INSTANCE, Address.class, Address.meta());
+        // alternating between deserializers does not replace the cache of the other
+        for (int i = 0; i < 3; i++) {
+            assertSame(SerPropertyCache.of(DefaultDeserializer.INSTANCE, Address.class, Address.meta()), test);
+            assertSame(SerPropertyCache.of(LenientDeserializer.INSTANCE, Address.class, Address.meta()), lenient);
+        }
+    }
+
+    @Test
+    public void test_of_dynamic() {
+        FlexiBean bean = new FlexiBean();
+        bean.set("street", "Park Lane");
+        SerPropertyCache test = SerPropertyCache.of(DefaultDeserializer.INSTANCE, FlexiBean.class, bean.metaBean());
+        assertNotSame(SerPropertyCache.of(DefaultDeserializer.INSTANCE, FlexiBean.class, bean.metaBean()), test);
+    }
+
+    @Test
+    public void test_find_bytes() {
+        SerPropertyCache test = SerPropertyCache.of(DefaultDeserializer.INSTANCE, Address.class, Address.meta());
+        // the names of the properties are added when the cache is created
+        byte[] bytes = "street".getBytes(UTF_8);
+        SerPropertyCache.Entry entry = test.find(bytes, bytes.length);
+        assertNotNull(entry);
+        assertSame(test.find(new StringBuilder("street")), entry);
+        assertEquals(entry.name(), "street");
+        assertSame(entry.metaProperty(), Address.meta().street());
+        // only part of the buffer is the name
+        byte[] longer = "streets".getBytes(UTF_8);
+        assertSame(test.find(longer, 6), entry);
+        assertNull(test.find(longer, 7));
+    }
+
+    @Test
+    public void test_add_existing() {
+        SerPropertyCache test = SerPropertyCache.of(DefaultDeserializer.INSTANCE, Address.class, Address.meta());
+        SerPropertyCache.Entry entry = test.find("city");
+        assertSame(test.add("city"), entry);
+        assertSame(entry.metaProperty(), Address.meta().city());
+    }
+
+    @Test
+    public void test_nonAscii() {
+        SerPropertyCache test = SerPropertyCache.of(LenientDeserializer.INSTANCE, Address.class, Address.meta());
+        byte[] bytes = "caf\u00e9".getBytes(UTF_8);
+        SerPropertyCache.Entry entry = test.add("caf\u00e9");
+        assertNull(test.find(bytes, bytes.length));
+        assertSame(test.find("caf\u00e9"), entry);
+        assertNull(entry.metaProperty());
+    }
+
+    @Test
+    public void test_unknown_lenient() {
+        SerPropertyCache test = SerPropertyCache.of(LenientDeserializer.INSTANCE, Person.class, Person.meta());
+        for (int i = 0; i < 100; i++) {
+            SerPropertyCache.Entry entry = test.add("unknown" + i);
+            assertEquals(entry.name(), "unknown" + i);
+            assertNull(entry.metaProperty());
+        }
+        // the number of unknown names that are added is limited
+        byte[] bytes = "unknown0".getBytes(UTF_8);
+        assertEquals(test.find(bytes, bytes.length).name(), "unknown0");
+        assertNull(test.find("unknown99"));
+        assertSame(test.find("surname").metaProperty(), Person.meta().surname());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_unknown_strict() {
+        SerPropertyCache test = SerPropertyCache.of(DefaultDeserializer.INSTANCE, Address.class, Address.meta());
+        try {
+            test.add("unknown");
+        } finally {
+            assertNull(test.find("unknown"));
+        }
+    }
+
+}
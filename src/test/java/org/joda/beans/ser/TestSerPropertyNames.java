@@ -0,0 +1,86 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.joda.beans.MetaProperty;
+import org.joda.beans.impl.flexi.FlexiBean;
+import org.joda.beans.sample.Address;
+import org.junit.Test;
+
+/**
+ * Test pre-encoded property names.
+ */
+public class TestSerPropertyNames {
+
+    @Test
+    public void test_encoded_metaBean() {
+        AtomicInteger count = new AtomicInteger();
+        SerPropertyNames<String> test = new SerPropertyNames<>(name -> {
+            count.incrementAndGet();
+            return "[" + name + "]";
+        }, String[]::new);
+        String[] names = test.encoded(Address.meta());
+        int index = 0;
+        for (MetaProperty<?> prop : Address.meta().metaPropertyIterable()) {
+            assertEquals(names[index++], "[" + prop.name() + "]");
+        }
+        assertEquals(names.length, Address.meta().metaPropertyCount());
+        assertSame(test.encoded(Address.meta()), names);
+        assertEquals(count.get(), names.length);
+    }
+
+    @Test
+    public void test_encoded() {
+        AtomicInteger count = new AtomicInteger();
+        SerPropertyNames<String> test = new SerPropertyNames<>(name -> {
+            count.incrementAndGet();
+            return "[" + name + "]";
+        }, String[]::new);
+        String street = test.encoded(Address.meta().street());
+        assertEquals(street, "[street]");
+        assertSame(test.encoded(Address.meta().street()), street);
+        assertSame(test.encoded(Address.meta()), test.encoded(Address.meta()));
+        assertEquals(test.encoded(Address.meta().city()), "[city]");
+        assertEquals(count.get(), Address.meta().metaPropertyCount());
+    }
+
+    @Test
+    public void test_encoded_dynamic() {
+        AtomicInteger count = new AtomicInteger();
+        SerPropertyNames<String> test = new SerPropertyNames<>(name -> {
+            count.incrementAndGet();
+            return new String(name);
+        }, String[]::new);
+        FlexiBean bean = new FlexiBean();
+        bean.set("name", "Stephen");
+        MetaProperty<Object> prop = bean.metaBean().metaProperty("name");
+        String encoded = test.encoded(prop);
+        assertEquals(encoded, "name");
+        assertNotSame(test.encoded(prop), encoded);
+        assertEquals(count.get(), 2);
+        String[] names = test.encoded(bean.metaBean());
+        assertEquals(names.length, 1);
+        assertEquals(names[0], "name");
+        assertNotSame(test.encoded(bean.metaBean()), names);
+    }
+
+}
@@ -16,6 +16,7 @@
 package org.joda.beans.ser;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.util.BitSet;
@@ -24,6 +25,7 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.joda.convert.RenameHandler;
 import org.junit.Test;
 
 /**
@@ -119,7 +121,92 @@ public class TestSerTypeMapper {
         assertEquals(cache.isEmpty(), true);
     }
 
+    @Test
+    public void test_encodeType_basePackageChanges() {
+        // short names are cached for the last base package, which must not leak into other base packages
+        for (int i = 0; i < 3; i++) {
+            assertEquals(SerTypeMapper.encodeType(Normal.class, SETTINGS, "org.joda.beans.ser.", null), "Normal");
+            assertEquals(SerTypeMapper.encodeType(Normal.class, SETTINGS, "org.joda.beans.", null), "org.joda.beans.ser.Normal");
+            assertEquals(SerTypeMapper.encodeType(Normal.class, SETTINGS, null, null), "org.joda.beans.ser.Normal");
+        }
+    }
+
     //-----------------------------------------------------------------------
+    @Test
+    public void test_decodeType_cachedAcrossMessages() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Map<String, Class<?>> cache = new HashMap<>();
+            assertEquals(SerTypeMapper.decodeType("Normal", SETTINGS, "org.joda.beans.ser.", cache), Normal.class);
+            assertEquals(SerTypeMapper.decodeType("org.joda.beans.ser.Normal", SETTINGS, null, null), Normal.class);
+            assertEquals(cache.get("org.joda.beans.ser.Normal"), Normal.class);
+        }
+    }
+
+    @Test
+    public void test_decodeType_contextClassLoaderChanges() throws Exception {
+        assertEquals(SerTypeMapper.decodeType("org.joda.beans.ser.Normal", SETTINGS, null, null), Normal.class);
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        thread.setContextClassLoader(new ClassLoader(original) {});
+        try {
+            assertEquals(SerTypeMapper.decodeType("org.joda.beans.ser.Normal", SETTINGS, null, null), Normal.class);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+        assertEquals(SerTypeMapper.decodeType("org.joda.beans.ser.Normal", SETTINGS, null, null), Normal.class);
+    }
+
+    @Test
+    public void test_decodeType_cachedPerContextClassLoader() throws Exception {
+        String name = "org.jodabeans.ser.TypeMapperLoaded";
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        thread.setContextClassLoader(new AliasClassLoader(original, name, Normal.class));
+        try {
+            assertEquals(SerTypeMapper.decodeType(name, SETTINGS, null, null), Normal.class);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+        thread.setContextClassLoader(new AliasClassLoader(original, name, BitSet.class));
+        try {
+            assertEquals(SerTypeMapper.decodeType(name, SETTINGS, null, null), BitSet.class);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+        try {
+            SerTypeMapper.decodeType(name, SETTINGS, null, null);
+            fail();
+        } catch (ClassNotFoundException ex) {
+            // not visible to the original class loader
+        }
+    }
+
+    @Test
+    public void test_decodeType_renamedAfterCached() throws Exception {
+        String name = "org.jodabeans.ser.TypeMapperRenamed";
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        thread.setContextClassLoader(new AliasClassLoader(original, name, BitSet.class));
+        try {
+            assertEquals(SerTypeMapper.decodeType(name, SETTINGS, null, null), BitSet.class);
+            assertEquals(SerTypeMapper.decodeType(name, SETTINGS, null, null), BitSet.class);
+            RenameHandler.INSTANCE.renamedType(name, Normal.class);
+            assertEquals(SerTypeMapper.decodeType(name, SETTINGS, null, null), Normal.class);
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void test_decodeType_notFoundNotCached() throws Exception {
+        try {
+            SerTypeMapper.decodeType("org.joda.beans.ser.Unknown", SETTINGS, null, null);
+        } catch (ClassNotFoundException ex) {
+            // second lookup must also fail
+        }
+        SerTypeMapper.decodeType("org.joda.beans.ser.Unknown", SETTINGS, null, null);
+    }
+
     @Test
     public void test_decodeType() throws Exception {
         Map<String, Class<?>> cache = new HashMap<>();
@@ -172,4 +259,22 @@ public class TestSerTypeMapper {
         SerTypeMapper.decodeType("", SETTINGS, "java.util.", cache);
     }
 
+    //-------------------------------------------------------------------------
+    // loads a made-up class name as an existing class
+    static final class AliasClassLoader extends ClassLoader {
+        private final String name;
+        private final Class<?> type;
+
+        AliasClassLoader(ClassLoader parent, String name, Class<?> type) {
+            super(parent);
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public Class<?> loadClass(String name) throws ClassNotFoundException {
+            return name.equals(this.name) ? type : super.loadClass(name);
+        }
+    }
+
 }
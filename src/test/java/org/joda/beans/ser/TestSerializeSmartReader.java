@@ -18,6 +18,7 @@ package org.joda.beans.ser;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 
@@ -28,6 +29,7 @@ import org.joda.beans.sample.ImmAddress;
 import org.joda.beans.sample.ImmEmpty;
 import org.joda.beans.sample.ImmGuava;
 import org.joda.beans.sample.ImmOptional;
+import org.joda.beans.sample.ImmPerson;
 import org.joda.beans.sample.SimpleJson;
 import org.joda.beans.test.BeanAssert;
 import org.junit.Test;
@@ -93,6 +95,57 @@ public class TestSerializeSmartReader {
         BeanAssert.assertBeanEquals(bean, roundtrip);
     }
 
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_binaryPositional_address()  throws IOException {
+        Address bean = SerTestHelper.testAddress();
+        byte[] bytes = JodaBeanSer.PRETTY.binWriterPositional().write(bean);
+        Bean roundtrip = JodaBeanSer.PRETTY.smartReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, roundtrip);
+    }
+
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_binaryCompressed_address()  throws IOException {
+        Address bean = SerTestHelper.testAddress();
+        JodaBeanSer settings = JodaBeanSer.PRETTY.withCompression(SerCompression.DEFLATE);
+        byte[] bytes = settings.binWriter().write(bean);
+        assertTrue(bytes.length < JodaBeanSer.PRETTY.binWriter().write(bean).length);
+        assertTrue(JodaBeanSer.PRETTY.smartReader().isKnownFormat(bytes));
+        Bean roundtrip = JodaBeanSer.PRETTY.smartReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, roundtrip);
+    }
+
+    @Test
+    public void test_jsonCompressed_immAddress()  throws IOException {
+        ImmAddress bean = SerTestHelper.testImmAddress();
+        JodaBeanSer settings = JodaBeanSer.PRETTY.withCompression(SerCompression.DEFLATE);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        settings.jsonWriter().writeTo(bean, baos);
+        ImmAddress roundtrip = JodaBeanSer.PRETTY.smartReader().read(baos.toByteArray(), ImmAddress.class);
+        BeanAssert.assertBeanEquals(bean, roundtrip);
+    }
+
+    @Test
+    public void test_binaryCompressed_dictionary()  throws IOException {
+        ImmAddress bean = SerTestHelper.testImmAddress();
+        SerCompression compression = SerCompression.DEFLATE.withDictionary(ImmPerson.meta(), ImmAddress.meta());
+        JodaBeanSer settings = JodaBeanSer.COMPACT.withCompression(compression);
+        byte[] bytes = settings.binWriter().write(bean);
+        assertTrue(bytes.length < JodaBeanSer.COMPACT.withCompression(SerCompression.DEFLATE).binWriter().write(bean).length);
+        Bean roundtrip = JodaBeanSer.COMPACT.withCompression(SerCompression.NONE.withDictionary(ImmPerson.meta(), ImmAddress.meta()))
+                .smartReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, roundtrip);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_binaryCompressed_dictionaryMismatch()  throws IOException {
+        ImmAddress bean = SerTestHelper.testImmAddress();
+        SerCompression compression = SerCompression.DEFLATE.withDictionary(ImmPerson.meta(), ImmAddress.meta());
+        byte[] bytes = JodaBeanSer.COMPACT.withCompression(compression).binWriter().write(bean);
+        JodaBeanSer.COMPACT.smartReader().read(bytes);
+    }
+
     //-----------------------------------------------------------------------
     @Test
     public void test_json_address()  throws IOException {
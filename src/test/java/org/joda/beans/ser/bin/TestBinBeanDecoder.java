@@ -0,0 +1,127 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+
+import org.joda.beans.Bean;
+import org.joda.beans.sample.Address;
+import org.joda.beans.sample.ImmAddress;
+import org.joda.beans.sample.ImmTreeNode;
+import org.joda.beans.ser.JodaBeanSer;
+import org.joda.beans.ser.SerTestHelper;
+import org.joda.beans.test.BeanAssert;
+import org.junit.Test;
+
+/**
+ * Test incremental decoding of binary beans.
+ */
+public class TestBinBeanDecoder {
+
+    @Test
+    public void test_feed_byteByByte() {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(address);
+
+        BinBeanDecoder<ImmAddress> decoder = new BinBeanDecoder<>(JodaBeanSer.COMPACT, ImmAddress.class);
+        for (int i = 0; i < bytes.length - 1; i++) {
+            assertNull(decoder.feed(ByteBuffer.wrap(bytes, i, 1)));
+            assertTrue(decoder.isPartial());
+        }
+        ImmAddress bean = decoder.feed(ByteBuffer.wrap(bytes, bytes.length - 1, 1));
+        BeanAssert.assertBeanEquals(bean, address);
+        assertFalse(decoder.isPartial());
+    }
+
+    @Test
+    public void test_feed_chunks() {
+        ImmTreeNode tree = SerTestHelper.testTree();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterReferencing().write(tree);
+
+        BinBeanDecoder<ImmTreeNode> decoder = new BinBeanDecoder<>(JodaBeanSer.COMPACT, ImmTreeNode.class);
+        ImmTreeNode bean = null;
+        for (int i = 0; i < bytes.length; i += 7) {
+            assertNull(bean);
+            bean = decoder.feed(ByteBuffer.wrap(bytes, i, Math.min(7, bytes.length - i)));
+        }
+        BeanAssert.assertBeanEquals(bean, tree);
+    }
+
+    @Test
+    public void test_feed_multipleMessages() {
+        Address address = SerTestHelper.testAddress();
+        ImmAddress immAddress = SerTestHelper.testImmAddress();
+        byte[] bytes1 = JodaBeanSer.COMPACT.binWriter().write(address);
+        byte[] bytes2 = JodaBeanSer.COMPACT.binWriterPositional().write(immAddress);
+        ByteBuffer buffer = ByteBuffer.allocate(bytes1.length + bytes2.length);
+        buffer.put(bytes1).put(bytes2).flip();
+
+        BinBeanDecoder<Bean> decoder = new BinBeanDecoder<>(JodaBeanSer.COMPACT, Bean.class);
+        BeanAssert.assertBeanEquals(decoder.feed(buffer), address);
+        assertEquals(buffer.position(), bytes1.length);
+        BeanAssert.assertBeanEquals(decoder.feed(buffer), immAddress);
+        assertEquals(buffer.remaining(), 0);
+        assertNull(decoder.feed(buffer));
+        assertFalse(decoder.isPartial());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_feed_notArray() {
+        BinBeanDecoder<Bean> decoder = new BinBeanDecoder<>(JodaBeanSer.COMPACT, Bean.class);
+        decoder.feed(ByteBuffer.wrap(new byte[] {1}));
+    }
+
+    @Test
+    public void test_feed_validAfterInvalid() {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(address);
+
+        BinBeanDecoder<ImmAddress> decoder = new BinBeanDecoder<>(JodaBeanSer.COMPACT, ImmAddress.class);
+        assertNull(decoder.feed(ByteBuffer.wrap(bytes, 0, 2)));
+        assertTrue(decoder.isPartial());
+        try {
+            decoder.feed(ByteBuffer.wrap(new byte[] {(byte) 0xC1}));
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        assertFalse(decoder.isPartial());
+        BeanAssert.assertBeanEquals(decoder.feed(ByteBuffer.wrap(bytes)), address);
+        assertFalse(decoder.isPartial());
+    }
+
+    @Test
+    public void test_feed_validAfterNotArray() {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(address);
+
+        BinBeanDecoder<ImmAddress> decoder = new BinBeanDecoder<>(JodaBeanSer.COMPACT, ImmAddress.class);
+        try {
+            decoder.feed(ByteBuffer.wrap(new byte[] {1}));
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        BeanAssert.assertBeanEquals(decoder.feed(ByteBuffer.wrap(bytes)), address);
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import org.joda.beans.Bean;
+import org.joda.beans.sample.Address;
+import org.joda.beans.sample.ImmAddress;
+import org.joda.beans.sample.ImmOptional;
+import org.joda.beans.ser.JodaBeanSer;
+import org.joda.beans.ser.SerTestHelper;
+import org.joda.beans.test.BeanAssert;
+import org.junit.Test;
+
+/**
+ * Test streams of beans using binary.
+ */
+public class TestBinBeanStream {
+
+    @Test
+    public void test_writeRead_mixedTypes() throws IOException {
+        ImmAddress immAddress = SerTestHelper.testImmAddress();
+        Address address = SerTestHelper.testAddress();
+        ImmOptional optional = SerTestHelper.testImmOptional();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (BinBeanStreamWriter writer = new BinBeanStreamWriter(JodaBeanSer.COMPACT, baos)) {
+            writer.write(immAddress);
+            writer.write(address);
+            writer.write(optional);
+            writer.write(immAddress);
+        }
+        byte[] bytes = baos.toByteArray();
+
+        try (BinBeanStreamReader<Bean> reader = new BinBeanStreamReader<>(JodaBeanSer.COMPACT, new ByteArrayInputStream(bytes), Bean.class)) {
+            assertTrue(reader.hasNext());
+            assertTrue(reader.hasNext());
+            BeanAssert.assertBeanEquals(immAddress, reader.next());
+            BeanAssert.assertBeanEquals(address, reader.next());
+            BeanAssert.assertBeanEquals(optional, reader.next());
+            BeanAssert.assertBeanEquals(immAddress, reader.next());
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void test_smallerThanSeparateMessages() throws IOException {
+        ImmAddress immAddress = SerTestHelper.testImmAddress();
+        byte[] single = JodaBeanSer.COMPACT.binWriter().write(immAddress);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (BinBeanStreamWriter writer = new BinBeanStreamWriter(JodaBeanSer.COMPACT, baos)) {
+            for (int i = 0; i < 10; i++) {
+                writer.write(immAddress);
+            }
+        }
+        assertTrue(baos.size() < single.length * 10);
+    }
+
+    @Test
+    public void test_append() throws IOException {
+        ImmOptional optional = SerTestHelper.testImmOptional();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (BinBeanStreamWriter writer = new BinBeanStreamWriter(JodaBeanSer.COMPACT, baos)) {
+            writer.write(optional);
+        }
+        // a second writer appends its own header
+        try (BinBeanStreamWriter writer = new BinBeanStreamWriter(JodaBeanSer.COMPACT, baos)) {
+            writer.write(optional);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+        try (BinBeanStreamReader<ImmOptional> reader = new BinBeanStreamReader<>(JodaBeanSer.COMPACT, buffer, ImmOptional.class)) {
+            List<ImmOptional> beans = reader.stream().collect(Collectors.toList());
+            assertEquals(2, beans.size());
+            BeanAssert.assertBeanEquals(optional, beans.get(0));
+            BeanAssert.assertBeanEquals(optional, beans.get(1));
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_empty() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new BinBeanStreamWriter(JodaBeanSer.COMPACT, baos).close();
+        assertEquals(2, baos.size());
+
+        BinBeanStreamReader<Bean> reader = new BinBeanStreamReader<>(JodaBeanSer.COMPACT, new ByteArrayInputStream(baos.toByteArray()), Bean.class);
+        assertFalse(reader.hasNext());
+        reader.next();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_read_noHeader() {
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(SerTestHelper.testImmOptional());
+        new BinBeanStreamReader<>(JodaBeanSer.COMPACT, new ByteArrayInputStream(bytes), Bean.class).hasNext();
+    }
+
+}
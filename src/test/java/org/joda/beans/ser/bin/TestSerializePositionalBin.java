@@ -0,0 +1,221 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.joda.beans.impl.flexi.FlexiBean;
+import org.joda.beans.sample.Address;
+import org.joda.beans.sample.ImmAddress;
+import org.joda.beans.sample.ImmGenericArray;
+import org.joda.beans.sample.ImmGenericCollections;
+import org.joda.beans.sample.ImmGeneric;
+import org.joda.beans.sample.ImmGuava;
+import org.joda.beans.sample.ImmKeyList;
+import org.joda.beans.sample.ImmNamedKey;
+import org.joda.beans.sample.ImmOptional;
+import org.joda.beans.sample.ImmTreeNode;
+import org.joda.beans.sample.JodaConvertInterface;
+import org.joda.beans.ser.JodaBeanSer;
+import org.joda.beans.ser.SerTestHelper;
+import org.joda.beans.test.BeanAssert;
+import org.junit.Test;
+
+/**
+ * Test property roundtrip using the positional binary format.
+ */
+public class TestSerializePositionalBin {
+
+    @Test
+    public void test_writeAddress() {
+        Address address = SerTestHelper.testAddress();
+        byte[] bytes = JodaBeanSer.PRETTY.binWriterPositional().write(address);
+//        System.out.println(JodaBeanBinReader.visualize(bytes));
+
+        Address bean = (Address) JodaBeanSer.PRETTY.binReader().read(bytes);
+//        System.out.println(bean);
+        BeanAssert.assertBeanEquals(bean, address);
+    }
+
+    @Test
+    public void test_writeImmAddress() {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        byte[] bytes = JodaBeanSer.PRETTY.binWriterPositional().write(address);
+//        System.out.println(JodaBeanBinReader.visualize(bytes));
+
+        ImmAddress bean = (ImmAddress) JodaBeanSer.PRETTY.binReader().read(bytes);
+//        System.out.println(bean);
+        BeanAssert.assertBeanEquals(bean, address);
+    }
+
+    @Test
+    public void test_writeImmAddress_byteBuffer() {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+        JodaBeanSer.PRETTY.binWriterPositional().write(address, buffer);
+        buffer.flip();
+
+        ImmAddress bean = JodaBeanSer.PRETTY.binReader().read(buffer, ImmAddress.class);
+        BeanAssert.assertBeanEquals(bean, address);
+        assertEquals(buffer.remaining(), 0);
+    }
+
+    @Test
+    public void test_writeImmOptional() {
+        ImmOptional optional = SerTestHelper.testImmOptional();
+        byte[] bytes = JodaBeanSer.PRETTY.withIncludeDerived(true).binWriterPositional().write(optional);
+
+        ImmOptional bean = (ImmOptional) JodaBeanSer.PRETTY.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, optional);
+    }
+
+    @Test
+    public void test_writeCollections() {
+        ImmGuava<String> optional = SerTestHelper.testCollections();
+        byte[] bytes = JodaBeanSer.PRETTY.binWriterPositional().write(optional);
+
+        @SuppressWarnings("unchecked")
+        ImmGuava<String> bean = (ImmGuava<String>) JodaBeanSer.PRETTY.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, optional);
+    }
+
+    @Test
+    public void test_writeJodaConvertInterface() {
+        ImmGenericCollections<JodaConvertInterface> array = SerTestHelper.testGenericInterfaces();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositional().write(array);
+
+        @SuppressWarnings("unchecked")
+        ImmGenericCollections<JodaConvertInterface> bean =
+                (ImmGenericCollections<JodaConvertInterface>) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, array);
+    }
+
+    @Test
+    public void test_writeIntermediateInterface() {
+        ImmKeyList array = SerTestHelper.testIntermediateInterfaces();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositional().write(array);
+
+        ImmKeyList bean = JodaBeanSer.COMPACT.binReader().read(bytes, ImmKeyList.class);
+        BeanAssert.assertBeanEquals(bean, array);
+    }
+
+    @Test
+    public void test_writeGenericArrayWithNulls() {
+        ImmGenericArray<ImmGeneric<?>> array = SerTestHelper.testGenericArrayWithNulls();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositional().write(array);
+
+        @SuppressWarnings("unchecked")
+        ImmGenericArray<ImmGeneric<?>> bean = (ImmGenericArray<ImmGeneric<?>>) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, array);
+    }
+
+    @Test
+    public void test_writeJodaConvert() {
+        ImmNamedKey key = ImmNamedKey.of("name");
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositional().write(key);
+
+        ImmNamedKey bean = (ImmNamedKey) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, key);
+    }
+
+    @Test
+    public void test_writeTree() {
+        ImmTreeNode treeNode = SerTestHelper.testTree();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositional().write(treeNode);
+        byte[] standardBytes = JodaBeanSer.COMPACT.binWriter().write(treeNode);
+        assertTrue(bytes.length < standardBytes.length);
+
+        ImmTreeNode bean = (ImmTreeNode) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, treeNode);
+    }
+
+    @Test
+    public void test_writeFlexiBean() {
+        FlexiBean flexi = new FlexiBean();
+        flexi.set("name", "Etienne");
+        flexi.set("address", SerTestHelper.testImmAddress());
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositional().write(flexi);
+
+        FlexiBean bean = (FlexiBean) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, flexi);
+    }
+
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_referencing_writeTree() {
+        ImmTreeNode treeNode = SerTestHelper.testTree();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositionalReferencing().write(treeNode);
+        byte[] positionalBytes = JodaBeanSer.COMPACT.binWriterPositional().write(treeNode);
+        assertTrue(bytes.length < positionalBytes.length);
+
+        ImmTreeNode bean = (ImmTreeNode) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, treeNode);
+        assertSame(bean.getChild1(), bean.getChildList().get(0));
+        assertSame(bean.getChild3(), bean.getChildList().get(1));
+    }
+
+    @Test
+    public void test_referencing_writeAddress() {
+        Address address = SerTestHelper.testAddress();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositionalReferencing().write(address);
+
+        Address bean = (Address) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, address);
+    }
+
+    @Test
+    public void test_referencing_writeCollections() {
+        ImmGuava<String> optional = SerTestHelper.testCollections();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositionalReferencing().write(optional);
+
+        @SuppressWarnings("unchecked")
+        ImmGuava<String> bean = (ImmGuava<String>) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, optional);
+    }
+
+    @Test
+    public void test_referencing_writeFlexiBean() {
+        FlexiBean flexi = new FlexiBean();
+        flexi.set("first", SerTestHelper.testImmAddress());
+        flexi.set("second", SerTestHelper.testImmAddress());
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositionalReferencing().write(flexi);
+
+        FlexiBean bean = (FlexiBean) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, flexi);
+    }
+
+    @Test
+    public void test_referencing_extract() {
+        ImmTreeNode treeNode = SerTestHelper.testTree();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositionalReferencing().write(treeNode);
+
+        assertEquals(JodaBeanSer.COMPACT.binReader().extract(bytes, String.class, "child3", "name"), "Third child");
+    }
+
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_extract() {
+        ImmTreeNode treeNode = SerTestHelper.testTree();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterPositional().write(treeNode);
+
+        assertEquals(JodaBeanSer.COMPACT.binReader().extract(bytes, String.class, "child2", "name"), "Second child");
+    }
+
+}
@@ -22,7 +22,13 @@ import static org.junit.Assert.assertTrue;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 import org.joda.beans.Bean;
 import org.joda.beans.ImmutableBean;
@@ -47,6 +53,9 @@ import org.joda.beans.ser.SerTestHelper;
 import org.joda.beans.test.BeanAssert;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
 /**
  * Test property roundtrip using referencing binary.
  */
@@ -63,6 +72,30 @@ public class TestSerializeReferencingBin {
         BeanAssert.assertBeanEquals(bean, optional);
     }
 
+    @Test
+    public void test_extract() {
+        ImmTreeNode treeNode = SerTestHelper.testTree();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriterReferencing().write(treeNode);
+        JodaBeanBinReader reader = JodaBeanSer.COMPACT.binReader();
+
+        assertEquals(reader.extract(bytes, String.class, "name"), "Root Node");
+        assertEquals(reader.extract(bytes, String.class, "child2", "name"), "Second child");
+        assertEquals(reader.extract(bytes, Object.class, "child2", "child1"), null);
+        assertEquals(reader.extract(bytes, Object.class, "child2", "child1", "name"), null);
+    }
+
+    @Test
+    public void test_writeImmOptional_directByteBuffer() {
+        ImmOptional optional = SerTestHelper.testImmOptional();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+        JodaBeanSer.COMPACT.binWriterReferencing().write(optional, buffer);
+        buffer.flip();
+
+        ImmOptional bean = JodaBeanSer.COMPACT.binReader().read(buffer, ImmOptional.class);
+        assertEquals(0, buffer.remaining());
+        BeanAssert.assertBeanEquals(bean, optional);
+    }
+
     @Test
     public void test_writeCollections() {
         ImmGuava<String> optional = SerTestHelper.testCollections();
@@ -152,6 +185,120 @@ public class TestSerializeReferencingBin {
         assertTrue(bytes.length < regularBytes.length / 2d);
     }
 
+    @Test
+    public void test_writeTree_parallel() {
+        ImmTreeNode treeNode = SerTestHelper.testTree();
+        byte[] bytes = JodaBeanSer.COMPACT.withParallelThreshold(2).binWriterReferencing().write(treeNode);
+        byte[] sequentialBytes = JodaBeanSer.COMPACT.binWriterReferencing().write(treeNode);
+
+        ImmTreeNode bean = (ImmTreeNode) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, treeNode);
+        assertArrayEquals(bytes, sequentialBytes);
+    }
+
+    @Test
+    public void test_writeGenericCollections_parallel() {
+        ImmGenericCollections<Map<ImmJodaConvertBean, String>> generics = SerTestHelper.testGenericNestedCollections();
+        byte[] bytes = JodaBeanSer.COMPACT.withParallelThreshold(1).binWriterReferencing().write(generics);
+
+        @SuppressWarnings("unchecked")
+        ImmGenericCollections<Map<ImmJodaConvertBean, String>> bean =
+                (ImmGenericCollections<Map<ImmJodaConvertBean, String>>) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, generics);
+    }
+
+    @Test
+    public void test_writeCollections_parallel() {
+        ImmGuava<String> optional = SerTestHelper.testCollections();
+        byte[] bytes = JodaBeanSer.COMPACT.withParallelThreshold(1).binWriterReferencing().write(optional);
+
+        @SuppressWarnings("unchecked")
+        ImmGuava<String> bean = (ImmGuava<String>) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, optional);
+    }
+
+    @Test
+    public void test_writeLarge_parallelIdenticalToSequential() {
+        ImmTreeNode shared = ImmTreeNode.builder().name("Shared").build();
+        ImmutableMap.Builder<String, Object> builder = ImmutableMap.builder();
+        for (int i = 0; i < 2000; i++) {
+            switch (i % 5) {
+                case 0:
+                    builder.put("node" + i, ImmTreeNode.builder().name("Node" + (i % 50)).child1(shared).build());
+                    break;
+                case 1:
+                    builder.put("shared" + i, shared);
+                    break;
+                case 2:
+                    builder.put("key" + i, ImmKey.builder().name("Key" + (i % 7)).build());
+                    break;
+                case 3:
+                    builder.put("list" + i, ImmutableList.of("Value" + (i % 3), shared));
+                    break;
+                default:
+                    builder.put("string" + i, "Value" + (i % 30));
+                    break;
+            }
+        }
+        ImmGenericCollections<Object> values = ImmGenericCollections.<Object>builder().map(builder.build()).build();
+        byte[] sequentialBytes = JodaBeanSer.COMPACT.binWriterReferencing().write(values);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int threshold : new int[] {1, 2, 10, 100}) {
+                byte[] bytes = JodaBeanSer.COMPACT.withParallelThreshold(threshold).binWriterReferencing().write(values);
+                assertArrayEquals(bytes, sequentialBytes);
+                byte[] poolBytes = JodaBeanSer.COMPACT.withParallelThreshold(threshold, pool).binWriterReferencing().write(values);
+                assertArrayEquals(poolBytes, sequentialBytes);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        ImmGenericCollections<?> bean = (ImmGenericCollections<?>) JodaBeanSer.COMPACT.binReader().read(sequentialBytes);
+        BeanAssert.assertBeanEquals(bean, values);
+    }
+
+    @Test
+    public void test_parallelPool() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            JodaBeanSer settings = JodaBeanSer.COMPACT.withParallelThreshold(3, pool);
+            assertEquals(settings.getParallelThreshold(), 3);
+            assertTrue(settings.getParallelPool() == pool);
+            assertTrue(JodaBeanSer.COMPACT.withParallelThreshold(3).getParallelPool() == ForkJoinPool.commonPool());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_parallelPool_null() {
+        JodaBeanSer.COMPACT.withParallelThreshold(1, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_parallelThreshold_negative() {
+        JodaBeanSer.COMPACT.withParallelThreshold(-1);
+    }
+
+    @Test
+    public void test_writeNativeValueTypes() {
+        LocalDate date = LocalDate.of(2024, 2, 29);
+        ImmGenericCollections<Object> values = ImmGenericCollections.<Object>builder()
+            .map(ImmutableMap.of(
+                "date", date,
+                "date2", date,
+                "decimal", new BigDecimal("1.25"),
+                "uuid", UUID.fromString("f81d4fae-7dec-11d0-a765-00a0c91e6bf6"),
+                "instant", Instant.ofEpochSecond(-1L, 999_999_999)))
+            .build();
+        byte[] bytes = JodaBeanSer.COMPACT.withNativeValueTypes(true).binWriterReferencing().write(values);
+
+        @SuppressWarnings("unchecked")
+        ImmGenericCollections<Object> bean = (ImmGenericCollections<Object>) JodaBeanSer.COMPACT.binReader().read(bytes);
+        BeanAssert.assertBeanEquals(bean, values);
+    }
+
     @Test
     public void test_read_primitiveTypeChanged() throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -16,18 +16,32 @@
 package org.joda.beans.ser.bin;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.UUID;
 
 import org.joda.beans.Bean;
 import org.joda.beans.impl.flexi.FlexiBean;
 import org.joda.beans.sample.Address;
 import org.joda.beans.sample.Company;
 import org.joda.beans.sample.ImmAddress;
+import org.joda.beans.sample.ImmArrays;
 import org.joda.beans.sample.ImmDoubleFloat;
 import org.joda.beans.sample.ImmDefault;
 import org.joda.beans.sample.ImmGenericCollections;
@@ -38,12 +52,15 @@ import org.joda.beans.sample.ImmOptional;
 import org.joda.beans.sample.JodaConvertBean;
 import org.joda.beans.sample.JodaConvertInterface;
 import org.joda.beans.sample.JodaConvertWrapper;
+import org.joda.beans.sample.Pair;
 import org.joda.beans.sample.Person;
 import org.joda.beans.ser.JodaBeanSer;
 import org.joda.beans.ser.SerTestHelper;
 import org.joda.beans.test.BeanAssert;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableMap;
+
 /**
  * Test property roundtrip using binary.
  */
@@ -134,6 +151,308 @@ public class TestSerializeStandardBin {
         BeanAssert.assertBeanEquals(bean, key);
     }
 
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_extract() {
+        Address address = SerTestHelper.testAddress();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(address);
+        JodaBeanBinReader reader = JodaBeanSer.COMPACT.binReader();
+
+        assertEquals(reader.extract(bytes, Integer.class, "number"), Integer.valueOf(251));
+        assertEquals(reader.extract(bytes, String.class, "city"), "London & Capital of the World <!>");
+        assertEquals(reader.extract(bytes, String.class, "owner", "forename"), "Etienne");
+        assertEquals(reader.extract(bytes, String.class, "owner", "mainAddress", "companyName"), "OpenGamma");
+        assertEquals(reader.extract(bytes, Integer.class, "owner", "mainAddress", "number"), Integer.valueOf(185));
+        BeanAssert.assertBeanEquals(
+                reader.extract(bytes, Person.class, "owner"), address.getOwner());
+        // null values
+        assertEquals(reader.extract(bytes, Object.class, "owner", "mainAddress", "owner"), null);
+        assertEquals(reader.extract(bytes, Object.class, "owner", "mainAddress", "owner", "surname"), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_extract_unknownProperty() {
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(SerTestHelper.testAddress());
+        JodaBeanSer.COMPACT.binReader().extract(bytes, Object.class, "unknown");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_extract_unknownNestedProperty() {
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(SerTestHelper.testAddress());
+        JodaBeanSer.COMPACT.binReader().extract(bytes, Object.class, "owner", "unknown");
+    }
+
+    @Test
+    public void test_extract_renamedProperty() {
+        Pair pair = new Pair();
+        pair.setFirst("A");
+        pair.setSecond("B");
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(pair);
+        assertEquals(JodaBeanSer.COMPACT.binReader().extract(bytes, String.class, "left"), "A");
+        assertEquals(JodaBeanSer.COMPACT.binReader().extract(bytes, String.class, "second"), "B");
+    }
+
+    @Test
+    public void test_extract_typeNameInSkippedProperty() {
+        FlexiBean flexi1 = new FlexiBean();
+        flexi1.set("name", "first");
+        FlexiBean flexi2 = new FlexiBean();
+        flexi2.set("name", "second");
+        ImmAddress address = SerTestHelper.testImmAddress().toBuilder()
+                .object1(flexi1)
+                .object2(flexi2)
+                .build();
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(address);
+        JodaBeanBinReader reader = JodaBeanSer.COMPACT.binReader();
+        BeanAssert.assertBeanEquals(reader.extract(bytes, FlexiBean.class, "object2"), flexi2);
+        assertEquals(reader.extract(bytes, String.class, "object2", "name"), "second");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_extract_notBean() {
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(SerTestHelper.testAddress());
+        JodaBeanSer.COMPACT.binReader().extract(bytes, Object.class, "city", "length");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_extract_emptyPath() {
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(SerTestHelper.testAddress());
+        JodaBeanSer.COMPACT.binReader().extract(bytes, Object.class);
+    }
+
+    @Test
+    public void test_writeImmArrays() {
+        ImmArrays bean = ImmArrays.of(
+                new int[] {1, 3, 2},
+                new long[] {1, 4, 3},
+                new double[] {1.1, 2.2, 3.3},
+                new boolean[] {true, false});
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(bean);
+        assertFalse(JodaBeanBinReader.visualize(bytes).contains("(array)"));
+
+        ImmArrays parsed = JodaBeanSer.COMPACT.binReader().read(bytes, ImmArrays.class);
+        BeanAssert.assertBeanEquals(bean, parsed);
+    }
+
+    @Test
+    public void test_writeImmArrays_native() {
+        ImmArrays bean = ImmArrays.of(
+                new int[] {1, 3, 2},
+                new long[] {1, 4, 3},
+                new double[] {1.1, 2.2, 3.3},
+                new boolean[] {true, false});
+        byte[] bytes = JodaBeanSer.COMPACT.withNativePrimitiveArrays(true).binWriter().write(bean);
+        assertTrue(JodaBeanBinReader.visualize(bytes).contains("(array)"));
+
+        ImmArrays parsed = JodaBeanSer.COMPACT.binReader().read(bytes, ImmArrays.class);
+        BeanAssert.assertBeanEquals(bean, parsed);
+    }
+
+    @Test
+    public void test_writeImmArrays_nativeLarge() {
+        double[] doubles = new double[10000];
+        long[] longs = new long[100];
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = i * 1.5d;
+        }
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = Long.MAX_VALUE - i;
+        }
+        ImmArrays bean = ImmArrays.of(new int[0], longs, doubles, new boolean[0]);
+        byte[] bytes = JodaBeanSer.COMPACT.withNativePrimitiveArrays(true).binWriter().write(bean);
+        assertTrue(bytes.length < doubles.length * 8 + longs.length * 8 + 200);
+
+        ImmArrays parsed = JodaBeanSer.COMPACT.binReader().read(bytes, ImmArrays.class);
+        BeanAssert.assertBeanEquals(bean, parsed);
+    }
+
+    @Test
+    public void test_writePrimitiveArrays_flexi() {
+        FlexiBean flexi = new FlexiBean();
+        flexi.set("doubles", new double[] {1.5d, -2d});
+        flexi.set("floats", new float[] {1.5f});
+        flexi.set("shorts", new short[] {1, 2, 3});
+        byte[] bytes = JodaBeanSer.COMPACT.withNativePrimitiveArrays(true).binWriter().write(flexi);
+        assertFalse(JodaBeanBinReader.visualize(bytes).contains("[D"));
+
+        FlexiBean parsed = (FlexiBean) JodaBeanSer.COMPACT.binReader().read(bytes);
+        assertTrue(Arrays.equals((double[]) parsed.get("doubles"), new double[] {1.5d, -2d}));
+        assertTrue(Arrays.equals((float[]) parsed.get("floats"), new float[] {1.5f}));
+        assertTrue(Arrays.equals((short[]) parsed.get("shorts"), new short[] {1, 2, 3}));
+    }
+
+    @Test
+    public void test_readPrimitiveArray_partialElement() {
+        FlexiBean flexi = new FlexiBean();
+        flexi.set("shorts", new short[] {1, 2, 3});
+        byte[] bytes = JodaBeanSer.COMPACT.withNativePrimitiveArrays(true).binWriter().write(flexi);
+        // change the element type so that the 6 bytes of data are not a whole number of ints
+        bytes[indexOf(bytes, (byte) MsgPack.EXT_8, (byte) 7, (byte) MsgPack.JODA_TYPE_ARRAY, (byte) 'S') + 3] = 'I';
+        assertInvalidData(bytes, "not a multiple of 4");
+    }
+
+    @Test
+    public void test_readNativeValue_trailingBytes() {
+        FlexiBean flexi = new FlexiBean();
+        flexi.set("instant", Instant.ofEpochSecond(1234567890L, 5));
+        byte[] bytes = JodaBeanSer.COMPACT.withNativeValueTypes(true).binWriter().write(flexi);
+        // change the type so that the 12 bytes of the instant are read as an 8 byte date
+        bytes[indexOf(bytes, (byte) MsgPack.EXT_8, (byte) 12, (byte) MsgPack.JODA_TYPE_INSTANT) + 2] =
+                (byte) MsgPack.JODA_TYPE_LOCAL_DATE;
+        assertInvalidData(bytes, "Unexpected trailing bytes");
+    }
+
+    // checks that reading fails due to the invalid data
+    private static void assertInvalidData(byte[] bytes, String message) {
+        try {
+            JodaBeanSer.COMPACT.binReader().read(bytes);
+            fail();
+        } catch (RuntimeException ex) {
+            assertTrue(ex.getCause() instanceof IllegalArgumentException);
+            assertTrue(ex.getCause().getMessage().contains(message));
+        }
+    }
+
+    // finds the index of the sequence of bytes
+    private static int indexOf(byte[] bytes, byte... sequence) {
+        outer:
+        for (int i = 0; i <= bytes.length - sequence.length; i++) {
+            for (int j = 0; j < sequence.length; j++) {
+                if (bytes[i + j] != sequence[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new AssertionError("Sequence not found");
+    }
+
+    @Test
+    public void test_writeImmAddress_pooled() {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        byte[] expected = JodaBeanSer.PRETTY.binWriter().write(address);
+        JodaBeanSer pooled = JodaBeanSer.PRETTY.withPooledBuffers(true);
+        for (int i = 0; i < 3; i++) {
+            byte[] bytes = pooled.binWriter().write(address);
+            assertTrue(Arrays.equals(bytes, expected));
+        }
+        byte[] other = pooled.binWriter().write(SerTestHelper.testAddress());
+        assertTrue(Arrays.equals(other, JodaBeanSer.PRETTY.binWriter().write(SerTestHelper.testAddress())));
+
+        ImmAddress bean = (ImmAddress) pooled.binReader().read(expected);
+        BeanAssert.assertBeanEquals(bean, address);
+    }
+
+    @Test
+    public void test_writeImmAddress_pooledSizeHintPerFormat() {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        JodaBeanSer pooled = JodaBeanSer.PRETTY.withPooledBuffers(true);
+        byte[] bytes = pooled.binWriter().write(address);
+        int hint = BinBufferPool.sizeHint(ImmAddress.class);
+        assertTrue(hint > bytes.length);
+        pooled.jsonWriter().write(address);
+        assertEquals(BinBufferPool.sizeHint(ImmAddress.class), hint);
+    }
+
+    @Test
+    public void test_writeImmAddress_heapByteBuffer() {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        byte[] expected = JodaBeanSer.COMPACT.binWriter().write(address);
+
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length + 10);
+        buffer.position(3);
+        JodaBeanSer.COMPACT.binWriter().write(address, buffer);
+        assertEquals(expected.length + 3, buffer.position());
+        assertTrue(Arrays.equals(Arrays.copyOfRange(buffer.array(), 3, expected.length + 3), expected));
+
+        buffer.flip();
+        buffer.position(3);
+        ImmAddress bean = JodaBeanSer.COMPACT.binReader().read(buffer, ImmAddress.class);
+        assertEquals(expected.length + 3, buffer.position());
+        BeanAssert.assertBeanEquals(bean, address);
+    }
+
+    @Test
+    public void test_writeImmAddress_directByteBuffer() {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        byte[] expected = JodaBeanSer.COMPACT.binWriter().write(address);
+
+        // byte order of the buffer must not matter
+        ByteBuffer buffer = ByteBuffer.allocateDirect(expected.length).order(ByteOrder.LITTLE_ENDIAN);
+        JodaBeanSer.COMPACT.binWriter().write(address, buffer);
+        assertEquals(expected.length, buffer.position());
+        assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+
+        buffer.flip();
+        byte[] actual = new byte[expected.length];
+        buffer.duplicate().get(actual);
+        assertTrue(Arrays.equals(actual, expected));
+        ImmAddress bean = (ImmAddress) JodaBeanSer.COMPACT.binReader().read(buffer);
+        assertEquals(expected.length, buffer.position());
+        BeanAssert.assertBeanEquals(bean, address);
+    }
+
+    @Test
+    public void test_write_byteBufferTooSmall() {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        ByteBuffer buffer = ByteBuffer.allocate(20);
+        try {
+            JodaBeanSer.COMPACT.binWriter().write(address, buffer);
+        } catch (BufferOverflowException ex) {
+            assertEquals(0, buffer.position());
+            return;
+        }
+        throw new AssertionError("BufferOverflowException expected");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void test_read_byteBufferTruncated() {
+        byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(SerTestHelper.testImmAddress());
+        JodaBeanSer.COMPACT.binReader().read(ByteBuffer.wrap(bytes, 0, bytes.length - 4), ImmAddress.class);
+    }
+
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_readMappedFile() throws IOException {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        Path file = Files.createTempFile("joda-beans", ".bin");
+        try {
+            Files.write(file, JodaBeanSer.COMPACT.binWriter().write(address));
+            ImmAddress bean = JodaBeanSer.COMPACT.binReader().read(file, ImmAddress.class);
+            BeanAssert.assertBeanEquals(bean, address);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void test_readMappedFile_smallChunks() throws IOException {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        byte[] standard = JodaBeanSer.COMPACT.binWriter().write(address);
+        ImmOptional optional = SerTestHelper.testImmOptional();
+        byte[] referencing = JodaBeanSer.COMPACT.binWriterReferencing().write(optional);
+        Path file = Files.createTempFile("joda-beans", ".bin");
+        try {
+            Files.write(file, new byte[] {1, 2, 3});
+            Files.write(file, standard, StandardOpenOption.APPEND);
+            Files.write(file, referencing, StandardOpenOption.APPEND);
+            // chunks of 8 and 13 bytes force values to straddle mapped chunks
+            for (int chunkSize : new int[] {8, 13}) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    channel.position(3);
+                    ImmAddress bean1 = JodaBeanSer.COMPACT.binReader().read(channel, ImmAddress.class, chunkSize);
+                    BeanAssert.assertBeanEquals(bean1, address);
+                    assertEquals(3 + standard.length, channel.position());
+                    ImmOptional bean2 = JodaBeanSer.COMPACT.binReader().read(channel, ImmOptional.class, chunkSize);
+                    BeanAssert.assertBeanEquals(bean2, optional);
+                    assertEquals(channel.size(), channel.position());
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
     //-----------------------------------------------------------------------
     @Test
     public void test_readWrite_primitives() throws IOException {
@@ -0,0 +1,229 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.joda.beans.Bean;
+import org.joda.beans.sample.Address;
+import org.joda.beans.sample.ImmAddress;
+import org.joda.beans.sample.ImmOptional;
+import org.joda.beans.sample.SimpleJson;
+import org.joda.beans.ser.JodaBeanSer;
+import org.joda.beans.ser.SerTestHelper;
+import org.joda.beans.test.BeanAssert;
+import org.junit.Test;
+
+/**
+ * Test streams of beans using JSON.
+ */
+public class TestJsonBeanStream {
+
+    @Test
+    public void test_writeRead_lines_mixedTypes() throws IOException {
+        ImmAddress immAddress = SerTestHelper.testImmAddress();
+        Address address = SerTestHelper.testAddress();
+        ImmOptional optional = SerTestHelper.testImmOptional();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (JsonBeanStreamWriter writer = new JsonBeanStreamWriter(JodaBeanSer.PRETTY, baos, false)) {
+            writer.write(immAddress);
+            writer.write(address);
+            writer.write(optional);
+            writer.write(immAddress);
+        }
+        String json = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+        String[] lines = json.split("\n");
+        assertEquals(4, lines.length);
+        // each line is a standalone message
+        BeanAssert.assertBeanEquals(address, JodaBeanSer.COMPACT.jsonReader().read(lines[1]));
+
+        try (JsonBeanStreamReader<Bean> reader = new JsonBeanStreamReader<>(JodaBeanSer.COMPACT, new ByteArrayInputStream(baos.toByteArray()), Bean.class)) {
+            assertTrue(reader.hasNext());
+            assertTrue(reader.hasNext());
+            BeanAssert.assertBeanEquals(immAddress, reader.next());
+            BeanAssert.assertBeanEquals(address, reader.next());
+            BeanAssert.assertBeanEquals(optional, reader.next());
+            BeanAssert.assertBeanEquals(immAddress, reader.next());
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void test_writeRead_array() throws IOException {
+        ImmAddress immAddress = SerTestHelper.testImmAddress();
+        Address address = SerTestHelper.testAddress();
+
+        StringWriter buf = new StringWriter();
+        try (JsonBeanStreamWriter writer = new JsonBeanStreamWriter(JodaBeanSer.COMPACT, buf, true)) {
+            writer.write(immAddress);
+            writer.write(address);
+        }
+        String json = buf.toString();
+        assertTrue(json.startsWith("[\n{"));
+        assertTrue(json.endsWith("}\n]\n"));
+
+        try (JsonBeanStreamReader<Bean> reader = new JsonBeanStreamReader<>(JodaBeanSer.COMPACT, new StringReader(json), Bean.class)) {
+            List<Bean> beans = reader.stream().collect(Collectors.toList());
+            assertEquals(2, beans.size());
+            BeanAssert.assertBeanEquals(immAddress, beans.get(0));
+            BeanAssert.assertBeanEquals(address, beans.get(1));
+        }
+    }
+
+    @Test
+    public void test_read_prettyArray() throws IOException {
+        ImmOptional optional = SerTestHelper.testImmOptional();
+        String single = JodaBeanSer.PRETTY.jsonWriter().write(optional);
+        String json = " [\n" + single + ",\n" + single + "]\n";
+        try (JsonBeanStreamReader<ImmOptional> reader = new JsonBeanStreamReader<>(JodaBeanSer.COMPACT, new StringReader(json), ImmOptional.class)) {
+            List<ImmOptional> beans = reader.stream().collect(Collectors.toList());
+            assertEquals(2, beans.size());
+            BeanAssert.assertBeanEquals(optional, beans.get(0));
+            BeanAssert.assertBeanEquals(optional, beans.get(1));
+        }
+    }
+
+    @Test
+    public void test_empty_lines() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new JsonBeanStreamWriter(JodaBeanSer.COMPACT, baos, false).close();
+        assertEquals(0, baos.size());
+
+        JsonBeanStreamReader<Bean> reader = new JsonBeanStreamReader<>(JodaBeanSer.COMPACT, new StringReader(" \n"), Bean.class);
+        assertFalse(reader.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_empty_array() throws IOException {
+        StringWriter buf = new StringWriter();
+        new JsonBeanStreamWriter(JodaBeanSer.COMPACT, buf, true).close();
+        assertEquals("[]\n", buf.toString());
+
+        JsonBeanStreamReader<Bean> reader = new JsonBeanStreamReader<>(JodaBeanSer.COMPACT, new StringReader(buf.toString()), Bean.class);
+        assertFalse(reader.hasNext());
+        reader.next();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_read_contentAfterArray() {
+        String json = "[]{}";
+        new JsonBeanStreamReader<>(JodaBeanSer.COMPACT, new StringReader(json), Bean.class).hasNext();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_read_truncatedArray() {
+        String single = JodaBeanSer.COMPACT.jsonWriter().write(SerTestHelper.testImmOptional());
+        JsonBeanStreamReader<Bean> reader = new JsonBeanStreamReader<>(JodaBeanSer.COMPACT, new StringReader("[" + single), Bean.class);
+        assertTrue(reader.hasNext());
+        reader.next();
+        reader.hasNext();
+    }
+
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_parallel_ordered() throws IOException {
+        for (boolean array : new boolean[] {false, true}) {
+            byte[] bytes = writeAddresses(5000, array);
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try (Stream<ImmAddress> stream = JsonBeanParallelReader.of(
+                    JodaBeanSer.COMPACT, new ByteArrayInputStream(bytes), ImmAddress.class, pool).stream()) {
+                List<ImmAddress> beans = stream.collect(Collectors.toList());
+                assertEquals(5000, beans.size());
+                for (int i = 0; i < beans.size(); i++) {
+                    assertEquals(i, beans.get(i).getNumber());
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void test_parallel_unordered() throws IOException {
+        byte[] bytes = writeAddresses(5000, false);
+        try (Stream<ImmAddress> stream = JsonBeanParallelReader.of(
+                JodaBeanSer.COMPACT, new ByteArrayInputStream(bytes), ImmAddress.class, ForkJoinPool.commonPool()).unorderedStream()) {
+            List<Integer> numbers = stream.map(ImmAddress::getNumber).sorted().collect(Collectors.toList());
+            assertEquals(5000, numbers.size());
+            for (int i = 0; i < numbers.size(); i++) {
+                assertEquals(i, numbers.get(i).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void test_parallel_simple() {
+        SimpleJson bean = SerTestHelper.testSimpleJson();
+        String single = JodaBeanSer.COMPACT.simpleJsonWriter().write(bean);
+        String json = "[" + single + ",\n" + single + "]";
+        try (Stream<SimpleJson> stream = JsonBeanParallelReader.ofSimple(JodaBeanSer.COMPACT,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), SimpleJson.class, ForkJoinPool.commonPool()).stream()) {
+            List<SimpleJson> beans = stream.collect(Collectors.toList());
+            assertEquals(2, beans.size());
+            BeanAssert.assertBeanEquals(bean, beans.get(1));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_parallel_invalid() {
+        String json = "[{}";
+        JsonBeanParallelReader.of(JodaBeanSer.COMPACT,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), Bean.class, ForkJoinPool.commonPool())
+                .stream()
+                .count();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_parallel_streamTwice() {
+        JsonBeanParallelReader<Bean> reader = JsonBeanParallelReader.of(
+                JodaBeanSer.COMPACT, new ByteArrayInputStream(new byte[0]), Bean.class, ForkJoinPool.commonPool());
+        assertNotEquals(null, reader.stream());
+        reader.stream();
+    }
+
+    private static byte[] writeAddresses(int count, boolean array) throws IOException {
+        ImmAddress base = SerTestHelper.testImmAddress();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (JsonBeanStreamWriter writer = new JsonBeanStreamWriter(JodaBeanSer.COMPACT, baos, array)) {
+            for (int i = 0; i < count; i++) {
+                writer.write(base.toBuilder().number(i).build());
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_read_notBean() {
+        new JsonBeanStreamReader<>(JodaBeanSer.COMPACT, new StringReader("[1]"), Bean.class).hasNext();
+    }
+
+}
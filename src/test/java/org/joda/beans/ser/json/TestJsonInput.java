@@ -17,7 +17,9 @@ package org.joda.beans.ser.json;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.FilterReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 
 import org.junit.Test;
@@ -64,6 +66,26 @@ public class TestJsonInput {
         assertEquals(input.parseString(), expected);
     }
 
+    @Test
+    @UseDataProvider(value = "data_string")
+    public void test_parseString_smallChunks(String text, String expected) throws IOException {
+        JsonInput input = new JsonInput(smallChunks(text + '"'));
+        assertEquals(input.parseString(), expected);
+    }
+
+    @Test
+    public void test_parseString_largerThanWindow() throws IOException {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            buf.append((char) ('a' + i % 26));
+        }
+        String text = buf.toString();
+        JsonInput input = new JsonInput(smallChunks('"' + text + "\\n\",\"" + text + "\""));
+        assertEquals(input.acceptString(), text + "\n");
+        assertEquals(input.readEvent(), JsonEvent.COMMA);
+        assertEquals(input.acceptString(), text);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     @UseDataProvider(value = "data_string")
     public void test_parseString_endOfFile(String text, String expected) throws IOException {
@@ -200,6 +222,32 @@ public class TestJsonInput {
         assertEquals(input.readEvent(), JsonEvent.OBJECT_END);
     }
 
+    @Test
+    @UseDataProvider(value = "data_numberIntegral")
+    public void test_parseNumberIntegral_smallChunks(String text, long expected) throws IOException {
+        JsonInput input = new JsonInput(smallChunks(text + '}'));
+        assertEquals(input.readEvent(), JsonEvent.NUMBER_INTEGRAL);
+        assertEquals(input.parseNumberIntegral(), expected);
+        assertEquals(input.readEvent(), JsonEvent.OBJECT_END);
+    }
+
+    @Test
+    public void test_parseNumberIntegral_limits() throws IOException {
+        JsonInput input = new JsonInput(new StringReader("9223372036854775807,-9223372036854775808}"));
+        assertEquals(input.readEvent(), JsonEvent.NUMBER_INTEGRAL);
+        assertEquals(input.parseNumberIntegral(), Long.MAX_VALUE);
+        assertEquals(input.readEvent(), JsonEvent.COMMA);
+        assertEquals(input.readEvent(), JsonEvent.NUMBER_INTEGRAL);
+        assertEquals(input.parseNumberIntegral(), Long.MIN_VALUE);
+        assertEquals(input.readEvent(), JsonEvent.OBJECT_END);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_parseNumberIntegral_tooLarge() throws IOException {
+        JsonInput input = new JsonInput(new StringReader("9223372036854775808}"));
+        input.readEvent();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     @UseDataProvider(value = "data_numberIntegral")
     public void test_parseNumberIntegral_endOfFile(String text, long expected) throws IOException {
@@ -249,6 +297,15 @@ public class TestJsonInput {
         assertEquals(input.readEvent(), JsonEvent.OBJECT_END);
     }
 
+    @Test
+    @UseDataProvider(value = "data_numberFloating")
+    public void test_parseNumberFloating_smallChunks(String text, double expected) throws IOException {
+        JsonInput input = new JsonInput(smallChunks(text + '}'));
+        assertEquals(input.readEvent(), JsonEvent.NUMBER_FLOATING);
+        assertEquals(input.parseNumberFloating(), expected, 0.00001d);
+        assertEquals(input.readEvent(), JsonEvent.OBJECT_END);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     @UseDataProvider(value = "data_numberFloating")
     public void test_parseNumberFloating_endOfFile(String text, double expected) throws IOException {
@@ -369,4 +426,15 @@ public class TestJsonInput {
         input.skipData();
     }
 
+    //-----------------------------------------------------------------------
+    // a reader that returns a few characters at a time, forcing the window to be refilled
+    private static Reader smallChunks(String text) {
+        return new FilterReader(new StringReader(text)) {
+            @Override
+            public int read(char[] chars, int offset, int length) throws IOException {
+                return super.read(chars, offset, Math.min(length, 3));
+            }
+        };
+    }
+
 }
@@ -0,0 +1,134 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.tngtech.java.junit.dataprovider.DataProvider;
+import com.tngtech.java.junit.dataprovider.DataProviderRunner;
+import com.tngtech.java.junit.dataprovider.UseDataProvider;
+
+/**
+ * Test {@link JsonNumbers}.
+ */
+@RunWith(DataProviderRunner.class)
+public class TestJsonNumbers {
+
+    @DataProvider
+    public static Object[][] data_parse() {
+        return new Object[][] {
+            {"0.0"},
+            {"-0.0"},
+            {"1.5"},
+            {"0.1"},
+            {"1e23"},
+            {"1E+23"},
+            {"8.41e21"},
+            {"9007199254740993.0"},
+            {"1.7976931348623157e308"},
+            {"1.7976931348623159e308"},
+            {"1e400"},
+            {"4.9e-324"},
+            {"2.4703282292062328e-324"},
+            {"2.4703282292062327e-324"},
+            {"2.2250738585072011e-308"},
+            {"2.2250738585072012e-308"},
+            {"1e-400"},
+            {"123456789012345678901234567890.0"},
+            {"0.000000000000000000000000000001234567890123456789012"},
+            {"1.00000000000000011102230246251565404236316680908203124"},
+            {"1.00000000000000011102230246251565404236316680908203125"},
+            {"1.00000000000000011102230246251565404236316680908203126"},
+        };
+    }
+
+    @Test
+    @UseDataProvider("data_parse")
+    public void test_parseDouble(String text) {
+        assertParse(text);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void test_parseDouble_invalid() {
+        char[] chars = "1.2.3".toCharArray();
+        JsonNumbers.parseDouble(chars, 0, chars.length);
+    }
+
+    @Test
+    public void test_parseDouble_random() {
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            double value = randomDouble(random, i);
+            assertParse(Double.toString(value));
+            assertParse(new BigDecimal(value).round(new MathContext(1 + random.nextInt(25))).toString().replace("E+", "E"));
+        }
+    }
+
+    @Test
+    public void test_formatDouble_random() {
+        Random random = new Random(1);
+        char[] buf = new char[JsonNumbers.MAX_DOUBLE_LENGTH];
+        for (int i = 0; i < 100_000; i++) {
+            double value = randomDouble(random, i);
+            int length = JsonNumbers.formatDouble(value, buf);
+            String str = new String(buf, 0, length);
+            assertEquals(str, Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(Double.parseDouble(str)));
+            // never longer than the JDK, which is not always the shortest before Java 19
+            String jdk = Double.toString(value);
+            assertEquals(str + " vs " + jdk, true, significantDigits(str) <= significantDigits(jdk));
+        }
+    }
+
+    private static double randomDouble(Random random, int i) {
+        double value;
+        do {
+            switch (i % 3) {
+                case 0:
+                    value = Double.longBitsToDouble(random.nextLong());
+                    break;
+                case 1:
+                    value = Math.round(random.nextDouble() * 1e8) / 1e4;
+                    break;
+                default:
+                    value = Double.longBitsToDouble(random.nextLong() & 0x001F_FFFF_FFFF_FFFFL);
+                    break;
+            }
+        } while (Double.isNaN(value) || Double.isInfinite(value));
+        return value;
+    }
+
+    private static void assertParse(String text) {
+        char[] chars = text.toCharArray();
+        double expected = Double.parseDouble(text);
+        double actual = JsonNumbers.parseDouble(chars, 0, chars.length);
+        assertEquals(text, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+    }
+
+    private static int significantDigits(String str) {
+        int exponent = str.indexOf('E');
+        String digits = (exponent < 0 ? str : str.substring(0, exponent)).replace("-", "").replace(".", "");
+        digits = digits.replaceAll("^0+", "").replaceAll("0+$", "");
+        return Math.max(1, digits.length());
+    }
+
+}
@@ -121,6 +121,16 @@ public class TestJsonOutput {
             {-1234567d, "-1234567.0"},
             {0.000001d, "1.0E-6"},
             {0.1234d, "0.1234"},
+            {-0d, "-0.0"},
+            {0.001d, "0.001"},
+            {0.0001d, "1.0E-4"},
+            {9999999d, "9999999.0"},
+            {10000000d, "1.0E7"},
+            {8.41e21d, "8.41E21"},
+            {1e23d, "1.0E23"},
+            {Double.MAX_VALUE, "1.7976931348623157E308"},
+            {Double.MIN_NORMAL, "2.2250738585072014E-308"},
+            {Double.MIN_VALUE, "4.9E-324"},
             {Double.NaN, "\"NaN\""},
             {Double.POSITIVE_INFINITY, "\"Infinity\""},
             {Double.NEGATIVE_INFINITY, "\"-Infinity\""},
@@ -17,6 +17,8 @@ package org.joda.beans.ser.json;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
@@ -84,6 +86,47 @@ public class TestSerializeJson {
         BeanAssert.assertBeanEquals(bean, address);
     }
 
+    @Test
+    public void test_writeImmAddress_pooled() throws IOException {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        JodaBeanSer pooled = JodaBeanSer.PRETTY.withPooledBuffers(true);
+        assertEquals(pooled.isPooledBuffers(), true);
+        for (int i = 0; i < 3; i++) {
+            String json = pooled.jsonWriter().write(address);
+            assertEqualsSerialization(json, "/org/joda/beans/ser/ImmAddress.json");
+        }
+        String json = pooled.jsonWriter().write(SerTestHelper.testAddress());
+        assertEqualsSerialization(json, "/org/joda/beans/ser/Address.json");
+    }
+
+    @Test
+    public void test_writeImmAddress_utf8() throws IOException {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        String json = JodaBeanSer.PRETTY.jsonWriter().write(address);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JodaBeanSer.PRETTY.jsonWriter().writeTo(address, baos);
+        byte[] bytes = baos.toByteArray();
+        assertEquals(new String(bytes, StandardCharsets.UTF_8), json);
+        
+        ImmAddress bean1 = JodaBeanSer.PRETTY.jsonReader().read(bytes, ImmAddress.class);
+        BeanAssert.assertBeanEquals(bean1, address);
+        ImmAddress bean2 = JodaBeanSer.PRETTY.jsonReader().read(new ByteArrayInputStream(bytes), ImmAddress.class);
+        BeanAssert.assertBeanEquals(bean2, address);
+    }
+
+    @Test
+    public void test_readWrite_utf8_nonAscii() throws IOException {
+        FlexiBean bean = new FlexiBean();
+        bean.set("text", "caf\u00e9 \u20ac \ud83d\ude00 \u2028 \"\\\n");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JodaBeanSer.COMPACT.jsonWriter().writeTo(bean, baos);
+        byte[] bytes = baos.toByteArray();
+        assertEquals(new String(bytes, StandardCharsets.UTF_8), JodaBeanSer.COMPACT.jsonWriter().write(bean));
+        
+        FlexiBean parsed = JodaBeanSer.COMPACT.jsonReader().read(bytes, FlexiBean.class);
+        BeanAssert.assertBeanEquals(parsed, bean);
+    }
+
     @Test
     public void test_writeImmOptional() throws IOException {
         ImmOptional optional = SerTestHelper.testImmOptional();
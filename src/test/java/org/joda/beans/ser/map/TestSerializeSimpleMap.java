@@ -16,14 +16,20 @@
 package org.joda.beans.ser.map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.joda.beans.impl.flexi.FlexiBean;
 import org.joda.beans.sample.Address;
 import org.joda.beans.sample.ImmGuava;
 import org.joda.beans.sample.ImmOptional;
+import org.joda.beans.sample.ImmPerson;
 import org.joda.beans.sample.Person;
 import org.joda.beans.sample.SimpleJson;
 import org.joda.beans.ser.JodaBeanSer;
@@ -72,6 +78,74 @@ public class TestSerializeSimpleMap {
         BeanAssert.assertBeanEquals(bean, parsed);
     }
 
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_writeView_sameAsWrite() {
+        SimpleJson bean = SerTestHelper.testSimpleJson();
+        Map<String, Object> map = JodaBeanSer.PRETTY.simpleMapWriter().write(bean);
+        Map<String, Object> view = JodaBeanSer.PRETTY.simpleMapWriter().writeView(bean);
+        assertEquals(view, map);
+        assertEquals(view.size(), map.size());
+        assertEquals(view.keySet(), map.keySet());
+        
+        SimpleJson parsed = JodaBeanSer.PRETTY.simpleMapReader().read(view, SimpleJson.class);
+        BeanAssert.assertBeanEquals(bean, parsed);
+    }
+
+    @Test
+    public void test_writeView_collections() {
+        ImmGuava<String> bean = SerTestHelper.testCollections();
+        Map<String, Object> map = JodaBeanSer.PRETTY.simpleMapWriter().write(bean);
+        Map<String, Object> view = JodaBeanSer.PRETTY.simpleMapWriter().writeView(bean);
+        assertEquals(view, map);
+    }
+
+    @Test
+    public void test_writeView_nestedBeans() {
+        Address address = SerTestHelper.testAddress();
+        Map<String, Object> map = JodaBeanSer.PRETTY.simpleMapWriter().write(address);
+        Map<String, Object> view = JodaBeanSer.PRETTY.simpleMapWriter().writeView(address);
+        assertEquals(view, map);
+        Object owner = view.get("owner");
+        assertFalse(owner instanceof LinkedHashMap);
+        assertEquals(owner, map.get("owner"));
+    }
+
+    @Test
+    public void test_writeView_live() {
+        FlexiBean bean = new FlexiBean();
+        bean.set("element", "Test");
+        Map<String, Object> view = JodaBeanSer.COMPACT.simpleMapWriter().writeView(bean);
+        assertEquals(view, ImmutableMap.of("element", "Test"));
+        bean.set("child", ImmPerson.builder().forename("Stephen").build());
+        bean.set("element", null);
+        assertTrue(view.containsKey("child"));
+        assertFalse(view.containsKey("element"));
+        assertNull(view.get("element"));
+        assertNull(view.get("unknown"));
+        assertNull(view.get(1));
+        assertEquals(view.size(), 1);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> child = (Map<String, Object>) view.get("child");
+        assertEquals(child.get("forename"), "Stephen");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_writeView_readOnly() {
+        FlexiBean bean = new FlexiBean();
+        bean.set("element", "Test");
+        JodaBeanSer.COMPACT.simpleMapWriter().writeView(bean).put("element", "Other");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_writeView_readOnlyIterator() {
+        FlexiBean bean = new FlexiBean();
+        bean.set("element", "Test");
+        Iterator<Map.Entry<String, Object>> it = JodaBeanSer.COMPACT.simpleMapWriter().writeView(bean).entrySet().iterator();
+        it.next();
+        it.remove();
+    }
+
     //-----------------------------------------------------------------------
     @Test
     public void test_readWriteBeanEmptyChild() {
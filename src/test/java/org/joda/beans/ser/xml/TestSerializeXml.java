@@ -17,8 +17,11 @@ package org.joda.beans.ser.xml;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.CharArrayWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import org.joda.beans.Bean;
 import org.joda.beans.impl.flexi.FlexiBean;
@@ -86,6 +89,40 @@ public class TestSerializeXml {
         BeanAssert.assertBeanEquals(bean, address);
     }
 
+    @Test
+    public void test_writeImmAddress_utf8() throws IOException {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        String xml = JodaBeanSer.PRETTY.xmlWriter().write(address);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JodaBeanSer.PRETTY.xmlWriter().writeTo(address, baos);
+        byte[] bytes = baos.toByteArray();
+        assertEquals(new String(bytes, StandardCharsets.UTF_8), xml);
+        
+        ImmAddress bean = (ImmAddress) JodaBeanSer.PRETTY.xmlReader().read(new ByteArrayInputStream(bytes));
+        BeanAssert.assertBeanEquals(bean, address);
+    }
+
+    @Test
+    public void test_readWrite_utf8_nonAscii() throws IOException {
+        FlexiBean bean = new FlexiBean();
+        bean.set("text", "caf\u00e9 \u20ac \ud83d\ude00 <&>\t\n\"'");
+        bean.set("map", ImmutableMap.of("caf\u00e9 <&>\"'\t", "\u20ac"));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JodaBeanSer.COMPACT.xmlWriter().writeTo(bean, baos);
+        byte[] bytes = baos.toByteArray();
+        assertEquals(new String(bytes, StandardCharsets.UTF_8), JodaBeanSer.COMPACT.xmlWriter().write(bean));
+        
+        FlexiBean parsed = JodaBeanSer.COMPACT.xmlReader().read(new ByteArrayInputStream(bytes), FlexiBean.class);
+        BeanAssert.assertBeanEquals(parsed, bean);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_write_utf8_invalidChar() throws IOException {
+        FlexiBean bean = new FlexiBean();
+        bean.set("text", "a\u0001");
+        JodaBeanSer.COMPACT.xmlWriter().writeTo(bean, new ByteArrayOutputStream());
+    }
+
     @Test
     public void test_writeImmOptional() {
         ImmOptional optional = SerTestHelper.testImmOptional();
@@ -261,6 +298,22 @@ public class TestSerializeXml {
         BeanAssert.assertBeanEquals(bean, parsed);
     }
 
+    @Test
+    public void test_read_ignoreNestedProperty() {
+        String xml = "<bean><wibble><a><b>x</b></a><a/></wibble><name>foo</name><wibble/></bean>";
+        ImmKey parsed = JodaBeanSer.COMPACT.withDeserializers(SerDeserializers.LENIENT).xmlReader().read(xml, ImmKey.class);
+        ImmKey bean = ImmKey.builder().name("foo").build();
+        BeanAssert.assertBeanEquals(bean, parsed);
+    }
+
+    @Test
+    public void test_read_textInSeveralParts() {
+        String xml = "<bean><name>A &amp; <![CDATA[<B>]]><!-- comment --> &#x43;</name></bean>";
+        ImmKey parsed = JodaBeanSer.COMPACT.xmlReader().read(xml, ImmKey.class);
+        ImmKey bean = ImmKey.builder().name("A & <B> C").build();
+        BeanAssert.assertBeanEquals(bean, parsed);
+    }
+
     //-----------------------------------------------------------------------
     @Test(expected = IllegalArgumentException.class)
     public void test_read_noBeanElementAtRoot() {
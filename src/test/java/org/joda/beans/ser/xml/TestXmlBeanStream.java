@@ -0,0 +1,163 @@
+/*
+ *  Copyright 2001-present Stephen Colebourne
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.joda.beans.ser.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.joda.beans.Bean;
+import org.joda.beans.impl.flexi.FlexiBean;
+import org.joda.beans.sample.Address;
+import org.joda.beans.sample.CompanyAddress;
+import org.joda.beans.sample.ImmAddress;
+import org.joda.beans.sample.ImmPerson;
+import org.joda.beans.ser.JodaBeanSer;
+import org.joda.beans.ser.SerTestHelper;
+import org.joda.beans.test.BeanAssert;
+import org.junit.Test;
+
+/**
+ * Test streams of beans read from XML.
+ */
+public class TestXmlBeanStream {
+
+    @Test
+    public void test_read_list() throws IOException {
+        List<Address> addresses = addresses(1000);
+        ImmPerson person = ImmPerson.builder()
+                .forename("Stephen")
+                .addressList(addresses)
+                .build();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JodaBeanSer.PRETTY.xmlWriter().writeTo(person, baos);
+
+        try (XmlBeanStreamReader<Address> reader = new XmlBeanStreamReader<>(
+                JodaBeanSer.PRETTY, new ByteArrayInputStream(baos.toByteArray()), "addressList", Address.class)) {
+            assertTrue(reader.hasNext());
+            assertTrue(reader.hasNext());
+            for (Address expected : addresses) {
+                BeanAssert.assertBeanEquals(expected, reader.next());
+            }
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void test_read_nestedPath() {
+        List<Address> addresses = addresses(10);
+        FlexiBean bean = new FlexiBean();
+        bean.set("before", "x");
+        bean.set("person", ImmPerson.builder().forename("Stephen").surname("Colebourne").addressList(addresses).build());
+        bean.set("after", "y");
+        String xml = JodaBeanSer.COMPACT.xmlWriter().write(bean);
+
+        try (Stream<Address> stream = new XmlBeanStreamReader<>(
+                JodaBeanSer.COMPACT, new StringReader(xml), "person/addressList", Address.class).stream()) {
+            List<Address> parsed = stream.collect(Collectors.toList());
+            assertEquals(10, parsed.size());
+            for (int i = 0; i < parsed.size(); i++) {
+                BeanAssert.assertBeanEquals(addresses.get(i), parsed.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void test_read_typeNameInSkippedProperty() {
+        ImmAddress address = SerTestHelper.testImmAddress();
+        List<Object> items = new ArrayList<>();
+        items.add(address);
+        items.add(address);
+        FlexiBean bean = new FlexiBean();
+        bean.set("first", address);
+        bean.set("items", items);
+        String xml = JodaBeanSer.COMPACT.xmlWriter().write(bean);
+
+        try (Stream<Bean> stream = new XmlBeanStreamReader<>(
+                JodaBeanSer.COMPACT, new StringReader(xml), "items", Bean.class).stream()) {
+            List<Bean> parsed = stream.collect(Collectors.toList());
+            assertEquals(2, parsed.size());
+            BeanAssert.assertBeanEquals(address, parsed.get(0));
+            BeanAssert.assertBeanEquals(address, parsed.get(1));
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_read_absentProperty() {
+        String xml = JodaBeanSer.COMPACT.xmlWriter().write(ImmPerson.builder().forename("Stephen").build());
+        XmlBeanStreamReader<Address> reader = new XmlBeanStreamReader<>(
+                JodaBeanSer.COMPACT, new StringReader(xml), "addressList", Address.class);
+        assertFalse(reader.hasNext());
+        reader.next();
+    }
+
+    @Test
+    public void test_read_emptyList() {
+        String xml = "<bean><addressList/><surname>Colebourne</surname></bean>";
+        XmlBeanStreamReader<Address> reader = new XmlBeanStreamReader<>(
+                JodaBeanSer.COMPACT, new StringReader(xml), "addressList", Address.class);
+        assertFalse(reader.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_read_map() {
+        String xml = "<bean><otherAddressMap><entry key=\"a\"><number>1</number></entry></otherAddressMap></bean>";
+        new XmlBeanStreamReader<>(JodaBeanSer.COMPACT, new StringReader(xml), "otherAddressMap", Address.class).hasNext();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_read_nullItem() {
+        String xml = "<bean><addressList><item null=\"true\"/></addressList></bean>";
+        new XmlBeanStreamReader<>(JodaBeanSer.COMPACT, new StringReader(xml), "addressList", Address.class).hasNext();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_read_notRootBean() {
+        String xml = "<foo><addressList/></foo>";
+        new XmlBeanStreamReader<>(JodaBeanSer.COMPACT, new StringReader(xml), "addressList", Address.class).hasNext();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_create_invalidPath() {
+        new XmlBeanStreamReader<>(JodaBeanSer.COMPACT, new StringReader("<bean/>"), "person//addressList", Address.class);
+    }
+
+    private static List<Address> addresses(int count) {
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Address address = (i % 3 == 0 ? new CompanyAddress() : new Address());
+            address.setNumber(i);
+            address.setStreet("Street " + i);
+            address.setCity("City & <" + i + ">");
+            if (address instanceof CompanyAddress) {
+                ((CompanyAddress) address).setCompanyName("Company " + i);
+            }
+            addresses.add(address);
+        }
+        return addresses;
+    }
+
+}